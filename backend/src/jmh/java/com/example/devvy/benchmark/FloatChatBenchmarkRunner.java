@@ -0,0 +1,26 @@
+package com.temporary22.aiagent.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * SWP Float Chat JMH 벤치마크 실행기
+ *
+ * 처리량과 함께 gc 프로파일러로 연산당 할당량(gc.alloc.rate.norm)을 보고합니다.
+ * 인자는 JMH 명령행 옵션을 그대로 사용하며, 지정하지 않으면 FloatChat*Benchmark 전체를 실행합니다.
+ *
+ * 실행: java -cp <jmh 클래스패스> com.temporary22.aiagent.benchmark.FloatChatBenchmarkRunner [-p conversationCount=100]
+ */
+public class FloatChatBenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include("FloatChat.*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
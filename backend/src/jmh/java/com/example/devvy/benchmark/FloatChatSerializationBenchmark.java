@@ -0,0 +1,115 @@
+package com.temporary22.aiagent.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.temporary22.aiagent.entity.FloatChatCategoryVo;
+import com.temporary22.aiagent.entity.FloatChatVo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FloatChatVo 응답 JSON 직렬화 벤치마크
+ *
+ * /message 단건 응답, /categories 목록(전체 VO / 경량 DTO), /conversations 목록 형태를 측정합니다.
+ * ObjectMapper 는 Spring Boot 기본 설정과 같이 날짜를 ISO 문자열로 직렬화합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloatChatSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int conversationCount;
+
+    private ObjectMapper objectMapper;
+    private FloatChatVo messageResponse;
+    private FloatChatVo categoryResponse;
+    private FloatChatVo categorySlimResponse;
+    private FloatChatVo conversationResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        messageResponse = FloatChatVo.createAIResponse(repeat("| 항목 | 설명 |\n|---|---|\n| API | 인증 토큰 발급 |\n", 20));
+        messageResponse.setConversationId(123456789L);
+
+        String[] codes = {"swdp_menu", "project", "voc", "project_info", "swdp_api"};
+        List<FloatChatVo> categories = new ArrayList<>();
+        List<FloatChatCategoryVo> slimCategories = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            FloatChatVo category = new FloatChatVo();
+            category.setCategoryId((long) i + 1);
+            category.setCategoryCode(codes[i]);
+            category.setDescription("카테고리 설명 " + i);
+            category.setDescriptionEn("Category description " + i);
+            category.setIconPath("/icons/" + codes[i] + ".svg");
+            category.setActiveYn("Y");
+            category.setSystemPrompt(repeat("당신은 SWP 전문 AI 어시스턴트입니다. 한국어로 답변하세요.\n", 30));
+            categories.add(category);
+            slimCategories.add(FloatChatCategoryVo.from(category));
+        }
+        categoryResponse = FloatChatVo.createSuccessResponse(categories, "카테고리 조회 성공");
+        categorySlimResponse = FloatChatVo.createSuccessResponse(slimCategories, "카테고리 조회 성공");
+
+        List<FloatChatVo> conversations = new ArrayList<>();
+        for (int i = 0; i < conversationCount; i++) {
+            FloatChatVo conversation = new FloatChatVo();
+            conversation.setConversationId(1000L + i);
+            conversation.setCategoryCode("swdp_api");
+            conversation.setUserId("user01");
+            conversation.setUserQuestion("API 키는 어떻게 발급받나요? " + i);
+            conversation.setAiResponse(repeat("API 키는 개발자 포털의 내 애플리케이션 메뉴에서 발급합니다. ", 10));
+            conversation.setCreatedDate(LocalDateTime.now().minusMinutes(i));
+            conversations.add(conversation);
+        }
+        conversationResponse = FloatChatVo.createSuccessResponse(conversations, "대화 조회 성공");
+    }
+
+    @Benchmark
+    public byte[] messageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(messageResponse);
+    }
+
+    @Benchmark
+    public byte[] categoryList() throws Exception {
+        return objectMapper.writeValueAsBytes(categoryResponse);
+    }
+
+    @Benchmark
+    public byte[] categoryListSlim() throws Exception {
+        return objectMapper.writeValueAsBytes(categorySlimResponse);
+    }
+
+    @Benchmark
+    public byte[] conversationList() throws Exception {
+        return objectMapper.writeValueAsBytes(conversationResponse);
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder builder = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+}
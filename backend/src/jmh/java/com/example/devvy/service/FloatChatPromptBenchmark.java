@@ -0,0 +1,87 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.entity.FloatChatVo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 처리 경로의 프롬프트 생성, FloatChatVo 팩토리, 요청 검증 벤치마크
+ *
+ * 실행 및 할당량(gc 프로파일러) 측정은 FloatChatBenchmarkRunner 를 참고하세요.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloatChatPromptBenchmark {
+
+    @Param({"swdp_api", "unknown"})
+    private String categoryCode;
+
+    @Param({"64", "1000"})
+    private int questionLength;
+
+    private String userQuestion;
+    private FloatChatVo request;
+    private Object payload;
+
+    @Setup
+    public void setUp() {
+        StringBuilder question = new StringBuilder(questionLength);
+        String seed = "SWDP API 인증 토큰은 어떻게 발급받나요? ";
+        while (question.length() < questionLength) {
+            question.append(seed);
+        }
+        question.setLength(questionLength);
+        userQuestion = question.toString();
+
+        request = new FloatChatVo();
+        request.setCategoryCode(categoryCode);
+        request.setUserQuestion(userQuestion);
+
+        payload = FloatChatVo.createAIResponse("응답");
+    }
+
+    @Benchmark
+    public String buildDefaultSystemPrompt() {
+        return FloatChatService.buildDefaultSystemPrompt(categoryCode);
+    }
+
+    @Benchmark
+    public String buildUserPrompt() {
+        return FloatChatService.buildUserPrompt(userQuestion);
+    }
+
+    @Benchmark
+    public boolean isValidMessage() {
+        return request.isValidMessage();
+    }
+
+    @Benchmark
+    public FloatChatVo createAIResponse() {
+        return FloatChatVo.createAIResponse(userQuestion);
+    }
+
+    @Benchmark
+    public FloatChatVo createSuccessResponse() {
+        return FloatChatVo.createSuccessResponse(payload, "카테고리 조회 성공");
+    }
+
+    @Benchmark
+    public FloatChatVo createErrorResponse() {
+        return FloatChatVo.createErrorResponse("메시지 처리 실패");
+    }
+}
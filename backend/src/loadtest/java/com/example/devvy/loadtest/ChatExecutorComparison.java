@@ -0,0 +1,110 @@
+package com.temporary22.aiagent.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.temporary22.aiagent.config.VirtualThreads;
+import com.temporary22.aiagent.impl.aiAgent.llm.HttpLlmClient;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmClient;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmDeadline;
+import com.temporary22.aiagent.impl.aiAgent.llm.StubLlmServer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 플랫폼 스레드 풀 vs 가상 스레드 비교 (단독 실행 하네스, JMH 벤치마크 아님)
+ *
+ * 호출 스레드가 LLM 응답과 DB 저장을 블로킹으로 기다리는 작업을 한꺼번에 제출하고
+ * 처리량, 지연 분포, 최대 동시 LLM 호출 수를 비교합니다. 로컬 LLM 스텁 서버를 사용하므로 오프라인에서 실행됩니다.
+ * FloatChatService 는 이제 비동기 파이프라인(스케줄러 + CompletableFuture)이므로 이 결과는 실제 서비스 경로가 아니라
+ * 블로킹 방식에서 executor 종류만 바꿨을 때의 차이를 보여줍니다. 실제 경로 측정은 FloatChatLoadTest 를 사용합니다.
+ *
+ * 실행: java ... ChatExecutorComparison [요청 수=5000] [LLM 지연 ms=200] [플랫폼 풀 크기=64] [DB 지연 ms=5]
+ * 가상 스레드 측정은 JDK 21 이상에서만 수행됩니다.
+ */
+public class ChatExecutorComparison {
+
+    private static final String SYSTEM_PROMPT = "당신은 SWP(Software Platform) 전문 AI 어시스턴트입니다.";
+    private static final String USER_PROMPT = "사용자 질문: API 키는 어떻게 발급받나요?";
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        long llmLatencyMs = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        int platformPoolSize = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long dbLatencyMs = args.length > 3 ? Long.parseLong(args[3]) : 5;
+
+        StubLlmServer stub = new StubLlmServer(0, llmLatencyMs, 1, 0, new ObjectMapper());
+        stub.start();
+        try {
+            LlmClient client = new HttpLlmClient(stub.getBaseUrl(), "", "stub",
+                    Duration.ofSeconds(5), Duration.ofSeconds(120), new ObjectMapper());
+
+            System.out.printf("요청 %d건, LLM 지연 %dms, DB 지연 %dms%n", requests, llmLatencyMs, dbLatencyMs);
+            System.out.printf("%-22s %10s %10s %10s %10s %12s%n",
+                    "mode", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "peakInFlight");
+
+            // 워밍업 (커넥션/JIT)
+            run("warmup", Executors.newFixedThreadPool(platformPoolSize), client, Math.min(requests, 500), dbLatencyMs, false);
+
+            run("platform(" + platformPoolSize + ")", Executors.newFixedThreadPool(platformPoolSize),
+                    client, requests, dbLatencyMs, true);
+
+            if (VirtualThreads.isSupported()) {
+                run("virtual", VirtualThreads.newVirtualThreadPerTaskExecutor(), client, requests, dbLatencyMs, true);
+            } else {
+                System.out.println("virtual: JDK " + System.getProperty("java.version") + " 미지원 - 생략");
+            }
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private static void run(String mode, ExecutorService executor, LlmClient client,
+                            int requests, long dbLatencyMs, boolean report) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            final long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    int current = inFlight.incrementAndGet();
+                    peakInFlight.accumulateAndGet(current, Math::max);
+                    try {
+                        client.call(null, SYSTEM_PROMPT, USER_PROMPT, LlmDeadline.none()).join();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    TimeUnit.MILLISECONDS.sleep(dbLatencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[index] = System.nanoTime() - submitted;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-22s %10.1f %10d %10d %10d %12d%n", mode,
+                    requests / (elapsed / 1_000_000_000.0),
+                    TimeUnit.NANOSECONDS.toMillis(latencies[(int) (requests * 0.50)]),
+                    TimeUnit.NANOSECONDS.toMillis(latencies[Math.min(requests - 1, (int) (requests * 0.99))]),
+                    TimeUnit.NANOSECONDS.toMillis(latencies[requests - 1]),
+                    peakInFlight.get());
+        }
+    }
+}
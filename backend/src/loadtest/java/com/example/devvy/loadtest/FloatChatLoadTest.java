@@ -0,0 +1,242 @@
+package com.temporary22.aiagent.loadtest;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmRouter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * SWP Float Chat 종단 간 부하 테스트
+ *
+ * FloatChatLoadTestApplication 을 임의 포트로 띄운 뒤 시나리오별로 지정한 동시성으로 요청을 보내고
+ * 처리량과 지연 분포(p50/p99/p999)를 출력합니다. 설정은 LoadTestOptions 를 참고하세요.
+ *
+ * 실행: java -Dloadtest.concurrency=64 -Dloadtest.requests=5000 ... com.temporary22.aiagent.loadtest.FloatChatLoadTest
+ *
+ * 시나리오
+ * - message       POST /message
+ * - async         POST /message/async
+ * - stream        POST /message/stream (전체 응답 + 첫 청크까지의 시간)
+ * - conversations GET  /conversations/{categoryCode}?size=20
+ * - feedback      POST /feedback
+ */
+public class FloatChatLoadTest {
+
+    private static final String API_PATH = "/api/v1/devportal/float-chat";
+    private static final String[] CATEGORIES = {"swdp_menu", "project", "voc", "project_info", "swdp_api"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    FloatChatLoadTest(LoadTestOptions options, int port) {
+        this.options = options;
+        this.baseUrl = "http://localhost:" + port + API_PATH;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        System.out.println("부하 테스트 설정: " + options);
+
+        try (ConfigurableApplicationContext context = FloatChatLoadTestApplication.start(options)) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            FloatChatLoadTest loadTest = new FloatChatLoadTest(options, port);
+
+            System.out.printf("%-16s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+                    "scenario", "requests", "errors", "req/s", "mean(ms)", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+            for (String scenario : options.getScenarios()) {
+                loadTest.run(scenario);
+            }
+
+            // 엔드포인트별 라우팅 결과 (스텁 서버를 여러 개 띄운 경우)
+            List<Map<String, Object>> endpoints = context.getBean(LlmRouter.class).getStats();
+            if (endpoints.size() > 1) {
+                for (Map<String, Object> endpoint : endpoints) {
+                    System.out.println("LLM 엔드포인트: " + endpoint);
+                }
+            }
+        }
+    }
+
+    // === 시나리오 실행 ===
+
+    void run(String scenario) throws InterruptedException {
+        // 워밍업 (JIT, 커넥션 풀, 카테고리 캐시)
+        execute(scenario, options.getWarmupRequests());
+
+        Result result = execute(scenario, options.getRequests());
+        result.print(scenario);
+        if (result.firstChunkNanos != null) {
+            new Result(result.firstChunkNanos, null, result.errors, result.elapsedNanos).print(scenario + "(ttfc)");
+        }
+    }
+
+    private Result execute(String scenario, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        long[] firstChunk = "stream".equals(scenario) ? new long[requests] : null;
+        AtomicInteger sequence = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        long start = System.nanoTime();
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            workers.execute(() -> {
+                int seq;
+                while ((seq = sequence.getAndIncrement()) < requests) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        long firstChunkAt = send(scenario, seq);
+                        if (firstChunk != null && firstChunkAt > 0L) {
+                            firstChunk[seq] = firstChunkAt - requestStart;
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    latencies[seq] = System.nanoTime() - requestStart;
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        return new Result(latencies, firstChunk, errors.sum(), System.nanoTime() - start);
+    }
+
+    /**
+     * 요청 하나를 보내고 응답을 끝까지 읽습니다. 스트리밍 시나리오는 첫 청크 수신 시각을 반환합니다.
+     */
+    private long send(String scenario, int seq) throws IOException, InterruptedException {
+        String category = CATEGORIES[seq % CATEGORIES.length];
+        switch (scenario) {
+            case "message":
+                return check(httpClient.send(post("/message", messageBody(category, seq)),
+                        HttpResponse.BodyHandlers.ofByteArray()));
+            case "async":
+                return check(httpClient.send(post("/message/async", messageBody(category, seq)),
+                        HttpResponse.BodyHandlers.ofByteArray()));
+            case "stream":
+                return sendStream(category, seq);
+            case "conversations":
+                return check(httpClient.send(get("/conversations/" + category + "?size=20"),
+                        HttpResponse.BodyHandlers.ofByteArray()));
+            case "feedback":
+                String feedback = "{\"rating\":" + (seq % 5 + 1)
+                        + ",\"feedbackCategory\":\"" + category + "\",\"comment\":\"부하 테스트 " + seq + "\"}";
+                return check(httpClient.send(post("/feedback", feedback), HttpResponse.BodyHandlers.ofByteArray()));
+            default:
+                throw new IllegalArgumentException("알 수 없는 시나리오: " + scenario);
+        }
+    }
+
+    private long sendStream(String category, int seq) throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> response = httpClient.send(
+                post("/message/stream", messageBody(category, seq)), HttpResponse.BodyHandlers.ofLines());
+        long firstChunkAt = 0L;
+        boolean done = false;
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (firstChunkAt == 0L && line.startsWith("event:chunk")) {
+                    firstChunkAt = System.nanoTime();
+                } else if (line.startsWith("event:done")) {
+                    done = true;
+                } else if (line.startsWith("event:error")) {
+                    throw new IOException("스트림 오류 이벤트 수신");
+                }
+            }
+        }
+        if (response.statusCode() != 200 || !done) {
+            throw new IOException("스트림 비정상 종료 - HTTP " + response.statusCode());
+        }
+        return firstChunkAt;
+    }
+
+    private static String messageBody(String category, int seq) {
+        // 답변 캐시/요청 병합의 영향을 받지 않도록 질문을 모두 다르게 생성
+        return "{\"categoryCode\":\"" + category + "\",\"userQuestion\":\"부하 테스트 질문 " + seq + " 입니다.\"}";
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static long check(HttpResponse<?> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return 0L;
+    }
+
+    /**
+     * 시나리오 측정 결과
+     */
+    private static final class Result {
+
+        final long[] latencyNanos;
+        final long[] firstChunkNanos;
+        final long errors;
+        final long elapsedNanos;
+
+        Result(long[] latencyNanos, long[] firstChunkNanos, long errors, long elapsedNanos) {
+            this.latencyNanos = latencyNanos;
+            this.firstChunkNanos = firstChunkNanos;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void print(String name) {
+            long[] sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            double mean = sorted.length == 0 ? 0 : (double) Arrays.stream(sorted).sum() / sorted.length;
+            double throughput = sorted.length / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("%-16s %8d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name, sorted.length, errors, throughput, toMillis(mean),
+                    toMillis(percentile(sorted, 0.50)), toMillis(percentile(sorted, 0.99)),
+                    toMillis(percentile(sorted, 0.999)), toMillis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0L;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
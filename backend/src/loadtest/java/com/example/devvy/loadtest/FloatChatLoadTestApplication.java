@@ -0,0 +1,51 @@
+package com.temporary22.aiagent.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트용 SWP Float Chat 애플리케이션
+ *
+ * 컨트롤러/서비스/매퍼를 그대로 띄우고, DB 는 H2(MODE=MySQL) 메모리 DB, LLM 은 로컬 스텁 서버를 사용합니다.
+ * 스키마는 운영과 같은 db/float_chat_schema.sql, db/float_chat_indexes.sql 로 생성합니다.
+ */
+@SpringBootApplication(scanBasePackages = "com.temporary22")
+public class FloatChatLoadTestApplication {
+
+    /**
+     * 임의 포트로 애플리케이션을 시작합니다.
+     */
+    public static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("server.tomcat.threads.max", String.valueOf(Math.max(200, options.getConcurrency() * 2)));
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:floatchat;MODE=MySQL;DATABASE_TO_UPPER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(options.getDbPoolSize()));
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("spring.sql.init.schema-locations",
+                "classpath:db/float_chat_schema.sql,classpath:db/float_chat_indexes.sql");
+        properties.put("spring.sql.init.data-locations", "classpath:db/float_chat_loadtest_h2.sql");
+        properties.put("mybatis.mapper-locations", "classpath:mapper/*.xml");
+        properties.put("logging.level.com.temporary22", "WARN");
+
+        // 로컬 LLM 스텁
+        properties.put("float-chat.llm.stub.enabled", "true");
+        properties.put("float-chat.llm.stub.latency-ms", String.valueOf(options.getLlmLatencyMs()));
+        properties.put("float-chat.llm.stub.latencies-ms", options.getLlmLatenciesMs());
+        properties.put("float-chat.llm.stub.chunk-count", String.valueOf(options.getLlmChunkCount()));
+        properties.put("float-chat.llm.stub.chunk-delay-ms", String.valueOf(options.getLlmChunkDelayMs()));
+
+        // 추가 설정 (-Dloadtest.prop.float-chat.executor.virtual-threads=true 형태)
+        properties.putAll(options.getExtraProperties());
+
+        SpringApplication application = new SpringApplication(FloatChatLoadTestApplication.class);
+        application.setDefaultProperties(properties);
+        return application.run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.temporary22.aiagent.loadtest;
+
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 부하 테스트용 H2 에서 FloatChatMapper.xml 의 MySQL 전용 함수를 흉내냅니다.
+ */
+public final class H2MySqlFunctions {
+
+    private H2MySqlFunctions() {
+    }
+
+    /**
+     * MySQL DATE_FORMAT (매퍼에서 사용하는 %Y %m %d %H %i %s 지정자만 지원)
+     */
+    public static String dateFormat(Timestamp value, String mysqlPattern) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder();
+        for (int i = 0; i < mysqlPattern.length(); i++) {
+            char ch = mysqlPattern.charAt(i);
+            if (ch != '%' || i + 1 == mysqlPattern.length()) {
+                pattern.append('\'').append(ch == '\'' ? "''" : String.valueOf(ch)).append('\'');
+                continue;
+            }
+            char specifier = mysqlPattern.charAt(++i);
+            switch (specifier) {
+                case 'Y': pattern.append("yyyy"); break;
+                case 'm': pattern.append("MM"); break;
+                case 'd': pattern.append("dd"); break;
+                case 'H': pattern.append("HH"); break;
+                case 'i': pattern.append("mm"); break;
+                case 's': pattern.append("ss"); break;
+                default:
+                    throw new IllegalArgumentException("지원하지 않는 DATE_FORMAT 지정자: %" + specifier);
+            }
+        }
+        return value.toLocalDateTime().format(DateTimeFormatter.ofPattern(pattern.toString()));
+    }
+}
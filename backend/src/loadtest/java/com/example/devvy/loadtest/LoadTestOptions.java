@@ -0,0 +1,123 @@
+package com.temporary22.aiagent.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 부하 테스트 설정 (시스템 프로퍼티 loadtest.*)
+ *
+ * loadtest.scenarios        실행할 시나리오 (기본: message,async,stream,conversations,feedback)
+ * loadtest.concurrency      동시 요청 수 (기본 32)
+ * loadtest.requests         시나리오별 측정 요청 수 (기본 2000)
+ * loadtest.warmup-requests  시나리오별 워밍업 요청 수 (기본 200)
+ * loadtest.llm-latency-ms   스텁 LLM 응답 지연 (기본 200)
+ * loadtest.llm-latencies-ms 스텁 LLM 서버별 응답 지연 (예: 100,400 - 지정하면 서버를 여러 개 띄워 라우팅)
+ * loadtest.llm-chunk-count  스트리밍 청크 수 (기본 20)
+ * loadtest.llm-chunk-delay-ms 청크 간 지연 (기본 20)
+ * loadtest.db-pool-size     커넥션 풀 크기 (기본 20)
+ * loadtest.prop.*           애플리케이션 설정으로 그대로 전달
+ */
+public class LoadTestOptions {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String PROPERTY_PREFIX = PREFIX + "prop.";
+
+    private final List<String> scenarios;
+    private final int concurrency;
+    private final int requests;
+    private final int warmupRequests;
+    private final long llmLatencyMs;
+    private final String llmLatenciesMs;
+    private final int llmChunkCount;
+    private final long llmChunkDelayMs;
+    private final int dbPoolSize;
+    private final Map<String, Object> extraProperties;
+
+    private LoadTestOptions(Properties properties) {
+        List<String> names = new ArrayList<>();
+        for (String name : properties.getProperty(PREFIX + "scenarios",
+                "message,async,stream,conversations,feedback").split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        this.scenarios = Collections.unmodifiableList(names);
+        this.concurrency = intValue(properties, "concurrency", 32);
+        this.requests = intValue(properties, "requests", 2000);
+        this.warmupRequests = intValue(properties, "warmup-requests", 200);
+        this.llmLatencyMs = intValue(properties, "llm-latency-ms", 200);
+        this.llmLatenciesMs = properties.getProperty(PREFIX + "llm-latencies-ms", "").trim();
+        this.llmChunkCount = intValue(properties, "llm-chunk-count", 20);
+        this.llmChunkDelayMs = intValue(properties, "llm-chunk-delay-ms", 20);
+        this.dbPoolSize = intValue(properties, "db-pool-size", 20);
+
+        Map<String, Object> extra = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PROPERTY_PREFIX)) {
+                extra.put(key.substring(PROPERTY_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        this.extraProperties = Collections.unmodifiableMap(extra);
+    }
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(System.getProperties());
+    }
+
+    public List<String> getScenarios() {
+        return scenarios;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getWarmupRequests() {
+        return warmupRequests;
+    }
+
+    public long getLlmLatencyMs() {
+        return llmLatencyMs;
+    }
+
+    public String getLlmLatenciesMs() {
+        return llmLatenciesMs;
+    }
+
+    public int getLlmChunkCount() {
+        return llmChunkCount;
+    }
+
+    public long getLlmChunkDelayMs() {
+        return llmChunkDelayMs;
+    }
+
+    public int getDbPoolSize() {
+        return dbPoolSize;
+    }
+
+    public Map<String, Object> getExtraProperties() {
+        return extraProperties;
+    }
+
+    @Override
+    public String toString() {
+        return "scenarios=" + scenarios + ", concurrency=" + concurrency + ", requests=" + requests
+                + ", warmup=" + warmupRequests + ", llmLatencyMs=" + (llmLatenciesMs.isEmpty() ? llmLatencyMs : llmLatenciesMs)
+                + ", llmChunks=" + llmChunkCount + "x" + llmChunkDelayMs + "ms, dbPool=" + dbPoolSize
+                + (extraProperties.isEmpty() ? "" : ", extra=" + extraProperties);
+    }
+
+    private static int intValue(Properties properties, String name, int defaultValue) {
+        String value = properties.getProperty(PREFIX + name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
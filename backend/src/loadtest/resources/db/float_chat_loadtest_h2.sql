@@ -0,0 +1,15 @@
+-- =================================================================
+-- SWP Float Chat 부하 테스트용 H2 (MODE=MySQL) 보조 스크립트
+-- float_chat_schema.sql, float_chat_indexes.sql 이후에 실행됩니다.
+-- =================================================================
+
+-- H2 에 없는 MySQL 함수
+CREATE ALIAS IF NOT EXISTS DATE_FORMAT FOR "com.temporary22.aiagent.loadtest.H2MySqlFunctions.dateFormat";
+
+-- 카테고리 기본 데이터 (시스템 프롬프트가 비어 있으면 기본 프롬프트 사용)
+INSERT INTO SWP_FLOAT_CHAT_INFO (CATEGORY_CODE, DESCRIPTION, DESCRIPTION_EN, ICON_PATH, SYSTEM_PROMPT, ACTIVE_YN) VALUES
+    ('swdp_menu',    'SWDP 메뉴 안내',   'SWDP Menu',    '/icons/swdp_menu.svg',    NULL, 'Y'),
+    ('project',      '프로젝트 관리',     'Project',      '/icons/project.svg',      NULL, 'Y'),
+    ('voc',          'VOC 관리',         'VOC',          '/icons/voc.svg',          NULL, 'Y'),
+    ('project_info', '프로젝트 상세 정보', 'Project Info', '/icons/project_info.svg', NULL, 'Y'),
+    ('swdp_api',     'SWDP API 안내',    'SWDP API',     '/icons/swdp_api.svg',     NULL, 'Y');
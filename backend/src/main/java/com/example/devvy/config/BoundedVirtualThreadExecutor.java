@@ -0,0 +1,62 @@
+package com.temporary22.aiagent.config;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 실행 수를 제한하는 가상 스레드 실행기
+ *
+ * 작업마다 가상 스레드를 만들되 maxConcurrency 를 넘으면 대기 없이 TaskRejectedException 을 던져
+ * 플랫폼 스레드 풀과 같은 429 빠른 실패 동작을 유지합니다.
+ */
+public class BoundedVirtualThreadExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final Runnable rejectionListener;
+
+    public BoundedVirtualThreadExecutor(int maxConcurrency, Runnable rejectionListener) {
+        this.delegate = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+        this.rejectionListener = rejectionListener;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            rejectionListener.run();
+            throw new TaskRejectedException("가상 스레드 실행기 포화 - 동시 실행: " + maxConcurrency);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void shutdown() throws InterruptedException {
+        delegate.shutdown();
+        delegate.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
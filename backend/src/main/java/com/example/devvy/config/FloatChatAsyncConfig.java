@@ -0,0 +1,131 @@
+package com.temporary22.aiagent.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * SWP Float Chat 비동기 메시지 처리 실행기 설정
+ *
+ * 큐 용량을 제한하고 포화 시 즉시 거절(TaskRejectedException)하여
+ * 컨트롤러가 429 로 빠르게 응답할 수 있게 합니다.
+ * ThreadPoolExecutor 는 큐가 가득 찬 뒤에만 core 이상으로 스레드를 늘리므로, core 를 max 와 같게 두고
+ * 유휴 스레드는 keep-alive 후 정리합니다. (core 가 작으면 core 개만 처리하고 나머지는 응답 기한을 넘겨 큐에서 대기)
+ * 큐 용량은 대기 작업이 응답 기한(30초) 안에 시작될 수 있도록 max-pool-size × (기한 / 작업 처리 시간) 보다 작게 둡니다.
+ * float-chat.executor.virtual-threads=true 이고 JDK 21 이상이면 메시지 처리와 Tomcat 요청 처리를
+ * 가상 스레드에서 실행합니다. (동시 실행 수는 virtual-max-concurrency 로 제한)
+ */
+@Configuration
+public class FloatChatAsyncConfig {
+
+    public static final String CHAT_EXECUTOR = "floatChatExecutor";
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatAsyncConfig.class);
+
+    @Value("${float-chat.executor.max-pool-size:64}")
+    private int maxPoolSize;
+
+    /**
+     * 기본값은 max-pool-size (core 보다 많은 스레드는 큐가 가득 찬 뒤에야 만들어짐)
+     */
+    @Value("${float-chat.executor.core-pool-size:${float-chat.executor.max-pool-size:64}}")
+    private int corePoolSize;
+
+    @Value("${float-chat.executor.queue-capacity:128}")
+    private int queueCapacity;
+
+    @Value("${float-chat.executor.keep-alive-seconds:60}")
+    private int keepAliveSeconds;
+
+    @Value("${float-chat.executor.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${float-chat.executor.virtual-max-concurrency:2000}")
+    private int virtualMaxConcurrency;
+
+    @Bean(name = CHAT_EXECUTOR)
+    public Executor floatChatExecutor(MeterRegistry meterRegistry) {
+        Counter rejectedCounter = Counter.builder("float_chat.executor.rejected")
+                .description("채팅 실행기 포화로 거절된 작업 수")
+                .register(meterRegistry);
+
+        if (useVirtualThreads()) {
+            BoundedVirtualThreadExecutor executor =
+                    new BoundedVirtualThreadExecutor(virtualMaxConcurrency, rejectedCounter::increment);
+
+            Gauge.builder("float_chat.executor.queue.depth", executor, e -> 0)
+                    .description("채팅 실행기 대기 작업 수")
+                    .register(meterRegistry);
+            Gauge.builder("float_chat.executor.active", executor, BoundedVirtualThreadExecutor::getActiveCount)
+                    .description("채팅 실행기 처리 중 작업 수")
+                    .register(meterRegistry);
+
+            log.info("채팅 실행기 초기화 (가상 스레드) - 최대 동시 실행: {}", virtualMaxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(keepAliveSeconds);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("float-chat-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("채팅 실행기 포화 - 활성: " + pool.getActiveCount()
+                    + ", 대기: " + pool.getQueue().size());
+        });
+        executor.initialize();
+
+        Gauge.builder("float_chat.executor.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("채팅 실행기 대기 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("float_chat.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("채팅 실행기 처리 중 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("float_chat.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("채팅 실행기 스레드 수")
+                .register(meterRegistry);
+
+        log.info("채팅 실행기 초기화 - core: {}, max: {}, queue: {}", corePoolSize, maxPoolSize, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * 가상 스레드 모드에서 Tomcat 요청 처리 스레드를 가상 스레드로 교체합니다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "float-chat.executor.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (useVirtualThreads()) {
+                protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+                log.info("Tomcat 요청 처리 실행기를 가상 스레드로 교체");
+            }
+        };
+    }
+
+    private boolean useVirtualThreads() {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            log.warn("float-chat.executor.virtual-threads=true 이지만 JDK {} 는 가상 스레드를 지원하지 않아 플랫폼 스레드 풀을 사용합니다.",
+                    System.getProperty("java.version"));
+            return false;
+        }
+        return virtualThreads;
+    }
+}
@@ -0,0 +1,40 @@
+package com.temporary22.aiagent.rest;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * SWP Float Chat 지표 노출 컨트롤러 (Prometheus 텍스트 형식)
+ *
+ * micrometer-registry-prometheus 가 클래스패스에 있을 때만 등록됩니다.
+ * float_chat_* 외 애플리케이션 전체 지표도 함께 노출됩니다.
+ */
+@RestController
+@RequestMapping("/api/v1/devportal/float-chat")
+@ConditionalOnClass(name = "io.micrometer.prometheus.PrometheusMeterRegistry")
+public class FloatChatMetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    @Autowired
+    private ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        PrometheusMeterRegistry registry = prometheusMeterRegistry.getIfAvailable();
+        if (registry == null) {
+            // Prometheus 레지스트리 자동 설정이 꺼져 있는 경우
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(PROMETHEUS_TEXT)
+            .body(registry.scrape());
+    }
+}
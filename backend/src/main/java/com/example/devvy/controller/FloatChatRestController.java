@@ -1,22 +1,42 @@
 package com.temporary22.aiagent.rest;
 
+import com.temporary22.aiagent.impl.aiAgent.FloatChatCategoryCache;
+import com.temporary22.aiagent.impl.aiAgent.FloatChatHealthMonitor;
+import com.temporary22.aiagent.impl.aiAgent.FloatChatRateLimiter;
 import com.temporary22.aiagent.impl.aiAgent.FloatChatService;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmDeadline;
+import com.temporary22.aiagent.entity.FloatChatBatchItemVo;
+import com.temporary22.aiagent.entity.FloatChatBatchRequestVo;
+import com.temporary22.aiagent.entity.FloatChatCategoryVo;
+import com.temporary22.aiagent.entity.FloatChatJobVo;
+import com.temporary22.aiagent.entity.FloatChatKnowledgeDocumentVo;
+import com.temporary22.aiagent.entity.FloatChatSearchHitVo;
 import com.temporary22.aiagent.entity.FloatChatVo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * SWP Float Chat REST API 컨트롤러 (비동기 처리 및 프롬프트 관리 추가)
@@ -27,56 +47,120 @@ import java.util.concurrent.CompletableFuture;
 public class FloatChatRestController {
 
     private static final Logger log = LoggerFactory.getLogger(FloatChatRestController.class);
+    private static final long ASYNC_TIMEOUT_MS = 30000L;
+    private static final long STREAM_TIMEOUT_MS = 120000L;
 
     @Autowired
     private FloatChatService floatChatService;
 
+    @Value("${float-chat.executor.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+
+    @Value("${float-chat.batch.timeout-ms:120000}")
+    private long batchTimeoutMs;
+
+    /**
+     * 작업 조회 시 완료를 기다리는 최대 시간 (클라이언트 요청 타임아웃보다 짧아야 함)
+     */
+    @Value("${float-chat.job.max-wait-ms:25000}")
+    private long jobMaxWaitMs;
+
     // === 시스템 상태 ===
 
     /**
-     * 시스템 상태 확인
+     * 시스템 상태 확인 (백그라운드에서 갱신된 상태를 반환, DB 를 조회하지 않음)
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
-        try {
-            FloatChatVo healthStatus = floatChatService.performHealthCheck();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("status", "OK");
-            response.put("service", "SWP Float Chat API");
-            response.put("timestamp", LocalDateTime.now());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            log.error("헬스체크 실패", e);
-            
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("status", "ERROR");
-            errorResponse.put("timestamp", LocalDateTime.now());
-            
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(errorResponse);
+        String status = floatChatService.getHealthStatus();
+        boolean available = !FloatChatHealthMonitor.STATUS_DOWN.equals(status);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", available);
+        response.put("status", FloatChatHealthMonitor.STATUS_UP.equals(status) ? "OK" : status);
+        response.put("service", "SWP Float Chat API");
+        response.put("timestamp", LocalDateTime.now());
+        
+        return available
+            ? ResponseEntity.ok(response)
+            : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    /**
+     * 프로세스 생존 여부 (의존성 확인 없음)
+     */
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        return ResponseEntity.ok(floatChatService.getHealthLiveness());
+    }
+
+    /**
+     * 의존성(DB, 커넥션 풀, LLM) 상태와 최근 LLM 지연시간 백분위
+     * DOWN 이면 503, DEGRADED 는 요청 처리가 가능하므로 200 을 반환합니다.
+     */
+    @GetMapping("/health/ready")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        Map<String, Object> readiness = floatChatService.getHealthReadiness();
+        if (FloatChatHealthMonitor.STATUS_DOWN.equals(readiness.get("status"))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(readiness);
         }
+        return ResponseEntity.ok(readiness);
+    }
+
+    /**
+     * 카테고리/답변 캐시 적중/미스 통계를 조회합니다.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<FloatChatVo> getCacheStats() {
+        FloatChatVo response = FloatChatVo.createSuccessResponse(
+            floatChatService.getCacheStats(), "캐시 통계 조회 성공");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 대화 저장기(write-behind) 상태를 조회합니다.
+     */
+    @GetMapping("/writer/stats")
+    public ResponseEntity<FloatChatVo> getWriterStats() {
+        FloatChatVo response = FloatChatVo.createSuccessResponse(
+            floatChatService.getConversationWriterStats(), "저장기 상태 조회 성공");
+        return ResponseEntity.ok(response);
     }
 
     // === 카테고리 관리 ===
 
     /**
-     * 활성화된 카테고리 목록을 조회합니다. (시스템 프롬프트 포함)
+     * 활성화된 카테고리 목록을 조회합니다. (시스템 프롬프트 제외)
+     * 캐시 스냅샷에서 한 번 직렬화한 본문을 그대로 내려주며, If-None-Match 가 일치하면 304 를 반환합니다.
      */
     @GetMapping("/categories")
-    public ResponseEntity<FloatChatVo> getCategories() {
-        log.info("카테고리 목록 조회 요청");
+    public ResponseEntity<?> getCategories(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        log.debug("카테고리 목록 조회 요청");
         
         try {
-            List<FloatChatVo> categories = floatChatService.getCategories();
-            FloatChatVo response = FloatChatVo.createSuccessResponse(categories, "카테고리 조회 성공");
-            
-            log.info("카테고리 조회 성공 ({}개)", categories.size());
-            return ResponseEntity.ok(response);
+            FloatChatCategoryCache.CategoryListBody body = floatChatService.getCategoryListBody();
+            if (body == null) {
+                // 캐시 스냅샷이 없으면 DB 에서 직접 조회
+                List<FloatChatCategoryVo> categories = toCategoryResponses(floatChatService.getCategories());
+                log.info("카테고리 조회 성공 ({}개, 캐시 미사용)", categories.size());
+                return ResponseEntity.ok(FloatChatVo.createSuccessResponse(categories, "카테고리 조회 성공"));
+            }
+
+            if (matchesEtag(ifNoneMatch, body.getEtag())) {
+                log.debug("카테고리 목록 변경 없음 (304)");
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+            }
+
+            log.debug("카테고리 조회 성공 ({}개)", body.getSize());
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(body.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(body.getJson());
             
         } catch (Exception e) {
             log.error("카테고리 조회 실패", e);
@@ -86,7 +170,7 @@ public class FloatChatRestController {
     }
 
     /**
-     * 특정 카테고리 정보를 조회합니다.
+     * 특정 카테고리 정보를 조회합니다. (시스템 프롬프트 제외)
      */
     @GetMapping("/categories/{categoryCode}")
     public ResponseEntity<FloatChatVo> getCategoryByCode(@PathVariable @NotBlank String categoryCode) {
@@ -94,7 +178,8 @@ public class FloatChatRestController {
         
         try {
             FloatChatVo category = floatChatService.getCategoryByCode(categoryCode);
-            FloatChatVo response = FloatChatVo.createSuccessResponse(category, "카테고리 조회 성공");
+            FloatChatVo response = FloatChatVo.createSuccessResponse(
+                FloatChatCategoryVo.from(category), "카테고리 조회 성공");
             
             return ResponseEntity.ok(response);
             
@@ -192,15 +277,28 @@ public class FloatChatRestController {
         
         log.info("비동기 메시지 요청 - User: {}, Category: {}", userId, request.getCategoryCode());
 
-        DeferredResult<ResponseEntity<FloatChatVo>> deferredResult = new DeferredResult<>(30000L); // 30초 타임아웃
+        DeferredResult<ResponseEntity<FloatChatVo>> deferredResult = new DeferredResult<>(ASYNC_TIMEOUT_MS); // 30초 타임아웃
+        // 응답 기한을 LLM 호출까지 전달하고, 타임아웃/연결 오류 시 진행 중인 호출을 취소
+        LlmDeadline deadline = LlmDeadline.after(ASYNC_TIMEOUT_MS);
         
         try {
             validateMessageRequest(request);
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkRateLimit(
+                FloatChatRateLimiter.ENDPOINT_MESSAGE, userId, request.getCategoryCode());
+            if (rejection != null) {
+                deferredResult.setResult(rateLimited(rejection, userId));
+                return deferredResult;
+            }
             
-            CompletableFuture<FloatChatVo> future = floatChatService.processMessageAsync(request);
+            CompletableFuture<FloatChatVo> future = floatChatService.processMessageAsync(request, deadline);
             
             future.whenComplete((result, ex) -> {
-                if (ex != null) {
+                if (isCancellation(ex)) {
+                    // 타임아웃/연결 종료로 취소된 요청 (응답은 onTimeout 에서 처리)
+                    log.info("비동기 메시지 처리 취소 - User: {}", userId);
+                    deferredResult.setResult(ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
+                        .body(FloatChatVo.createErrorResponse("응답 생성 시간이 초과되었습니다. 다시 시도해주세요.")));
+                } else if (ex != null) {
                     log.error("비동기 메시지 처리 실패", ex);
                     deferredResult.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(FloatChatVo.createErrorResponse("메시지 처리 중 오류 발생")));
@@ -215,6 +313,12 @@ public class FloatChatRestController {
             deferredResult.setResult(ResponseEntity.badRequest()
                 .body(FloatChatVo.createErrorResponse(e.getMessage())));
                 
+        } catch (RejectedExecutionException e) {
+            log.warn("비동기 메시지 처리 거절 (실행기 포화) - User: {}", userId);
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(FloatChatVo.createErrorResponse("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.")));
+                
         } catch (Exception e) {
             log.error("비동기 메시지 처리 초기화 실패", e);
             deferredResult.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -224,13 +328,103 @@ public class FloatChatRestController {
         // 타임아웃 처리
         deferredResult.onTimeout(() -> {
             log.warn("비동기 메시지 처리 타임아웃 - User: {}", userId);
+            deadline.cancel();
+            floatChatService.recordAsyncTimeout(request.getCategoryCode());
             deferredResult.setResult(ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
                 .body(FloatChatVo.createErrorResponse("응답 생성 시간이 초과되었습니다. 다시 시도해주세요.")));
         });
+        deferredResult.onError(e -> deadline.cancel());
         
         return deferredResult;
     }
 
+    /**
+     * 사용자 질문을 처리하고 AI 응답을 SSE로 스트리밍합니다.
+     * chunk 이벤트로 응답 조각을, done 이벤트로 conversationId 를, error 이벤트로 오류를 전달합니다.
+     */
+    @PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> sendMessageStream(@Valid @RequestBody FloatChatVo request) {
+        String userId = getUserId();
+        request.setUserId(userId);
+        
+        log.info("스트리밍 메시지 요청 - User: {}, Category: {}", userId, request.getCategoryCode());
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        LlmDeadline deadline = LlmDeadline.after(STREAM_TIMEOUT_MS);
+        
+        try {
+            validateMessageRequest(request);
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkRateLimit(
+                FloatChatRateLimiter.ENDPOINT_MESSAGE, userId, request.getCategoryCode());
+            if (rejection != null) {
+                log.warn("스트리밍 메시지 요청 한도 초과 - User: {}, {}", userId, rejection.toMap());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(rejection.getRetryAfterSeconds()))
+                    .build();
+            }
+            
+            CompletableFuture<FloatChatVo> future = floatChatService.processMessageStream(request, deadline, chunk -> {
+                try {
+                    emitter.send(SseEmitter.event().name("chunk").data(chunk));
+                } catch (IOException e) {
+                    // 클라이언트 연결 종료 - 스트림 생성 중단
+                    throw new UncheckedIOException(e);
+                }
+            });
+            
+            future.whenComplete((result, ex) -> {
+                if (isCancellation(ex)) {
+                    log.info("스트리밍 메시지 처리 취소 - User: {}", userId);
+                    return;
+                }
+                if (ex != null || !Boolean.TRUE.equals(result.getSuccess())) {
+                    log.error("스트리밍 메시지 처리 실패", ex);
+                    completeStreamWithError(emitter, result != null && result.getErrorMessage() != null
+                        ? result.getErrorMessage() : "메시지 처리 중 오류 발생");
+                    return;
+                }
+                
+                FloatChatVo done = FloatChatVo.createSuccessResponse(null, "스트리밍 응답 완료");
+                done.setConversationId(result.getConversationId());
+                try {
+                    emitter.send(SseEmitter.event().name("done").data(done, MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                    log.info("스트리밍 메시지 응답 성공 - ConversationId: {}", result.getConversationId());
+                } catch (IOException e) {
+                    log.warn("스트리밍 완료 이벤트 전송 실패 - ConversationId: {}", result.getConversationId());
+                    emitter.completeWithError(e);
+                }
+            });
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            completeStreamWithError(emitter, e.getMessage());
+            
+        } catch (RejectedExecutionException e) {
+            log.warn("스트리밍 메시지 처리 거절 (실행기 포화) - User: {}", userId);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .build();
+            
+        } catch (Exception e) {
+            log.error("스트리밍 메시지 처리 초기화 실패", e);
+            completeStreamWithError(emitter, "메시지 처리 초기화 실패");
+        }
+        
+        emitter.onTimeout(() -> {
+            log.warn("스트리밍 메시지 처리 타임아웃 - User: {}", userId);
+            deadline.cancel();
+            completeStreamWithError(emitter, "응답 생성 시간이 초과되었습니다. 다시 시도해주세요.");
+        });
+        emitter.onError(e -> deadline.cancel());
+        
+        // 프록시 버퍼링을 끄고 첫 청크가 바로 전달되도록 함
+        return ResponseEntity.ok()
+            .header("Cache-Control", "no-cache")
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+
     /**
      * 사용자 질문을 처리하고 AI 응답을 반환합니다. (기존 동기식 - 호환성 유지)
      */
@@ -243,6 +437,11 @@ public class FloatChatRestController {
 
         try {
             validateMessageRequest(request);
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkRateLimit(
+                FloatChatRateLimiter.ENDPOINT_MESSAGE, userId, request.getCategoryCode());
+            if (rejection != null) {
+                return rateLimited(rejection, userId);
+            }
             
             FloatChatVo response = floatChatService.processMessage(request);
             
@@ -261,18 +460,276 @@ public class FloatChatRestController {
         }
     }
 
+    /**
+     * 여러 질문을 한 번에 처리하고 항목별 결과를 반환합니다. (항목 순서 유지, 실패한 항목은 errorMessage 포함)
+     */
+    @PostMapping("/message/batch")
+    public DeferredResult<ResponseEntity<FloatChatVo>> sendMessageBatch(@RequestBody FloatChatBatchRequestVo request) {
+        String userId = getUserId();
+        int itemCount = request.getItems() != null ? request.getItems().size() : 0;
+        
+        log.info("배치 메시지 요청 - User: {}, 항목: {}개", userId, itemCount);
+
+        DeferredResult<ResponseEntity<FloatChatVo>> deferredResult = new DeferredResult<>(batchTimeoutMs);
+        LlmDeadline deadline = LlmDeadline.after(batchTimeoutMs);
+        
+        try {
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkBatchRateLimit(userId, request.getItems());
+            if (rejection != null) {
+                deferredResult.setResult(rateLimited(rejection, userId));
+                return deferredResult;
+            }
+            floatChatService.processMessageBatch(userId, request.getItems(), deadline, null)
+                .whenComplete((results, ex) -> {
+                    if (ex != null) {
+                        log.error("배치 메시지 처리 실패", ex);
+                        deferredResult.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(FloatChatVo.createErrorResponse("배치 메시지 처리 중 오류 발생")));
+                        return;
+                    }
+                    deferredResult.setResult(ResponseEntity.ok(FloatChatVo.createSuccessResponse(results,
+                        String.format("배치 메시지 처리 완료 (성공 %d/%d건)", countSucceeded(results), results.size()))));
+                });
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            deferredResult.setResult(ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage())));
+                
+        } catch (RejectedExecutionException e) {
+            log.warn("배치 메시지 처리 거절 (실행기 포화) - User: {}", userId);
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(FloatChatVo.createErrorResponse("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.")));
+                
+        } catch (Exception e) {
+            log.error("배치 메시지 처리 초기화 실패", e);
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("배치 메시지 처리 초기화 실패")));
+        }
+        
+        deferredResult.onTimeout(() -> {
+            log.warn("배치 메시지 처리 타임아웃 - User: {}", userId);
+            deadline.cancel();
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT)
+                .body(FloatChatVo.createErrorResponse("응답 생성 시간이 초과되었습니다. 다시 시도해주세요.")));
+        });
+        deferredResult.onError(e -> deadline.cancel());
+        
+        return deferredResult;
+    }
+
+    /**
+     * 여러 질문을 한 번에 처리하고 항목별 결과를 완료되는 순서대로 SSE로 전달합니다.
+     * item 이벤트로 항목 결과를, 저장이 끝나면 done 이벤트로 conversationId 가 포함된 전체 결과를 전달합니다.
+     */
+    @PostMapping(value = "/message/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> sendMessageBatchStream(@RequestBody FloatChatBatchRequestVo request) {
+        String userId = getUserId();
+        int itemCount = request.getItems() != null ? request.getItems().size() : 0;
+        
+        log.info("배치 스트리밍 메시지 요청 - User: {}, 항목: {}개", userId, itemCount);
+
+        SseEmitter emitter = new SseEmitter(batchTimeoutMs);
+        LlmDeadline deadline = LlmDeadline.after(batchTimeoutMs);
+        
+        try {
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkBatchRateLimit(userId, request.getItems());
+            if (rejection != null) {
+                log.warn("배치 스트리밍 메시지 요청 한도 초과 - User: {}, {}", userId, rejection.toMap());
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(rejection.getRetryAfterSeconds()))
+                    .build();
+            }
+            floatChatService.processMessageBatch(userId, request.getItems(), deadline, item -> {
+                try {
+                    emitter.send(SseEmitter.event().name("item").data(item, MediaType.APPLICATION_JSON));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).whenComplete((results, ex) -> {
+                if (ex != null) {
+                    log.error("배치 스트리밍 메시지 처리 실패", ex);
+                    completeStreamWithError(emitter, "배치 메시지 처리 중 오류 발생");
+                    return;
+                }
+                try {
+                    emitter.send(SseEmitter.event().name("done").data(FloatChatVo.createSuccessResponse(results,
+                        String.format("배치 메시지 처리 완료 (성공 %d/%d건)", countSucceeded(results), results.size())),
+                        MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                } catch (IOException e) {
+                    log.warn("배치 스트리밍 완료 이벤트 전송 실패 - User: {}", userId);
+                    emitter.completeWithError(e);
+                }
+            });
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            completeStreamWithError(emitter, e.getMessage());
+            
+        } catch (RejectedExecutionException e) {
+            log.warn("배치 스트리밍 메시지 처리 거절 (실행기 포화) - User: {}", userId);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .build();
+            
+        } catch (Exception e) {
+            log.error("배치 스트리밍 메시지 처리 초기화 실패", e);
+            completeStreamWithError(emitter, "배치 메시지 처리 초기화 실패");
+        }
+        
+        emitter.onTimeout(() -> {
+            log.warn("배치 스트리밍 메시지 처리 타임아웃 - User: {}", userId);
+            deadline.cancel();
+            completeStreamWithError(emitter, "응답 생성 시간이 초과되었습니다. 다시 시도해주세요.");
+        });
+        emitter.onError(e -> deadline.cancel());
+        
+        return ResponseEntity.ok()
+            .header("Cache-Control", "no-cache")
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+
+    // === 메시지 작업 (접수 후 조회) ===
+
+    /**
+     * 메시지 작업을 접수하고 jobId 를 바로 반환합니다. (202)
+     * Idempotency-Key 헤더가 같으면 재시도해도 같은 작업의 상태를 반환(200)하며 LLM 을 다시 호출하지 않고 요청 한도도 차감하지 않습니다.
+     */
+    @PostMapping("/message/jobs")
+    public ResponseEntity<FloatChatVo> submitMessageJob(
+            @Valid @RequestBody FloatChatVo request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String userId = getUserId();
+        request.setUserId(userId);
+        
+        log.info("메시지 작업 접수 요청 - User: {}, Category: {}", userId, request.getCategoryCode());
+
+        try {
+            validateMessageRequest(request);
+            // 재시도(같은 Idempotency-Key)는 새 작업을 만들지 않으므로 요청 한도를 차감하지 않고 기존 작업 상태를 반환
+            FloatChatJobVo existing = floatChatService.findMessageJob(request, idempotencyKey);
+            if (existing != null) {
+                log.info("메시지 작업 재접수 - JobId: {}, User: {}", existing.getJobId(), userId);
+                return jobResponse(existing);
+            }
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkRateLimit(
+                FloatChatRateLimiter.ENDPOINT_MESSAGE, userId, request.getCategoryCode());
+            if (rejection != null) {
+                return rateLimited(rejection, userId);
+            }
+            
+            FloatChatJobVo job = floatChatService.submitMessageJob(request, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/v1/devportal/float-chat/message/jobs/" + job.getJobId())
+                .body(FloatChatVo.createSuccessResponse(job, "메시지 작업 접수"));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (RejectedExecutionException e) {
+            log.warn("메시지 작업 접수 거절 (실행기 포화) - User: {}", userId);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(FloatChatVo.createErrorResponse("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."));
+                
+        } catch (IllegalStateException e) {
+            log.warn("메시지 작업 접수 거절 - User: {}: {}", userId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (Exception e) {
+            log.error("메시지 작업 접수 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("메시지 작업 접수 실패"));
+        }
+    }
+
+    /**
+     * 메시지 작업 상태를 조회합니다.
+     * wait(ms) 를 지정하면 작업이 끝나거나 wait 가 지날 때까지 기다린 뒤 응답합니다. (최대 max-wait-ms)
+     */
+    @GetMapping("/message/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<FloatChatVo>> getMessageJob(
+            @PathVariable @NotBlank String jobId,
+            @RequestParam(value = "wait", required = false) Long waitMs) {
+        String userId = getUserId();
+        long wait = waitMs != null ? Math.max(0L, Math.min(waitMs, jobMaxWaitMs)) : 0L;
+        
+        DeferredResult<ResponseEntity<FloatChatVo>> deferredResult = new DeferredResult<>(Math.max(wait, 1L));
+        
+        FloatChatJobVo job = floatChatService.getMessageJob(userId, jobId);
+        if (job == null) {
+            deferredResult.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(FloatChatVo.createErrorResponse("작업을 찾을 수 없습니다: " + jobId)));
+            return deferredResult;
+        }
+        CompletableFuture<FloatChatJobVo> completion = floatChatService.awaitMessageJob(userId, jobId);
+        if (wait == 0L || completion == null || completion.isDone()) {
+            deferredResult.setResult(jobResponse(completion != null ? completion.getNow(job) : job));
+            return deferredResult;
+        }
+        
+        completion.thenAccept(completed -> deferredResult.setResult(jobResponse(completed)));
+        // 기다리는 동안 끝나지 않으면 현재 상태(PENDING) 반환
+        deferredResult.onTimeout(() -> deferredResult.setResult(jobResponse(job)));
+        
+        return deferredResult;
+    }
+
+    /**
+     * 메시지 작업 저장소 상태를 조회합니다.
+     */
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<FloatChatVo> getJobStats() {
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(
+            floatChatService.getJobStats(), "작업 저장소 상태 조회 성공"));
+    }
+
+    /**
+     * 사용자별 요청 한도 상태를 조회합니다.
+     */
+    @GetMapping("/rate-limit/stats")
+    public ResponseEntity<FloatChatVo> getRateLimitStats() {
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(
+            floatChatService.getRateLimitStats(), "요청 한도 상태 조회 성공"));
+    }
+
+    /**
+     * 보존 기간 정리 진행 상태를 조회합니다.
+     */
+    @GetMapping("/retention/stats")
+    public ResponseEntity<FloatChatVo> getRetentionStats() {
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(
+            floatChatService.getRetentionStats(), "보존 기간 정리 상태 조회 성공"));
+    }
+
     // === 대화 기록 ===
 
     /**
      * 사용자별 카테고리별 최신 대화 목록을 조회합니다.
+     * size 또는 cursor 를 지정하면 AI 응답을 제외한 커서 기반 페이지를 반환합니다.
      */
     @GetMapping("/conversations/{categoryCode}")
     public ResponseEntity<FloatChatVo> getConversations(
-            @PathVariable @NotBlank String categoryCode) {
+            @PathVariable @NotBlank String categoryCode,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
         String userId = getUserId();
         log.info("대화 목록 조회 - User: {}, Category: {}", userId, categoryCode);
         
         try {
+            if (size != null || cursor != null) {
+                Map<String, Object> page = floatChatService.getConversationPage(
+                    userId, categoryCode, cursor, size != null ? size : 20);
+                return ResponseEntity.ok(FloatChatVo.createSuccessResponse(page, "대화 목록 조회 성공"));
+            }
+            
             List<FloatChatVo> conversations = floatChatService.getRecentConversations(userId, categoryCode);
             FloatChatVo response = FloatChatVo.createSuccessResponse(conversations, 
                 String.format("대화 목록 조회 성공 (%d개)", conversations.size()));
@@ -292,6 +749,154 @@ public class FloatChatRestController {
         }
     }
 
+    /**
+     * 사용자의 대화 기록을 검색합니다. (categoryCode 생략 시 전체 카테고리)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<FloatChatVo> searchConversations(
+            @RequestParam("q") String query,
+            @RequestParam(value = "categoryCode", required = false) String categoryCode,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        String userId = getUserId();
+        log.info("대화 검색 요청 - User: {}, Category: {}", userId, categoryCode);
+        
+        try {
+            List<FloatChatSearchHitVo> hits = floatChatService.searchConversations(
+                userId, categoryCode != null && !categoryCode.trim().isEmpty() ? categoryCode : null, query, size);
+            return ResponseEntity.ok(FloatChatVo.createSuccessResponse(hits,
+                String.format("대화 검색 성공 (%d건)", hits.size())));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (Exception e) {
+            log.error("대화 검색 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("대화 검색 실패"));
+        }
+    }
+
+    /**
+     * 대화 검색 색인을 테이블 기준으로 다시 만듭니다. (백그라운드 실행)
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<FloatChatVo> rebuildSearchIndex() {
+        log.info("대화 검색 색인 재구성 요청");
+        if (!floatChatService.rebuildSearchIndex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(FloatChatVo.createErrorResponse("색인 재구성이 이미 진행 중이거나 검색이 비활성화되어 있습니다."));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(FloatChatVo.createSuccessResponse(floatChatService.getSearchIndexStats(), "색인 재구성 시작"));
+    }
+
+    /**
+     * 대화 검색 색인 상태를 조회합니다.
+     */
+    @GetMapping("/search/stats")
+    public ResponseEntity<FloatChatVo> getSearchIndexStats() {
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(
+            floatChatService.getSearchIndexStats(), "색인 상태 조회 성공"));
+    }
+
+    // === 지식베이스 관리 ===
+
+    /**
+     * 카테고리 지식베이스에 문서를 추가합니다.
+     */
+    @PostMapping("/categories/{categoryCode}/knowledge")
+    public ResponseEntity<FloatChatVo> addKnowledgeDocument(
+            @PathVariable @NotBlank String categoryCode,
+            @RequestBody FloatChatKnowledgeDocumentVo request) {
+        
+        log.info("지식베이스 문서 추가 요청 - Category: {}, User: {}", categoryCode, getUserId());
+        
+        try {
+            Map<String, Object> result = floatChatService.addKnowledgeDocument(categoryCode, request);
+            return ResponseEntity.ok(FloatChatVo.createSuccessResponse(result, "지식베이스 문서 추가 성공"));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (Exception e) {
+            log.error("지식베이스 문서 추가 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("지식베이스 문서 추가 실패"));
+        }
+    }
+
+    /**
+     * 카테고리 지식베이스를 삭제합니다.
+     */
+    @DeleteMapping("/categories/{categoryCode}/knowledge")
+    public ResponseEntity<FloatChatVo> clearKnowledge(@PathVariable @NotBlank String categoryCode) {
+        log.info("지식베이스 삭제 요청 - Category: {}, User: {}", categoryCode, getUserId());
+        
+        try {
+            int removed = floatChatService.clearKnowledge(categoryCode);
+            return ResponseEntity.ok(FloatChatVo.createSuccessResponse(removed,
+                String.format("지식베이스 삭제 성공 (%d개)", removed)));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (Exception e) {
+            log.error("지식베이스 삭제 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("지식베이스 삭제 실패"));
+        }
+    }
+
+    @GetMapping("/knowledge/stats")
+    public ResponseEntity<FloatChatVo> getKnowledgeStats() {
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(
+            floatChatService.getKnowledgeStats(), "지식베이스 상태 조회 성공"));
+    }
+
+    /**
+     * 사용자의 특정 대화를 조회합니다. (AI 응답 포함)
+     */
+    @GetMapping("/conversations/{categoryCode}/{conversationId}")
+    public ResponseEntity<FloatChatVo> getConversation(
+            @PathVariable @NotBlank String categoryCode,
+            @PathVariable Long conversationId) {
+        String userId = getUserId();
+        log.info("대화 상세 조회 - User: {}, ConversationId: {}", userId, conversationId);
+        
+        try {
+            FloatChatVo conversation = floatChatService.getConversation(userId, categoryCode, conversationId);
+            return ResponseEntity.ok(FloatChatVo.createSuccessResponse(conversation, "대화 조회 성공"));
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(FloatChatVo.createErrorResponse(e.getMessage()));
+                
+        } catch (Exception e) {
+            log.error("대화 조회 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(FloatChatVo.createErrorResponse("대화 조회 실패"));
+        }
+    }
+
     // === 피드백 ===
 
     /**
@@ -306,6 +911,11 @@ public class FloatChatRestController {
 
         try {
             validateFeedbackRequest(request);
+            FloatChatRateLimiter.Rejection rejection = floatChatService.checkRateLimit(
+                FloatChatRateLimiter.ENDPOINT_FEEDBACK, userId, request.getCategoryCode());
+            if (rejection != null) {
+                return rateLimited(rejection, userId);
+            }
             
             floatChatService.saveFeedback(request);
             
@@ -337,6 +947,81 @@ public class FloatChatRestController {
         return "dev-user";
     }
 
+    /**
+     * 클라이언트 타임아웃/연결 종료로 취소되어 끝난 것인지 확인합니다. (정상 흐름이므로 오류로 기록하지 않음)
+     */
+    private static boolean isCancellation(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof CancellationException;
+    }
+
+    private static long countSucceeded(List<FloatChatBatchItemVo> results) {
+        return results.stream().filter(item -> Boolean.TRUE.equals(item.getSuccess())).count();
+    }
+
+    /**
+     * 요청 한도 초과 응답 (429, data 에 한도 정보)
+     */
+    private static ResponseEntity<FloatChatVo> rateLimited(FloatChatRateLimiter.Rejection rejection, String userId) {
+        log.warn("요청 한도 초과 - User: {}, {}", userId, rejection.toMap());
+        FloatChatVo body = FloatChatVo.createErrorResponse("요청 한도를 초과했습니다. 잠시 후 다시 시도해주세요.");
+        body.setData(rejection.toMap());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", String.valueOf(rejection.getRetryAfterSeconds()))
+            .body(body);
+    }
+
+    private static ResponseEntity<FloatChatVo> jobResponse(FloatChatJobVo job) {
+        if (FloatChatJobVo.STATUS_FAILED.equals(job.getStatus())) {
+            FloatChatVo body = FloatChatVo.createErrorResponse(job.getErrorMessage() != null
+                ? job.getErrorMessage() : "메시지 작업 실패");
+            body.setData(job);
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok(FloatChatVo.createSuccessResponse(job,
+            FloatChatJobVo.STATUS_PENDING.equals(job.getStatus()) ? "메시지 작업 처리 중" : "메시지 작업 완료"));
+    }
+
+    /**
+     * 스트림에 error 이벤트를 보내고 종료합니다.
+     */
+    private void completeStreamWithError(SseEmitter emitter, String errorMessage) {
+        try {
+            emitter.send(SseEmitter.event().name("error")
+                .data(FloatChatVo.createErrorResponse(errorMessage), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * If-None-Match 헤더가 현재 ETag 와 일치하는지 확인합니다. (목록, 약한 ETag, * 지원)
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<FloatChatCategoryVo> toCategoryResponses(List<FloatChatVo> categories) {
+        List<FloatChatCategoryVo> responses = new ArrayList<>(categories.size());
+        for (FloatChatVo category : categories) {
+            responses.add(FloatChatCategoryVo.from(category));
+        }
+        return responses;
+    }
+
     /**
      * 메시지 요청의 유효성을 검증합니다.
      */
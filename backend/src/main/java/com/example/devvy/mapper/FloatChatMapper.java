@@ -1,8 +1,10 @@
 package com.temporary22.devportal.mapper.aiagent;
 
+import com.temporary22.aiagent.entity.FloatChatRetentionVo;
 import com.temporary22.aiagent.entity.FloatChatVo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,6 +30,11 @@ public interface FloatChatMapper {
      */
     int checkCategoryExists(@Param("categoryCode") String categoryCode);
 
+    /**
+     * 카테고리 테이블의 변경 버전을 조회합니다. (활성 건수 + 최종 수정일시)
+     */
+    String selectCategoryVersion();
+
     // === 프롬프트 관리 ===
     
     /**
@@ -49,6 +56,21 @@ public interface FloatChatMapper {
      */
     int insertConversation(FloatChatVo conversationVo);
 
+    /**
+     * 애플리케이션에서 발급한 ID로 대화를 저장합니다. (write-behind 배치 저장용, 중복 ID는 오류)
+     */
+    int insertConversationWithId(FloatChatVo conversationVo);
+
+    /**
+     * 스풀 파일의 대화를 발급된 ID로 다시 저장합니다. (이미 저장된 ID는 무시)
+     */
+    int replayConversationWithId(FloatChatVo conversationVo);
+
+    /**
+     * 여러 대화를 한 문장으로 저장합니다. (배치 메시지용, 생성된 ID는 목록 순서대로 채워짐)
+     */
+    int insertConversations(List<FloatChatVo> conversations);
+
     /**
      * 사용자별 카테고리별 최신 대화 목록을 조회합니다.
      */
@@ -56,11 +78,32 @@ public interface FloatChatMapper {
                                                @Param("categoryCode") String categoryCode,
                                                @Param("limit") int limit);
 
+    /**
+     * 사용자별 카테고리별 대화 목록을 커서(CREATED_DATE, CONVERSATION_ID) 기준으로 조회합니다. (AI 응답 제외)
+     */
+    List<FloatChatVo> selectConversationPage(@Param("userId") String userId,
+                                             @Param("categoryCode") String categoryCode,
+                                             @Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             @Param("limit") int limit);
+
+    /**
+     * 사용자의 특정 대화를 조회합니다. (AI 응답 포함)
+     */
+    FloatChatVo selectConversationById(@Param("userId") String userId,
+                                       @Param("categoryCode") String categoryCode,
+                                       @Param("conversationId") Long conversationId);
+
     /**
      * 사용자별 전체 카테고리 대화 수를 조회합니다.
      */
     int getTotalConversationCount(@Param("userId") String userId, @Param("categoryCode") String categoryCode);
 
+    /**
+     * 검색 색인 재구성용으로 최신 대화부터 CONVERSATION_ID 역순으로 나누어 조회합니다. (beforeId 가 null 이면 가장 최신부터)
+     */
+    List<FloatChatVo> selectConversationsForIndex(@Param("beforeId") Long beforeId, @Param("limit") int limit);
+
     // === 피드백 관리 ===
     
     /**
@@ -75,8 +118,37 @@ public interface FloatChatMapper {
      */
     int healthCheck();
 
+    // === 보존 기간 정리 ===
+
+    /**
+     * afterId 다음부터 CONVERSATION_ID 를 순서대로 최대 limit 개 조회합니다. (정리 구간 계산용)
+     */
+    List<Long> selectConversationIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * CONVERSATION_ID 구간 안에서 기준 일시 이전 대화를 삭제합니다.
+     */
+    int deleteOldConversationsInRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                      @Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * afterId 다음부터 FEEDBACK_ID 를 순서대로 최대 limit 개 조회합니다. (정리 구간 계산용)
+     */
+    List<Long> selectFeedbackIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * FEEDBACK_ID 구간 안에서 기준 일시 이전 피드백을 삭제합니다.
+     */
+    int deleteOldFeedbackInRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                 @Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * 테이블별 정리 진행 상태를 조회합니다.
+     */
+    FloatChatRetentionVo selectRetentionCheckpoint(@Param("tableName") String tableName);
+
     /**
-     * 오래된 대화 데이터를 정리합니다.
+     * 테이블별 정리 진행 상태를 저장합니다. (없으면 추가)
      */
-    int deleteOldConversations(@Param("days") int days);
+    int upsertRetentionCheckpoint(FloatChatRetentionVo checkpoint);
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SWP Float Chat 답변 캐시 (정확 일치)
+ *
+ * 키는 카테고리 코드 + 시스템 프롬프트 지문 + 정규화된 질문입니다.
+ * 프롬프트가 바뀌면 지문이 달라져 이전 답변은 자연히 조회되지 않으며, 로컬 변경 시에는 즉시 제거합니다.
+ * 크기 초과 시 가장 오래 사용되지 않은 항목부터, TTL 이 지난 항목은 조회 시점에 제거합니다.
+ */
+@Component
+public class FloatChatAnswerCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatAnswerCache.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+    /**
+     * 단어 앞에서 제거할 여는 괄호/따옴표 (".net" 의 점처럼 단어 앞 기호는 유지)
+     */
+    private static final String LEADING_PUNCTUATION = "'\"([{<`\u2018\u201C\u300C\u300E";
+    /**
+     * 단어 뒤에서 제거할 문장부호 ("c++", "c#" 처럼 단어 뒤 +, # 은 유지)
+     */
+    private static final String TRAILING_PUNCTUATION = ".,!?;:'\")]}>`~\u2019\u201D\u2026\u3001\u3002\u300D\u300F";
+
+    @Value("${float-chat.answer-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${float-chat.answer-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${float-chat.answer-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    /**
+     * 캐시를 적용할 카테고리 목록 (쉼표 구분, 비어 있으면 전체)
+     */
+    @Value("${float-chat.answer-cache.categories:}")
+    private String categories;
+
+    private Set<String> enabledCategories = Collections.emptySet();
+    private long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedAnswer> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        Set<String> codes = new HashSet<>();
+        for (String code : categories.split(",")) {
+            if (!code.trim().isEmpty()) {
+                codes.add(code.trim());
+            }
+        }
+        enabledCategories = Collections.unmodifiableSet(codes);
+        ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        if (enabled) {
+            log.info("답변 캐시 활성화 - 최대: {}건, TTL: {}초, 카테고리: {}",
+                    maxSize, ttlSeconds, enabledCategories.isEmpty() ? "전체" : enabledCategories);
+        }
+    }
+
+    /**
+     * 해당 카테고리에 답변 캐시가 적용되는지 확인합니다.
+     */
+    public boolean isEnabled(String categoryCode) {
+        return enabled && (enabledCategories.isEmpty() || enabledCategories.contains(categoryCode));
+    }
+
+    /**
+     * 캐시 키를 생성합니다.
+     */
+    public static String buildKey(String categoryCode, String userQuestion, String systemPrompt) {
+        String normalized = normalizeQuestion(userQuestion);
+        return new StringBuilder(categoryCode.length() + normalized.length() + 24)
+                .append(categoryCode).append(KEY_SEPARATOR)
+                .append(promptFingerprint(systemPrompt)).append(KEY_SEPARATOR)
+                .append(normalized)
+                .toString();
+    }
+
+    /**
+     * 질문을 정규화합니다. (NFKC, 소문자, 공백 축약, 단어 앞뒤 문장부호 제거)
+     * 단어 안의 기호는 의미가 있으므로 유지합니다. ("c++ 설치" 와 "c# 설치", "node.js" 와 "node js" 는 다른 키)
+     */
+    public static String normalizeQuestion(String userQuestion) {
+        String text = Normalizer.normalize(userQuestion, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(text.length());
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int end = i;
+            while (start < end && LEADING_PUNCTUATION.indexOf(text.charAt(start)) >= 0) {
+                start++;
+            }
+            while (end > start && TRAILING_PUNCTUATION.indexOf(text.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            if (start < end) {
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(text, start, end);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * 캐시된 답변을 반환합니다. 없거나 만료되었으면 null 을 반환합니다.
+     */
+    public String get(String key) {
+        lock.lock();
+        try {
+            CachedAnswer cached = entries.get(key);
+            if (cached != null && System.nanoTime() - cached.createdNanos <= ttlNanos) {
+                hitCount.increment();
+                return cached.answer;
+            }
+            if (cached != null) {
+                entries.remove(key);
+                evictionCount.increment();
+            }
+            missCount.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, String categoryCode, String answer) {
+        lock.lock();
+        try {
+            entries.put(key, new CachedAnswer(categoryCode, answer, System.nanoTime()));
+            Iterator<CachedAnswer> eldest = entries.values().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictionCount.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 카테고리의 캐시 항목을 모두 제거합니다. (시스템 프롬프트 변경 시)
+     */
+    public void invalidateCategory(String categoryCode) {
+        int removed = 0;
+        lock.lock();
+        try {
+            Iterator<CachedAnswer> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().categoryCode.equals(categoryCode)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removed > 0) {
+            log.info("답변 캐시 무효화 - Category: {}, 제거: {}건", categoryCode, removed);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hitCount.sum());
+        stats.put("misses", missCount.sum());
+        stats.put("evictions", evictionCount.sum());
+        lock.lock();
+        try {
+            stats.put("size", entries.size());
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 시스템 프롬프트 지문 (길이 + 해시, 캐시된 String 해시를 재사용)
+     */
+    private static String promptFingerprint(String systemPrompt) {
+        return Integer.toHexString(systemPrompt.length()) + ':' + Integer.toHexString(systemPrompt.hashCode());
+    }
+
+    private static final class CachedAnswer {
+
+        final String categoryCode;
+        final String answer;
+        final long createdNanos;
+
+        CachedAnswer(String categoryCode, String answer, long createdNanos) {
+            this.categoryCode = categoryCode;
+            this.answer = answer;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
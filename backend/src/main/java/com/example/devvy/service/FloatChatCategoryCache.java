@@ -0,0 +1,348 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import com.temporary22.aiagent.entity.FloatChatCategoryVo;
+import com.temporary22.aiagent.entity.FloatChatVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SWP Float Chat 카테고리/시스템 프롬프트 인메모리 캐시
+ *
+ * 활성 카테고리 전체를 불변 스냅샷으로 보관하고, 변경 시에는 스냅샷을 통째로 교체합니다.
+ * 다른 노드에서 발생한 변경은 주기적인 버전(건수 + MAX(MODIFIED_DATE)) 조회로 반영됩니다.
+ * 반환되는 FloatChatVo 는 스냅샷과 공유되므로 호출 측에서 수정하면 안 됩니다.
+ * 클라이언트용 카테고리 목록 JSON 과 ETag 는 스냅샷마다 한 번만 직렬화합니다.
+ * 최초 적재에 실패하면 retry-backoff-ms 동안은 다시 적재하지 않고 매퍼를 직접 조회합니다. (DB 장애 시 요청마다 재적재 방지)
+ */
+@Component
+@EnableScheduling
+public class FloatChatCategoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatCategoryCache.class);
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 적재 실패 후 다시 적재를 시도하기까지 기다리는 시간
+     */
+    @Value("${float-chat.category-cache.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    private final AtomicReference<CategorySnapshot> snapshotRef = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile long lastFailureNanos;
+    private volatile boolean failing;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder reloadCount = new LongAdder();
+
+    // === 조회 ===
+
+    /**
+     * 활성화된 카테고리 목록을 반환합니다. (CATEGORY_ID 순, 읽기 전용)
+     */
+    public List<FloatChatVo> getCategories() {
+        CategorySnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            missCount.increment();
+            return floatChatMapper.selectCategories();
+        }
+        hitCount.increment();
+        return snapshot.categories;
+    }
+
+    /**
+     * 특정 카테고리 정보를 반환합니다. 없으면 null 을 반환합니다.
+     */
+    public FloatChatVo getCategory(String categoryCode) {
+        CategorySnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            missCount.increment();
+            return floatChatMapper.selectCategoryByCode(categoryCode);
+        }
+        hitCount.increment();
+        return snapshot.byCode.get(categoryCode);
+    }
+
+    /**
+     * 카테고리가 존재하고 활성화되어 있는지 확인합니다.
+     */
+    public boolean contains(String categoryCode) {
+        CategorySnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            missCount.increment();
+            return floatChatMapper.checkCategoryExists(categoryCode) > 0;
+        }
+        hitCount.increment();
+        return snapshot.byCode.containsKey(categoryCode);
+    }
+
+    /**
+     * DB에 저장된 시스템 프롬프트를 반환합니다. (기본 프롬프트 치환 전 원본, 없으면 null)
+     */
+    public String getSystemPrompt(String categoryCode) {
+        CategorySnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            missCount.increment();
+            return floatChatMapper.selectSystemPrompt(categoryCode);
+        }
+        hitCount.increment();
+        FloatChatVo category = snapshot.byCode.get(categoryCode);
+        return category != null ? category.getSystemPrompt() : null;
+    }
+
+    /**
+     * 클라이언트용 카테고리 목록 응답(직렬화된 JSON + ETag)을 반환합니다.
+     * 스냅샷이 없으면 null 을 반환합니다.
+     */
+    public CategoryListBody getCategoryListBody() {
+        CategorySnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            return null;
+        }
+        hitCount.increment();
+        CategoryListBody body = snapshot.listBody;
+        if (body == null) {
+            // 동시에 여러 번 만들어져도 결과가 같으므로 잠금 없이 마지막 값을 사용
+            body = buildListBody(snapshot);
+            snapshot.listBody = body;
+        }
+        return body;
+    }
+
+    // === 갱신 ===
+
+    /**
+     * 로컬에서 변경된 시스템 프롬프트를 스냅샷에 반영합니다. (해당 카테고리만 복사 후 원자적 교체)
+     */
+    public void applyPromptUpdate(String categoryCode, String systemPrompt) {
+        while (true) {
+            CategorySnapshot current = snapshotRef.get();
+            if (current == null || !current.byCode.containsKey(categoryCode)) {
+                reload();
+                return;
+            }
+
+            List<FloatChatVo> categories = new ArrayList<>(current.categories.size());
+            for (FloatChatVo category : current.categories) {
+                if (category.getCategoryCode().equals(categoryCode)) {
+                    FloatChatVo updated = copyOf(category);
+                    updated.setSystemPrompt(systemPrompt);
+                    categories.add(updated);
+                } else {
+                    categories.add(category);
+                }
+            }
+
+            CategorySnapshot next = new CategorySnapshot(categories, current.version);
+            if (snapshotRef.compareAndSet(current, next)) {
+                log.info("카테고리 캐시 프롬프트 반영 - Category: {}", categoryCode);
+                return;
+            }
+        }
+    }
+
+    /**
+     * DB 버전을 확인하여 다른 노드의 변경 사항을 반영합니다.
+     */
+    @Scheduled(fixedDelayString = "${float-chat.category-cache.refresh-interval-ms:30000}",
+               initialDelayString = "${float-chat.category-cache.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        try {
+            CategorySnapshot current = snapshotRef.get();
+            String version = floatChatMapper.selectCategoryVersion();
+            if (current == null || !Objects.equals(current.version, version)) {
+                log.info("카테고리 변경 감지 - 이전 버전: {}, 현재 버전: {}",
+                        current != null ? current.version : null, version);
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("카테고리 캐시 버전 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * DB에서 카테고리 전체를 다시 읽어 스냅샷을 교체합니다.
+     */
+    public void reload() {
+        loadSnapshot();
+    }
+
+    /**
+     * 캐시 적중/미스 통계를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        CategorySnapshot snapshot = snapshotRef.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount.sum());
+        stats.put("misses", missCount.sum());
+        stats.put("reloads", reloadCount.sum());
+        stats.put("failing", failing);
+        stats.put("size", snapshot != null ? snapshot.categories.size() : 0);
+        stats.put("version", snapshot != null ? snapshot.version : null);
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private CategorySnapshot snapshot() {
+        CategorySnapshot snapshot = snapshotRef.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (inBackoff()) {
+            return null;
+        }
+        // 최초 적재는 한 스레드만 수행하고, 나머지는 그 결과를 사용합니다.
+        loadLock.lock();
+        try {
+            snapshot = snapshotRef.get();
+            if (snapshot != null || inBackoff()) {
+                return snapshot;
+            }
+            return loadSnapshot();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 최근 적재 실패 후 재시도 대기 중인지 확인합니다.
+     */
+    private boolean inBackoff() {
+        return failing && System.nanoTime() - lastFailureNanos < TimeUnit.MILLISECONDS.toNanos(retryBackoffMs);
+    }
+
+    private CategorySnapshot loadSnapshot() {
+        loadLock.lock();
+        try {
+            String version = floatChatMapper.selectCategoryVersion();
+            List<FloatChatVo> categories = floatChatMapper.selectCategories();
+            CategorySnapshot next = new CategorySnapshot(categories, version);
+            snapshotRef.set(next);
+            reloadCount.increment();
+            failing = false;
+            log.info("카테고리 캐시 적재 완료 - {}개, 버전: {}", categories.size(), version);
+            return next;
+        } catch (Exception e) {
+            lastFailureNanos = System.nanoTime();
+            if (failing) {
+                log.warn("카테고리 캐시 적재 실패 (재시도 대기 {}ms): {}", retryBackoffMs, e.getMessage());
+            } else {
+                log.error("카테고리 캐시 적재 실패 (재시도 대기 {}ms)", retryBackoffMs, e);
+            }
+            failing = true;
+            return null;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private CategoryListBody buildListBody(CategorySnapshot snapshot) {
+        List<FloatChatCategoryVo> categories = new ArrayList<>(snapshot.categories.size());
+        for (FloatChatVo category : snapshot.categories) {
+            categories.add(FloatChatCategoryVo.from(category));
+        }
+        FloatChatVo response = FloatChatVo.createSuccessResponse(categories, "카테고리 조회 성공");
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            StringBuilder etag = new StringBuilder("\"");
+            for (int i = 0; i < 16; i++) {
+                etag.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                    .append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return new CategoryListBody(json, etag.append('"').toString(), categories.size());
+        } catch (NoSuchAlgorithmException | java.io.IOException e) {
+            throw new IllegalStateException("카테고리 목록 직렬화 실패", e);
+        }
+    }
+
+    private static FloatChatVo copyOf(FloatChatVo source) {
+        FloatChatVo copy = new FloatChatVo();
+        copy.setCategoryId(source.getCategoryId());
+        copy.setCategoryCode(source.getCategoryCode());
+        copy.setDescription(source.getDescription());
+        copy.setDescriptionEn(source.getDescriptionEn());
+        copy.setIconPath(source.getIconPath());
+        copy.setActiveYn(source.getActiveYn());
+        copy.setSystemPrompt(source.getSystemPrompt());
+        return copy;
+    }
+
+    /**
+     * 카테고리 불변 스냅샷
+     */
+    static final class CategorySnapshot {
+
+        final List<FloatChatVo> categories;
+        final Map<String, FloatChatVo> byCode;
+        final String version;
+        volatile CategoryListBody listBody;
+
+        CategorySnapshot(List<FloatChatVo> categories, String version) {
+            Map<String, FloatChatVo> index = new HashMap<>();
+            for (FloatChatVo category : categories) {
+                index.put(category.getCategoryCode(), category);
+            }
+            this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+            this.byCode = Collections.unmodifiableMap(index);
+            this.version = version;
+        }
+    }
+
+    /**
+     * 직렬화된 카테고리 목록 응답
+     */
+    public static final class CategoryListBody {
+
+        private final byte[] json;
+        private final String etag;
+        private final int size;
+
+        CategoryListBody(byte[] json, String etag, int size) {
+            this.json = json;
+            this.etag = etag;
+            this.size = size;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+}
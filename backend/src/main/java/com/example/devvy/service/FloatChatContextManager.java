@@ -0,0 +1,295 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.entity.FloatChatVo;
+import com.temporary22.aiagent.impl.aiAgent.llm.TokenEstimator;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SWP Float Chat 대화 문맥 관리자 (사용자 + 카테고리 단위)
+ *
+ * 최근 대화는 토큰 예산 안에서 원문 그대로 메모리에 보관하고, 예산을 넘는 오래된 대화는
+ * 한 줄 요약으로 접어 누적 요약에 덧붙입니다. 요약도 예산을 넘으면 가장 오래된 줄부터 버립니다.
+ * 문맥은 진행 중인 대화(idle-ttl-minutes 안에 이어지는 요청)에만 적용합니다.
+ * 메모리에 문맥이 없을 때 DB 의 최근 대화는 클라이언트가 이어지는 질문(followUp)이라고 알린 경우에만 한 번 읽으므로,
+ * 새 대화의 첫 질문은 문맥 없이 처리되어 답변 캐시와 요청 병합을 그대로 사용합니다.
+ * 대화가 길어져도 DB 조회 수와 프롬프트 크기가 일정하게 유지됩니다.
+ * 사용자 식별(Spring Security 연동) 전에는 모든 요청이 같은 사용자 문맥을 공유하므로 기본값은 비활성입니다.
+ */
+@Component
+public class FloatChatContextManager {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatContextManager.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int SUMMARY_QUESTION_CHARS = 80;
+    private static final int SUMMARY_ANSWER_CHARS = 120;
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Autowired
+    private TokenEstimator tokenEstimator;
+
+    @Value("${float-chat.context.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 원문으로 보관할 최근 대화의 토큰 예산
+     */
+    @Value("${float-chat.context.recent-token-budget:1500}")
+    private int recentTokenBudget;
+
+    /**
+     * 누적 요약의 토큰 예산
+     */
+    @Value("${float-chat.context.summary-token-budget:500}")
+    private int summaryTokenBudget;
+
+    /**
+     * 이어지는 질문(followUp)인데 메모리에 문맥이 없을 때 DB 에서 읽을 최근 대화 수
+     */
+    @Value("${float-chat.context.cold-start-turns:20}")
+    private int coldStartTurns;
+
+    @Value("${float-chat.context.max-sessions:10000}")
+    private int maxSessions;
+
+    @Value("${float-chat.context.idle-ttl-minutes:60}")
+    private long idleTtlMinutes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ConversationContext> contexts = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder coldStartCount = new LongAdder();
+    private final LongAdder foldCount = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 프롬프트에 넣을 이전 대화 문맥을 반환합니다. 이전 대화가 없으면 빈 문자열을 반환합니다.
+     *
+     * @param followUp 이어지는 질문이면 메모리에 문맥이 없을 때 DB 의 최근 대화를 읽음
+     *                 (false 면 메모리의 문맥도 비우고 새 대화로 시작)
+     */
+    public String getContext(String userId, String categoryCode, boolean followUp) {
+        if (!enabled || userId == null) {
+            return "";
+        }
+        ConversationContext context = acquire(userId, categoryCode);
+        context.lock.lock();
+        try {
+            if (!followUp) {
+                // 새 대화 - 남아 있는 문맥과 이전 세션의 대화는 사용하지 않음
+                context.reset();
+                return "";
+            }
+            ensureLoaded(context, userId, categoryCode);
+            return context.render();
+        } finally {
+            context.lock.unlock();
+        }
+    }
+
+    /**
+     * 완료된 대화를 문맥에 추가합니다.
+     */
+    public void append(String userId, String categoryCode, String userQuestion, String aiResponse) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        ConversationContext context = acquire(userId, categoryCode);
+        context.lock.lock();
+        try {
+            // 응답 생성 중 문맥이 만료되었으면 현재 대화부터 새 대화로 시작 (DB 는 읽지 않음)
+            context.loaded = true;
+            addTurn(context, newTurn(userQuestion, aiResponse));
+        } finally {
+            context.lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hitCount.sum());
+        stats.put("coldStarts", coldStartCount.sum());
+        stats.put("foldedTurns", foldCount.sum());
+        lock.lock();
+        try {
+            stats.put("sessions", contexts.size());
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private ConversationContext acquire(String userId, String categoryCode) {
+        String key = userId + KEY_SEPARATOR + categoryCode;
+        long now = System.nanoTime();
+        long idleTtlNanos = TimeUnit.MINUTES.toNanos(idleTtlMinutes);
+        lock.lock();
+        try {
+            ConversationContext context = contexts.get(key);
+            if (context != null && now - context.lastAccessNanos > idleTtlNanos) {
+                contexts.remove(key);
+                context = null;
+            }
+            if (context == null) {
+                context = new ConversationContext();
+                contexts.put(key, context);
+                Iterator<ConversationContext> eldest = contexts.values().iterator();
+                while (contexts.size() > maxSessions && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            } else {
+                hitCount.increment();
+            }
+            context.lastAccessNanos = now;
+            return context;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 문맥이 비어 있으면 DB 에서 최근 대화를 읽어 채웁니다. (context.lock 보유 상태에서 호출)
+     */
+    private void ensureLoaded(ConversationContext context, String userId, String categoryCode) {
+        if (context.loaded) {
+            return;
+        }
+        try {
+            List<FloatChatVo> recent = floatChatMapper.selectRecentConversations(userId, categoryCode, coldStartTurns);
+            // 최신순 조회 결과를 시간순으로 추가
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                FloatChatVo conversation = recent.get(i);
+                addTurn(context, newTurn(conversation.getUserQuestion(), conversation.getAiResponse()));
+            }
+            coldStartCount.increment();
+            log.debug("대화 문맥 적재 - User: {}, Category: {}, 대화 수: {}", userId, categoryCode, recent.size());
+        } catch (Exception e) {
+            // 문맥 없이도 응답은 가능하므로 빈 문맥으로 시작
+            log.warn("대화 문맥 적재 실패 - User: {}, Category: {}: {}", userId, categoryCode, e.getMessage());
+        }
+        context.loaded = true;
+    }
+
+    private Turn newTurn(String userQuestion, String aiResponse) {
+        String question = userQuestion == null ? "" : userQuestion;
+        String answer = aiResponse == null ? "" : aiResponse;
+        return new Turn(question, answer, tokenEstimator.estimate(question) + tokenEstimator.estimate(answer));
+    }
+
+    private void addTurn(ConversationContext context, Turn turn) {
+        context.recent.addLast(turn);
+        context.recentTokens += turn.tokens;
+        // 최신 대화 하나는 예산을 넘더라도 원문으로 유지
+        while (context.recentTokens > recentTokenBudget && context.recent.size() > 1) {
+            Turn oldest = context.recent.removeFirst();
+            context.recentTokens -= oldest.tokens;
+            String summaryLine = oldest.summarize();
+            context.fold(summaryLine, tokenEstimator.estimate(summaryLine), summaryTokenBudget);
+            foldCount.increment();
+        }
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        String singleLine = text.replace('\n', ' ').trim();
+        return singleLine.length() <= maxChars ? singleLine : singleLine.substring(0, maxChars) + "…";
+    }
+
+    /**
+     * 사용자 + 카테고리 단위 대화 문맥
+     */
+    private static final class ConversationContext {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayDeque<Turn> recent = new ArrayDeque<>();
+        final ArrayDeque<String> summaryLines = new ArrayDeque<>();
+        final ArrayDeque<Integer> summaryLineTokens = new ArrayDeque<>();
+        int recentTokens;
+        int summaryTokens;
+        boolean loaded;
+        volatile long lastAccessNanos;
+
+        void reset() {
+            recent.clear();
+            summaryLines.clear();
+            summaryLineTokens.clear();
+            recentTokens = 0;
+            summaryTokens = 0;
+            loaded = true;
+        }
+
+        void fold(String summaryLine, int tokens, int summaryBudget) {
+            summaryLines.addLast(summaryLine);
+            summaryLineTokens.addLast(tokens);
+            summaryTokens += tokens;
+            while (summaryTokens > summaryBudget && summaryLines.size() > 1) {
+                summaryLines.removeFirst();
+                summaryTokens -= summaryLineTokens.removeFirst();
+            }
+        }
+
+        String render() {
+            if (recent.isEmpty() && summaryLines.isEmpty()) {
+                return "";
+            }
+            StringBuilder builder = new StringBuilder();
+            if (!summaryLines.isEmpty()) {
+                builder.append("이전 대화 요약:\n");
+                for (String line : summaryLines) {
+                    builder.append("- ").append(line).append('\n');
+                }
+                builder.append('\n');
+            }
+            if (!recent.isEmpty()) {
+                builder.append("최근 대화:\n");
+                for (Turn turn : recent) {
+                    builder.append("사용자: ").append(turn.question).append('\n');
+                    builder.append("AI: ").append(turn.answer).append('\n');
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    private static final class Turn {
+
+        final String question;
+        final String answer;
+        final int tokens;
+
+        Turn(String question, String answer, int tokens) {
+            this.question = question;
+            this.answer = answer;
+            this.tokens = tokens;
+        }
+
+        String summarize() {
+            return "Q: " + truncate(question, SUMMARY_QUESTION_CHARS) + " / A: " + truncate(answer, SUMMARY_ANSWER_CHARS);
+        }
+    }
+}
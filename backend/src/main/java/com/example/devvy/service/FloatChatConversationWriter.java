@@ -0,0 +1,351 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import com.temporary22.aiagent.entity.FloatChatVo;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SWP Float Chat 대화 저장기 (write-behind 배치 저장 지원)
+ *
+ * 기본 모드에서는 insertConversation 을 즉시 실행합니다.
+ * write-behind 모드에서는 대화 ID를 애플리케이션에서 발급한 뒤 제한된 큐에 넣고,
+ * 전용 스레드가 크기(batch-size) 또는 시간(flush-interval-ms) 기준으로 MyBatis BATCH 실행기로 일괄 저장합니다.
+ * 큐가 가득 차면 호출 스레드에서 즉시 저장하고, DB 저장에 실패한 배치와 종료 시 남은 대화는
+ * 로컬 스풀 파일(JSON Lines)에 기록했다가 다음 기동 시 다시 저장합니다.
+ *
+ * 발급 ID는 시간 기반(밀리초 + 노드 + 시퀀스)이므로 write-behind 모드는 모든 노드에서 함께 켜야 하며,
+ * 노드마다 서로 다른 node-id(0~1023)를 지정해야 합니다. (지정하지 않으면 기동 실패)
+ * 평소 저장은 일반 INSERT 로 ID 중복을 오류로 드러내고, 스풀 재처리만 이미 저장된 ID를 무시합니다.
+ */
+@Component
+public class FloatChatConversationWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatConversationWriter.class);
+    private static final String SPOOL_PREFIX = "conversation-";
+    private static final String SPOOL_SUFFIX = ".jsonl";
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${float-chat.conversation.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${float-chat.conversation.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${float-chat.conversation.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${float-chat.conversation.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    /**
+     * 대화 ID 발급 노드 번호 (0~1023, 노드마다 달라야 함 - write-behind 사용 시 필수)
+     */
+    @Value("${float-chat.conversation.write-behind.node-id:-1}")
+    private int nodeId;
+
+    @Value("${float-chat.conversation.write-behind.spool-dir:${java.io.tmpdir}/float-chat-spool}")
+    private String spoolDir;
+
+    private BlockingQueue<FloatChatVo> queue;
+    private ConversationIdGenerator idGenerator;
+    private Thread flusher;
+    private volatile boolean running;
+    private volatile boolean spoolPending;
+
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder flushedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+    private final LongAdder spooledCount = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (!writeBehindEnabled) {
+            return;
+        }
+        if (nodeId < 0 || nodeId > ConversationIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("write-behind 저장에는 노드마다 다른 float-chat.conversation.write-behind.node-id (0~"
+                    + ConversationIdGenerator.MAX_NODE_ID + ") 가 필요합니다. 현재: " + nodeId);
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        idGenerator = new ConversationIdGenerator(nodeId);
+        spoolPending = true;
+        replaySpool();
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "float-chat-conversation-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("대화 write-behind 저장 시작 - 큐: {}, 배치: {}, 주기: {}ms, 노드: {}",
+                queueCapacity, batchSize, flushIntervalMs, idGenerator.nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!writeBehindEnabled || flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 종료 시 남은 대화는 마지막으로 저장을 시도하고, 실패하면 스풀 파일로 보존
+        List<FloatChatVo> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+        log.info("대화 write-behind 저장 종료 - 저장: {}건, 스풀: {}건", flushedCount.sum(), spooledCount.sum());
+    }
+
+    /**
+     * 대화를 저장하고 conversationId 를 채웁니다.
+     */
+    public void write(FloatChatVo conversation) {
+        if (!writeBehindEnabled) {
+            floatChatMapper.insertConversation(conversation);
+            return;
+        }
+
+        conversation.setConversationId(idGenerator.nextId());
+        conversation.setCreatedDate(LocalDateTime.now());
+        if (queue.offer(conversation)) {
+            enqueuedCount.increment();
+            return;
+        }
+
+        // 큐 포화 시 호출 스레드에서 바로 저장 (유실 방지)
+        overflowCount.increment();
+        floatChatMapper.insertConversationWithId(conversation);
+    }
+
+    /**
+     * 여러 대화를 함께 저장하고 각 conversationId 를 채웁니다. (배치 메시지용)
+     * 기본 모드에서는 한 문장의 다중 행 insert 로, write-behind 모드에서는 큐를 거쳐 일괄 저장합니다.
+     */
+    public void writeAll(List<FloatChatVo> conversations) {
+        if (conversations.isEmpty()) {
+            return;
+        }
+        if (!writeBehindEnabled) {
+            floatChatMapper.insertConversations(conversations);
+            return;
+        }
+        for (FloatChatVo conversation : conversations) {
+            write(conversation);
+        }
+    }
+
+    /**
+     * 저장기 상태를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writeBehind", writeBehindEnabled);
+        stats.put("queueDepth", queue != null ? queue.size() : 0);
+        stats.put("enqueued", enqueuedCount.sum());
+        stats.put("flushed", flushedCount.sum());
+        stats.put("batches", batchCount.sum());
+        stats.put("overflowSync", overflowCount.sum());
+        stats.put("spooled", spooledCount.sum());
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private void flushLoop() {
+        List<FloatChatVo> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                FloatChatVo first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 건 기준으로 flush-interval 동안 batch-size 까지 모음
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long waitNanos = deadline - System.nanoTime();
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+                    FloatChatVo next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                boolean flushed = flush(batch);
+                batch.clear();
+                if (flushed && spoolPending) {
+                    replaySpool();
+                }
+            } catch (InterruptedException e) {
+                // 종료 요청 - 모으던 배치는 바로 저장하고 나머지는 stop() 에서 처리
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * BATCH 실행기로 일괄 저장합니다. 실패하면 스풀 파일에 기록하고 false 를 반환합니다.
+     */
+    private boolean flush(List<FloatChatVo> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            insertBatch(batch, false);
+            batchCount.increment();
+            flushedCount.add(batch.size());
+            log.debug("대화 일괄 저장 완료 - {}건", batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("대화 일괄 저장 실패 - {}건 스풀 파일로 보존", batch.size(), e);
+            spool(batch);
+            return false;
+        }
+    }
+
+    /**
+     * @param replay 스풀 재처리 여부 (이미 저장된 ID는 무시)
+     */
+    private void insertBatch(List<FloatChatVo> batch, boolean replay) {
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            FloatChatMapper batchMapper = session.getMapper(FloatChatMapper.class);
+            for (FloatChatVo conversation : batch) {
+                if (replay) {
+                    batchMapper.replayConversationWithId(conversation);
+                } else {
+                    batchMapper.insertConversationWithId(conversation);
+                }
+            }
+            session.flushStatements();
+            session.commit();
+        }
+    }
+
+    private void spool(List<FloatChatVo> batch) {
+        Path file = Paths.get(spoolDir, SPOOL_PREFIX + System.currentTimeMillis() + "-" + System.nanoTime() + SPOOL_SUFFIX);
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (FloatChatVo conversation : batch) {
+                    writer.write(objectMapper.writeValueAsString(conversation));
+                    writer.newLine();
+                }
+            }
+            spooledCount.add(batch.size());
+            spoolPending = true;
+        } catch (IOException e) {
+            log.error("대화 스풀 파일 기록 실패 - {}건 유실: {}", batch.size(), file, e);
+        }
+    }
+
+    private void replaySpool() {
+        Path dir = Paths.get(spoolDir);
+        if (!Files.isDirectory(dir)) {
+            spoolPending = false;
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SPOOL_PREFIX + "*" + SPOOL_SUFFIX)) {
+            for (Path file : files) {
+                List<FloatChatVo> batch = new ArrayList<>();
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.trim().isEmpty()) {
+                            batch.add(objectMapper.readValue(line, FloatChatVo.class));
+                        }
+                    }
+                }
+                insertBatch(batch, true);
+                Files.delete(file);
+                flushedCount.add(batch.size());
+                log.info("스풀 대화 복구 완료 - {} ({}건)", file.getFileName(), batch.size());
+            }
+            spoolPending = false;
+        } catch (Exception e) {
+            log.warn("스풀 대화 복구 실패 - 다음 저장 주기에 재시도: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 시간 기반 대화 ID 발급기 (41비트 밀리초 + 10비트 노드 + 12비트 시퀀스, lock-free)
+     */
+    static final class ConversationIdGenerator {
+
+        static final int MAX_NODE_ID = (1 << 10) - 1;
+        private static final int SEQUENCE_BITS = 12;
+        private static final int NODE_BITS = 10;
+        private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+        private final long nodeId;
+        private final AtomicLong state = new AtomicLong();
+
+        ConversationIdGenerator(int nodeId) {
+            this.nodeId = nodeId & MAX_NODE_ID;
+        }
+
+        long nextId() {
+            while (true) {
+                long last = state.get();
+                long now = System.currentTimeMillis() - EPOCH_MILLIS;
+                // 같은 밀리초(또는 시계 역행) 시 시퀀스 증가, 시퀀스가 넘치면 다음 밀리초를 미리 사용
+                long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+                if (state.compareAndSet(last, next)) {
+                    long millis = next >>> SEQUENCE_BITS;
+                    long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                    return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+                }
+            }
+        }
+    }
+}
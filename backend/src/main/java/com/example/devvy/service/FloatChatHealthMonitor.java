@@ -0,0 +1,224 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmCircuitBreaker;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmLatencyRecorder;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmRouter;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SWP Float Chat 상태 모니터
+ *
+ * DB, 커넥션 풀, LLM 클라이언트 상태를 백그라운드에서 주기적으로 확인하고 결과 스냅샷을 보관합니다.
+ * 상태 조회 요청은 보관된 스냅샷만 반환하므로 폴링 횟수와 무관하게 DB 를 조회하지 않습니다.
+ * - liveness: 프로세스가 요청을 처리할 수 있는지 (의존성 확인 없음)
+ * - readiness: 의존성 상태 (UP / DEGRADED / DOWN) 와 최근 LLM 지연시간 백분위
+ */
+@Component
+@EnableScheduling
+public class FloatChatHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatHealthMonitor.class);
+
+    public static final String STATUS_UP = "UP";
+    public static final String STATUS_DEGRADED = "DEGRADED";
+    public static final String STATUS_DOWN = "DOWN";
+    public static final String STATUS_UNKNOWN = "UNKNOWN";
+
+    private static final long STARTED_AT = System.currentTimeMillis();
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Autowired
+    private LlmLatencyRecorder llmLatencyRecorder;
+
+    @Autowired
+    private LlmCircuitBreaker llmCircuitBreaker;
+
+    @Autowired
+    private LlmRouter llmRouter;
+
+    @Autowired
+    private FloatChatLlmScheduler llmScheduler;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSourceProvider;
+
+    /**
+     * 이 시간(ms)보다 DB 응답이 느리면 DEGRADED 로 판단합니다.
+     */
+    @Value("${float-chat.health.db-slow-ms:1000}")
+    private long dbSlowMs;
+
+    /**
+     * 최근 LLM 호출 실패율이 이 값 이상이면 DEGRADED 로 판단합니다.
+     */
+    @Value("${float-chat.health.llm-error-rate-threshold:0.5}")
+    private double llmErrorRateThreshold;
+
+    /**
+     * 실패율을 판단하기 위한 최소 표본 수
+     */
+    @Value("${float-chat.health.llm-min-samples:10}")
+    private int llmMinSamples;
+
+    private volatile Map<String, Object> readiness = initialReadiness();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * 의존성 상태를 주기적으로 갱신합니다.
+     */
+    @Scheduled(fixedDelayString = "${float-chat.health.refresh-interval-ms:10000}",
+               initialDelayString = "${float-chat.health.refresh-interval-ms:10000}")
+    public void refresh() {
+        try {
+            Map<String, Object> database = checkDatabase();
+            Map<String, Object> pool = checkConnectionPool();
+            Map<String, Object> llm = checkLlm();
+
+            Map<String, Object> components = new LinkedHashMap<>();
+            components.put("database", database);
+            components.put("connectionPool", pool);
+            components.put("llm", llm);
+
+            String status = aggregate(database, pool, llm);
+            Map<String, Object> next = new LinkedHashMap<>();
+            next.put("status", status);
+            next.put("checkedAt", LocalDateTime.now());
+            next.put("components", Collections.unmodifiableMap(components));
+
+            String previous = (String) readiness.get("status");
+            readiness = Collections.unmodifiableMap(next);
+            if (!status.equals(previous)) {
+                log.info("상태 변경 - {} -> {}", previous, status);
+            }
+        } catch (Exception e) {
+            log.error("상태 갱신 실패", e);
+        }
+    }
+
+    /**
+     * 프로세스 생존 여부를 반환합니다. (의존성 확인 없음)
+     */
+    public Map<String, Object> getLiveness() {
+        Map<String, Object> liveness = new LinkedHashMap<>();
+        liveness.put("status", STATUS_UP);
+        liveness.put("uptimeSeconds", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - STARTED_AT));
+        return liveness;
+    }
+
+    /**
+     * 마지막으로 확인한 의존성 상태 스냅샷을 반환합니다.
+     */
+    public Map<String, Object> getReadiness() {
+        return readiness;
+    }
+
+    public String getStatus() {
+        return (String) readiness.get("status");
+    }
+
+    // === Private 메서드들 ===
+
+    private Map<String, Object> checkDatabase() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try {
+            int healthStatus = floatChatMapper.healthCheck();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String status = healthStatus != 1 ? STATUS_DOWN : (elapsedMs > dbSlowMs ? STATUS_DEGRADED : STATUS_UP);
+            result.put("status", status);
+            result.put("latencyMs", elapsedMs);
+        } catch (Exception e) {
+            log.warn("DB 상태 확인 실패: {}", e.getMessage());
+            result.put("status", STATUS_DOWN);
+            result.put("error", e.getClass().getSimpleName());
+        }
+        return result;
+    }
+
+    private Map<String, Object> checkConnectionPool() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        DataSource dataSource = dataSourceProvider.getIfAvailable();
+        if (!(dataSource instanceof HikariDataSource)) {
+            result.put("status", STATUS_UNKNOWN);
+            return result;
+        }
+
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            // 첫 커넥션 요청 전에는 풀이 생성되지 않음
+            result.put("status", STATUS_UNKNOWN);
+            return result;
+        }
+
+        int awaiting = pool.getThreadsAwaitingConnection();
+        result.put("status", awaiting > 0 ? STATUS_DEGRADED : STATUS_UP);
+        result.put("active", pool.getActiveConnections());
+        result.put("idle", pool.getIdleConnections());
+        result.put("total", pool.getTotalConnections());
+        result.put("max", hikari.getMaximumPoolSize());
+        result.put("awaiting", awaiting);
+        return result;
+    }
+
+    private Map<String, Object> checkLlm() {
+        LlmLatencyRecorder.Snapshot latency = llmLatencyRecorder.snapshot();
+        boolean failing = latency.getSampleCount() >= llmMinSamples
+                && latency.getErrorRate() >= llmErrorRateThreshold;
+        boolean circuitOpen = llmCircuitBreaker.getState() == LlmCircuitBreaker.State.OPEN;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        // LLM 장애 시에도 안내 문구로 응답하므로 DOWN 이 아닌 DEGRADED 로 표시
+        result.put("status", failing || circuitOpen ? STATUS_DEGRADED : STATUS_UP);
+        result.put("latency", latency.toMap());
+        result.put("circuitBreaker", llmCircuitBreaker.getStats());
+        result.put("endpoints", llmRouter.getStats());
+        result.put("scheduler", llmScheduler.getStats());
+        return result;
+    }
+
+    @SafeVarargs
+    private static String aggregate(Map<String, Object>... components) {
+        String status = STATUS_UP;
+        for (Map<String, Object> component : components) {
+            Object componentStatus = component.get("status");
+            if (STATUS_DOWN.equals(componentStatus)) {
+                return STATUS_DOWN;
+            }
+            if (STATUS_DEGRADED.equals(componentStatus)) {
+                status = STATUS_DEGRADED;
+            }
+        }
+        return status;
+    }
+
+    private static Map<String, Object> initialReadiness() {
+        Map<String, Object> initial = new LinkedHashMap<>();
+        initial.put("status", STATUS_UNKNOWN);
+        return Collections.unmodifiableMap(initial);
+    }
+}
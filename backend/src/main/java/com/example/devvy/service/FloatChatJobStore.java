@@ -0,0 +1,303 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.entity.FloatChatJobVo;
+import com.temporary22.aiagent.entity.FloatChatVo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SWP Float Chat 메시지 작업 저장소 (메모리)
+ *
+ * 작업은 접수 순서대로 보관하며, 완료 후 ttl-seconds 가 지나면 제거합니다. (진행 중인 작업은 제거하지 않음)
+ * 같은 사용자가 같은 Idempotency-Key 로 다시 접수하면 새 작업을 만들지 않고 기존 작업을 돌려줍니다.
+ * max-jobs 에 도달하면 가장 오래된 완료 작업부터 제거하고, 모두 진행 중이면 접수를 거절합니다.
+ */
+@Component
+public class FloatChatJobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatJobStore.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    @Value("${float-chat.job.max-jobs:10000}")
+    private int maxJobs;
+
+    /**
+     * 완료된 작업 보관 시간
+     */
+    @Value("${float-chat.job.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private long ttlNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, Job> jobsByIdempotencyKey = new HashMap<>();
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder deduplicatedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        log.info("메시지 작업 저장소 - 최대: {}건, 완료 후 보관: {}초", maxJobs, ttlSeconds);
+    }
+
+    /**
+     * 작업을 등록합니다. 같은 사용자의 같은 Idempotency-Key 작업이 있으면 그 작업을 반환합니다.
+     *
+     * @throws IllegalArgumentException 같은 Idempotency-Key 로 다른 질문을 접수한 경우
+     * @throws IllegalStateException 진행 중인 작업이 max-jobs 에 도달한 경우
+     */
+    public Job register(String userId, String idempotencyKey, FloatChatVo request) {
+        String dedupKey = idempotencyKey != null ? userId + KEY_SEPARATOR + idempotencyKey : null;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Job existing = findExisting(dedupKey, request, now);
+            if (existing != null) {
+                deduplicatedCount.increment();
+                return existing;
+            }
+
+            if (jobs.size() >= maxJobs) {
+                evict(now, true);
+            }
+            if (jobs.size() >= maxJobs) {
+                rejectedCount.increment();
+                throw new IllegalStateException("처리 중인 작업이 많아 접수할 수 없습니다. 잠시 후 다시 시도해주세요.");
+            }
+
+            Job job = new Job(UUID.randomUUID().toString(), userId, dedupKey, request);
+            jobs.put(job.jobId, job);
+            if (dedupKey != null) {
+                jobsByIdempotencyKey.put(dedupKey, job);
+            }
+            submittedCount.increment();
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 같은 사용자의 같은 Idempotency-Key 로 접수된 작업을 조회합니다. 없거나 만료되었으면 null 을 반환합니다.
+     *
+     * @throws IllegalArgumentException 같은 Idempotency-Key 로 다른 질문을 접수한 경우
+     */
+    public Job find(String userId, String idempotencyKey, FloatChatVo request) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return findExisting(userId + KEY_SEPARATOR + idempotencyKey, request, System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 사용자의 작업을 조회합니다. 없거나 만료되었거나 다른 사용자의 작업이면 null 을 반환합니다.
+     */
+    public Job get(String userId, String jobId) {
+        lock.lock();
+        try {
+            Job job = jobs.get(jobId);
+            if (job == null || !job.userId.equals(userId)) {
+                return null;
+            }
+            if (job.isExpired(System.nanoTime(), ttlNanos)) {
+                remove(job);
+                evictionCount.increment();
+                return null;
+            }
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 실행하지 못한 작업을 제거합니다.
+     */
+    public void discard(Job job) {
+        lock.lock();
+        try {
+            remove(job);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 보관 시간이 지난 완료 작업을 제거합니다.
+     */
+    @Scheduled(fixedDelayString = "${float-chat.job.purge-interval-ms:60000}",
+            initialDelayString = "${float-chat.job.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        lock.lock();
+        try {
+            evict(System.nanoTime(), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size;
+        int pending = 0;
+        lock.lock();
+        try {
+            size = jobs.size();
+            for (Job job : jobs.values()) {
+                if (!job.result.isDone()) {
+                    pending++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("pending", pending);
+        stats.put("maxJobs", maxJobs);
+        stats.put("submitted", submittedCount.sum());
+        stats.put("deduplicated", deduplicatedCount.sum());
+        stats.put("rejected", rejectedCount.sum());
+        stats.put("evicted", evictionCount.sum());
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 만료된 완료 작업을 제거합니다. oneCompleted 이면 만료되지 않았더라도 가장 오래된 완료 작업 하나를 추가로 제거합니다.
+     * (잠금 안에서 호출)
+     */
+    private void evict(long now, boolean oneCompleted) {
+        boolean evictedCompleted = false;
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Job job = iterator.next();
+            boolean expired = job.isExpired(now, ttlNanos);
+            if (expired || (oneCompleted && !evictedCompleted && job.result.isDone())) {
+                iterator.remove();
+                if (job.dedupKey != null) {
+                    jobsByIdempotencyKey.remove(job.dedupKey, job);
+                }
+                evictionCount.increment();
+                evictedCompleted |= !expired;
+            }
+        }
+    }
+
+    private Job findExisting(String dedupKey, FloatChatVo request, long now) {
+        Job existing = dedupKey != null ? jobsByIdempotencyKey.get(dedupKey) : null;
+        if (existing == null || existing.isExpired(now, ttlNanos)) {
+            return null;
+        }
+        if (!existing.matches(request)) {
+            throw new IllegalArgumentException("같은 Idempotency-Key 로 다른 질문을 접수할 수 없습니다.");
+        }
+        return existing;
+    }
+
+    private void remove(Job job) {
+        jobs.remove(job.jobId, job);
+        if (job.dedupKey != null) {
+            jobsByIdempotencyKey.remove(job.dedupKey, job);
+        }
+    }
+
+    /**
+     * 메시지 작업
+     */
+    public static final class Job {
+
+        private final String jobId;
+        private final String userId;
+        private final String dedupKey;
+        private final String categoryCode;
+        private final String userQuestion;
+        private final LocalDateTime createdDate = LocalDateTime.now();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<FloatChatJobVo> result = new CompletableFuture<>();
+        private volatile long completedNanos;
+
+        private Job(String jobId, String userId, String dedupKey, FloatChatVo request) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.dedupKey = dedupKey;
+            this.categoryCode = request.getCategoryCode();
+            this.userQuestion = request.getUserQuestion();
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        /**
+         * 작업 실행 권한을 얻습니다. 같은 작업으로 중복 접수된 요청 중 하나만 true 를 받습니다.
+         */
+        public boolean tryStart() {
+            return started.compareAndSet(false, true);
+        }
+
+        public void succeed(FloatChatVo response) {
+            complete(FloatChatJobVo.STATUS_SUCCEEDED, response.getConversationId(), response.getAiResponse(), null);
+        }
+
+        public void fail(String errorMessage) {
+            complete(FloatChatJobVo.STATUS_FAILED, null, null, errorMessage);
+        }
+
+        /**
+         * 완료되면 최종 상태를 전달하는 future
+         */
+        public CompletableFuture<FloatChatJobVo> getResult() {
+            return result;
+        }
+
+        /**
+         * 현재 상태 (완료 전이면 PENDING)
+         */
+        public FloatChatJobVo toVo() {
+            FloatChatJobVo completed = result.getNow(null);
+            return completed != null ? completed : new FloatChatJobVo(jobId, FloatChatJobVo.STATUS_PENDING,
+                    categoryCode, createdDate, null, null, null, null);
+        }
+
+        private void complete(String status, Long conversationId, String aiResponse, String errorMessage) {
+            FloatChatJobVo completed = new FloatChatJobVo(jobId, status, categoryCode, createdDate, LocalDateTime.now(),
+                    conversationId, aiResponse, errorMessage);
+            completedNanos = System.nanoTime();
+            result.complete(completed);
+        }
+
+        private boolean matches(FloatChatVo request) {
+            return categoryCode.equals(request.getCategoryCode()) && userQuestion.equals(request.getUserQuestion());
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return result.isDone() && now - completedNanos > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.TextEmbedder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SWP Float Chat 카테고리 지식베이스 (로컬 벡터 검색)
+ *
+ * 카테고리별 문서를 조각으로 나누어 임베딩하고, 조각 벡터와 본문을 카테고리당 하나의 파일({code}.{세대}.kb)에 저장합니다.
+ * 파일은 메모리 매핑으로 읽으므로 기동 시에는 헤더만 확인하고, 검색 시 필요한 부분만 페이지 캐시에서 읽습니다.
+ * 질문 벡터는 색인어 수만큼만 0 이 아닌 성분을 가지므로 그 성분만 내적해 전체 조각을 정확히 비교합니다.
+ *
+ * 파일 구조 (big-endian)
+ * - 헤더 32 byte: magic, version, 차원, 조각 수, 임베딩 식별자 해시
+ * - 벡터: 조각 수 x 차원 x float
+ * - 오프셋: (조각 수 + 1) x long (본문 영역 기준)
+ * - 본문: 조각별 [출처 길이(int), 출처 UTF-8, 본문 UTF-8]
+ *
+ * 문서 추가와 삭제는 다음 세대 파일을 새로 쓰고 매핑을 바꾸므로, 검색 중인 요청은 이전 매핑을 그대로 사용합니다.
+ * 매핑된 파일은 Windows 에서 교체/삭제할 수 없으므로 이전 세대 파일 삭제는 실패해도 무시하고 재기동 시 정리합니다.
+ * 삭제(clear)는 조각이 없는 세대를 남겨 이전 세대 파일이 남아 있어도 재기동 시 되살아나지 않게 합니다.
+ */
+@Component
+public class FloatChatKnowledgeBase {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatKnowledgeBase.class);
+    private static final int MAGIC = 0x46434B42; // "FCKB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final String FILE_SUFFIX = ".kb";
+
+    @Autowired
+    private TextEmbedder textEmbedder;
+
+    @Value("${float-chat.knowledge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${float-chat.knowledge.dir:./data/knowledge}")
+    private String directory;
+
+    @Value("${float-chat.knowledge.top-k:3}")
+    private int topK;
+
+    /**
+     * 프롬프트에 넣을 최소 코사인 유사도
+     */
+    @Value("${float-chat.knowledge.min-score:0.2}")
+    private double minScore;
+
+    @Value("${float-chat.knowledge.chunk-chars:600}")
+    private int chunkChars;
+
+    @Value("${float-chat.knowledge.chunk-overlap-chars:100}")
+    private int chunkOverlapChars;
+
+    private Path baseDirectory;
+    private final ConcurrentHashMap<String, Segment> segments = new ConcurrentHashMap<>();
+    /**
+     * 카테고리별 마지막 파일 세대 (writeLock 보호)
+     */
+    private final Map<String, Long> generations = new HashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final LongAdder retrievalCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder retrievalNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("지식베이스 비활성화");
+            return;
+        }
+        long start = System.nanoTime();
+        baseDirectory = Paths.get(directory).toAbsolutePath();
+        Map<String, TreeMap<Long, Path>> filesByCategory = new HashMap<>();
+        try {
+            Files.createDirectories(baseDirectory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(baseDirectory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String stem = file.getFileName().toString();
+                    stem = stem.substring(0, stem.length() - FILE_SUFFIX.length());
+                    String categoryCode = stem;
+                    long generation = 0L; // 세대 없는 이전 형식 파일명({code}.kb)
+                    int dot = stem.lastIndexOf('.');
+                    if (dot > 0) {
+                        try {
+                            generation = Long.parseLong(stem.substring(dot + 1));
+                            categoryCode = stem.substring(0, dot);
+                        } catch (NumberFormatException ignored) {
+                            // 카테고리 코드에 포함된 점
+                        }
+                    }
+                    filesByCategory.computeIfAbsent(categoryCode, key -> new TreeMap<>()).put(generation, file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("지식베이스 디렉터리 초기화 실패 - 지식베이스 비활성화: {} ({})", baseDirectory, e.getMessage());
+            enabled = false;
+            return;
+        }
+
+        for (Map.Entry<String, TreeMap<Long, Path>> entry : filesByCategory.entrySet()) {
+            String categoryCode = entry.getKey();
+            Map.Entry<Long, Path> latest = entry.getValue().lastEntry();
+            generations.put(categoryCode, latest.getKey());
+            Segment segment;
+            try {
+                segment = Segment.open(latest.getValue(), textEmbedder);
+            } catch (IOException | IllegalStateException e) {
+                log.warn("지식베이스 파일 로딩 실패 - 건너뜀: {} ({})", latest.getValue(), e.getMessage());
+                continue;
+            }
+            boolean cleaned = true;
+            for (Path older : entry.getValue().headMap(latest.getKey()).values()) {
+                cleaned &= deleteQuietly(older);
+            }
+            if (segment.count > 0) {
+                segments.put(categoryCode, segment);
+            } else if (cleaned) {
+                // 삭제된 카테고리 - 이전 세대가 모두 정리되었으므로 빈 세대도 정리
+                deleteQuietly(latest.getValue());
+            }
+        }
+        log.info("지식베이스 로딩 완료 - 경로: {}, 카테고리: {}개, 조각: {}개, 임베딩: {}, 소요: {}ms",
+                baseDirectory, segments.size(), getTotalChunkCount(), textEmbedder.getId(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 질문과 가까운 조각을 유사도 순으로 최대 top-k 개 반환합니다.
+     */
+    public List<KnowledgeChunk> retrieve(String categoryCode, String query) {
+        Segment segment = enabled ? segments.get(categoryCode) : null;
+        if (segment == null || segment.count == 0) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        try {
+            List<KnowledgeChunk> chunks = segment.search(textEmbedder.embed(query), topK, minScore);
+            if (!chunks.isEmpty()) {
+                hitCount.increment();
+            }
+            return chunks;
+        } finally {
+            retrievalCount.increment();
+            retrievalNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 질문과 관련된 조각을 프롬프트용 참고 자료 문자열로 만듭니다. 관련 조각이 없으면 빈 문자열을 반환합니다.
+     * 유사도가 높은 조각이 앞에 오므로 토큰 예산 초과 시 뒤에서부터 잘라냅니다.
+     */
+    public String buildReference(String categoryCode, String query) {
+        List<KnowledgeChunk> chunks = retrieve(categoryCode, query);
+        if (chunks.isEmpty()) {
+            return "";
+        }
+        StringBuilder reference = new StringBuilder("[참고 자료]\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            KnowledgeChunk chunk = chunks.get(i);
+            reference.append('(').append(i + 1).append(") 출처: ").append(chunk.getSource()).append('\n')
+                    .append(chunk.getText()).append('\n');
+        }
+        return reference.toString();
+    }
+
+    /**
+     * 문서를 조각으로 나누어 카테고리 지식베이스에 추가합니다.
+     *
+     * @return 추가된 조각 수
+     */
+    public int addDocument(String categoryCode, String source, String content) {
+        checkEnabled();
+        List<String> texts = split(content);
+        if (texts.isEmpty()) {
+            return 0;
+        }
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(textEmbedder.embed(text));
+        }
+
+        writeLock.lock();
+        try {
+            Segment current = segments.get(categoryCode);
+            Segment updated = Segment.open(writeGeneration(categoryCode, current, source, texts, vectors), textEmbedder);
+            segments.put(categoryCode, updated);
+            if (current != null) {
+                deleteQuietly(current.file);
+            }
+            log.info("지식베이스 문서 추가 - Category: {}, 출처: {}, 추가: {}개, 전체: {}개",
+                    categoryCode, source, texts.size(), updated.count);
+            return texts.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("지식베이스 저장 실패: " + categoryCode, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 카테고리 지식베이스를 삭제합니다.
+     *
+     * @return 삭제된 조각 수
+     */
+    public int clear(String categoryCode) {
+        checkEnabled();
+        writeLock.lock();
+        try {
+            Segment removed = segments.remove(categoryCode);
+            if (generations.containsKey(categoryCode)) {
+                Path empty = writeGeneration(categoryCode, null, "", Collections.emptyList(), Collections.emptyList());
+                if (removed == null || deleteQuietly(removed.file)) {
+                    deleteQuietly(empty);
+                }
+            }
+            int count = removed != null ? removed.count : 0;
+            log.info("지식베이스 삭제 - Category: {}, 조각: {}개", categoryCode, count);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("지식베이스 삭제 실패: " + categoryCode, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int getChunkCount(String categoryCode) {
+        Segment segment = segments.get(categoryCode);
+        return segment != null ? segment.count : 0;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("embedder", textEmbedder.getId());
+        Map<String, Object> categories = new TreeMap<>();
+        for (Map.Entry<String, Segment> entry : segments.entrySet()) {
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("chunks", entry.getValue().count);
+            category.put("bytes", entry.getValue().size);
+            categories.put(entry.getKey(), category);
+        }
+        stats.put("categories", categories);
+        long retrievals = retrievalCount.sum();
+        stats.put("retrievals", retrievals);
+        stats.put("hits", hitCount.sum());
+        stats.put("avgRetrievalMicros", retrievals == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(retrievalNanos.sum() / retrievals));
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private void checkEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("지식베이스가 비활성화되어 있습니다.");
+        }
+    }
+
+    /**
+     * 다음 세대 파일을 임시 파일에 쓴 뒤 옮깁니다. 이전 세대 파일은 호출자가 정리합니다.
+     */
+    private Path writeGeneration(String categoryCode, Segment current, String source, List<String> texts,
+                                    List<float[]> vectors) throws IOException {
+        long generation = generations.getOrDefault(categoryCode, 0L) + 1;
+        Path file = baseDirectory.resolve(categoryCode + "." + generation + FILE_SUFFIX);
+        Path tempFile = baseDirectory.resolve(file.getFileName() + ".tmp");
+        Segment.write(tempFile, current, source, texts, vectors, textEmbedder);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        generations.put(categoryCode, generation);
+        return file;
+    }
+
+    /**
+     * 매핑이 남아 있으면 Windows 에서 삭제가 실패하므로 실패는 무시하고 재기동 시 정리합니다.
+     */
+    private boolean deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException e) {
+            log.debug("지식베이스 이전 파일 삭제 보류 - 재기동 시 정리: {} ({})", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private int getTotalChunkCount() {
+        int total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.count;
+        }
+        return total;
+    }
+
+    /**
+     * 문단 단위로 묶어 chunk-chars 이하의 조각으로 나눕니다. 긴 문단은 겹치는 구간을 두고 공백에서 자릅니다.
+     */
+    List<String> split(String content) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : content.replace("\r\n", "\n").split("\n\\s*\n")) {
+            String trimmed = paragraph.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (current.length() > 0 && current.length() + trimmed.length() + 2 > chunkChars) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (trimmed.length() <= chunkChars) {
+                if (current.length() > 0) {
+                    current.append("\n\n");
+                }
+                current.append(trimmed);
+                continue;
+            }
+            int start = 0;
+            while (start < trimmed.length()) {
+                int end = Math.min(start + chunkChars, trimmed.length());
+                if (end < trimmed.length()) {
+                    int space = trimmed.lastIndexOf(' ', end);
+                    if (space > start + chunkChars / 2) {
+                        end = space;
+                    }
+                }
+                chunks.add(trimmed.substring(start, end).trim());
+                if (end >= trimmed.length()) {
+                    break;
+                }
+                start = Math.max(end - chunkOverlapChars, start + 1);
+            }
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * 검색 결과 조각
+     */
+    public static final class KnowledgeChunk {
+
+        private final String source;
+        private final String text;
+        private final float score;
+
+        KnowledgeChunk(String source, String text, float score) {
+            this.source = source;
+            this.text = text;
+            this.score = score;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * 메모리 매핑된 카테고리 지식베이스 파일 (읽기 전용, 절대 위치 조회만 사용하므로 스레드 안전)
+     */
+    private static final class Segment {
+
+        final Path file;
+        final int dimension;
+        final int count;
+        final long size;
+        final FloatBuffer vectors;
+        final ByteBuffer buffer;
+        final int offsetsPosition;
+        final int dataPosition;
+
+        private Segment(Path file, MappedByteBuffer buffer, int dimension, int count) {
+            this.file = file;
+            this.buffer = buffer;
+            this.dimension = dimension;
+            this.count = count;
+            this.size = buffer.capacity();
+            this.offsetsPosition = HEADER_BYTES + count * dimension * Float.BYTES;
+            this.dataPosition = offsetsPosition + (count + 1) * Long.BYTES;
+            ByteBuffer vectorBytes = buffer.duplicate();
+            vectorBytes.position(HEADER_BYTES).limit(offsetsPosition);
+            this.vectors = vectorBytes.slice().asFloatBuffer();
+        }
+
+        static Segment open(Path file, TextEmbedder embedder) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("파일이 너무 큽니다: " + channel.size());
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("지식베이스 파일 형식이 아닙니다.");
+            }
+            int dimension = buffer.getInt(8);
+            if (dimension != embedder.getDimension() || buffer.getInt(16) != embedder.getId().hashCode()) {
+                throw new IllegalStateException("임베딩 방식이 다릅니다. 문서를 다시 적재해야 합니다.");
+            }
+            return new Segment(file, buffer, dimension, buffer.getInt(12));
+        }
+
+        /**
+         * 기존 조각(current)과 새 조각을 합쳐 새 파일을 씁니다.
+         */
+        static void write(Path file, Segment current, String source, List<String> texts, List<float[]> vectors,
+                          TextEmbedder embedder) throws IOException {
+            int existing = current != null ? current.count : 0;
+            int dimension = embedder.getDimension();
+            byte[] sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+            List<byte[]> textBytes = new ArrayList<>(texts.size());
+            for (String text : texts) {
+                textBytes.add(text.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (OutputStream stream = Files.newOutputStream(file);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dimension);
+                out.writeInt(existing + texts.size());
+                out.writeInt(embedder.getId().hashCode());
+                out.write(new byte[HEADER_BYTES - 20]);
+
+                // 기존 벡터/오프셋/본문은 형식이 같으므로 그대로 복사
+                if (existing > 0) {
+                    current.copy(HEADER_BYTES, current.offsetsPosition, out);
+                }
+                for (float[] vector : vectors) {
+                    for (float value : vector) {
+                        out.writeFloat(value);
+                    }
+                }
+
+                long offset = 0L;
+                if (existing > 0) {
+                    current.copy(current.offsetsPosition, current.dataPosition, out);
+                    offset = current.offset(existing);
+                } else {
+                    out.writeLong(offset);
+                }
+                for (byte[] text : textBytes) {
+                    offset += Integer.BYTES + sourceBytes.length + text.length;
+                    out.writeLong(offset);
+                }
+
+                if (existing > 0) {
+                    current.copy(current.dataPosition, current.dataPosition + (int) current.offset(existing), out);
+                }
+                for (byte[] text : textBytes) {
+                    out.writeInt(sourceBytes.length);
+                    out.write(sourceBytes);
+                    out.write(text);
+                }
+            }
+        }
+
+        List<KnowledgeChunk> search(float[] query, int topK, double minScore) {
+            // 질문 벡터의 0 이 아닌 성분만 비교
+            int nonZero = 0;
+            int[] indexes = new int[dimension];
+            for (int i = 0; i < dimension; i++) {
+                if (query[i] != 0f) {
+                    indexes[nonZero++] = i;
+                }
+            }
+            if (nonZero == 0) {
+                return Collections.emptyList();
+            }
+
+            int[] topIds = new int[topK];
+            float[] topScores = new float[topK];
+            int size = 0;
+            for (int id = 0; id < count; id++) {
+                int base = id * dimension;
+                float score = 0f;
+                for (int j = 0; j < nonZero; j++) {
+                    int index = indexes[j];
+                    score += query[index] * vectors.get(base + index);
+                }
+                if (score < minScore || (size == topK && score <= topScores[size - 1])) {
+                    continue;
+                }
+                // 점수 내림차순 삽입
+                int position = size < topK ? size++ : size - 1;
+                while (position > 0 && topScores[position - 1] < score) {
+                    topScores[position] = topScores[position - 1];
+                    topIds[position] = topIds[position - 1];
+                    position--;
+                }
+                topScores[position] = score;
+                topIds[position] = id;
+            }
+
+            List<KnowledgeChunk> chunks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                chunks.add(read(topIds[i], topScores[i]));
+            }
+            return chunks;
+        }
+
+        void copy(int from, int to, OutputStream out) throws IOException {
+            ByteBuffer region = buffer.duplicate();
+            region.position(from).limit(to);
+            byte[] block = new byte[64 * 1024];
+            while (region.hasRemaining()) {
+                int length = Math.min(block.length, region.remaining());
+                region.get(block, 0, length);
+                out.write(block, 0, length);
+            }
+        }
+
+        long offset(int id) {
+            return buffer.getLong(offsetsPosition + id * Long.BYTES);
+        }
+
+        private KnowledgeChunk read(int id, float score) {
+            int start = dataPosition + (int) offset(id);
+            int end = dataPosition + (int) offset(id + 1);
+            int sourceLength = buffer.getInt(start);
+            byte[] sourceBytes = new byte[sourceLength];
+            byte[] textBytes = new byte[end - start - Integer.BYTES - sourceLength];
+            ByteBuffer record = buffer.duplicate();
+            record.position(start + Integer.BYTES);
+            record.get(sourceBytes).get(textBytes);
+            return new KnowledgeChunk(new String(sourceBytes, StandardCharsets.UTF_8),
+                    new String(textBytes, StandardCharsets.UTF_8), score);
+        }
+    }
+}
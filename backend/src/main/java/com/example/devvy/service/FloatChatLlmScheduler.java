@@ -0,0 +1,411 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmDeadline;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * SWP Float Chat LLM 호출 스케줄러 (가중 공정 큐)
+ *
+ * 동시에 진행하는 LLM 호출을 max-concurrency 로 제한하고, 빈 자리가 생기면 대기 중인 호출을 다음 순서로 시작합니다.
+ * - 카테고리 간: 가중치(category-weights)에 비례해 차례를 나누는 stride 스케줄링
+ *   (가중치 4 인 카테고리는 1 인 카테고리보다 4배 자주 차례를 받음)
+ * - 같은 카테고리 안의 사용자 간: 대기 중인 사용자를 한 건씩 돌아가며 시작 (한 사용자가 몰아 보내도 다른 사용자는 밀리지 않음)
+ * 사용자별/전체 대기 건수 상한을 넘으면 바로 거절하고, 대기 중 기한이 지나거나 취소된 호출은 큐에서 제거합니다.
+ * 대기 시간은 float_chat.pipeline.stage{stage=queue} 로 기록합니다.
+ * 호출 측은 반환된 future 에 이어서 처리하고 기다리며 스레드를 점유하지 않으므로, 동시 LLM 호출 수는 실행기 크기가 아니라 이 스케줄러가 정합니다.
+ */
+@Component
+public class FloatChatLlmScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatLlmScheduler.class);
+    private static final String UNKNOWN_USER = "";
+
+    @Autowired
+    private FloatChatMetrics metrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${float-chat.scheduler.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 동시에 진행할 수 있는 LLM 호출 수
+     */
+    @Value("${float-chat.scheduler.max-concurrency:32}")
+    private int maxConcurrency;
+
+    @Value("${float-chat.scheduler.max-queue-size:500}")
+    private int maxQueueSize;
+
+    @Value("${float-chat.scheduler.max-queued-per-user:10}")
+    private int maxQueuedPerUser;
+
+    /**
+     * 카테고리별 가중치 (예: swdp_menu:4,voc:1). 지정하지 않은 카테고리는 default-weight
+     */
+    @Value("${float-chat.scheduler.category-weights:}")
+    private String categoryWeights;
+
+    @Value("${float-chat.scheduler.default-weight:2}")
+    private int defaultWeight;
+
+    private Map<String, Integer> weightByCategory = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CategoryQueue> categories = new HashMap<>();
+    private int active;
+    private int queued;
+    private double globalPass;
+
+    private final LongAdder startedCount = new LongAdder();
+    private final LongAdder queuedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : categoryWeights.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                weights.put(entry.substring(0, separator).trim(),
+                        Math.max(1, Integer.parseInt(entry.substring(separator + 1).trim())));
+            }
+        }
+        weightByCategory = weights;
+
+        Gauge.builder("float_chat.scheduler.active", this, s -> s.getActive())
+                .description("진행 중인 LLM 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("float_chat.scheduler.queued", this, s -> s.getQueued())
+                .description("차례를 기다리는 LLM 호출 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.scheduler.rejected", rejectedCount, LongAdder::sum)
+                .description("대기열 초과로 거절한 LLM 호출 수")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("LLM 호출 스케줄러 - 동시 호출: {}, 대기열: {} (사용자별 {}), 카테고리 가중치: {} (기본 {})",
+                    maxConcurrency, maxQueueSize, maxQueuedPerUser, weightByCategory, defaultWeight);
+        }
+    }
+
+    /**
+     * 차례가 되면 call 을 실행하고 그 결과를 전달하는 future 를 반환합니다.
+     * 대기열이 가득 차면 RejectedExecutionException, 대기 중 기한이 지나면 TimeoutException,
+     * 대기 중 기한이 취소되면 CancellationException 으로 완료됩니다.
+     */
+    public <T> CompletableFuture<T> submit(String userId, String categoryCode, LlmDeadline deadline,
+                                           Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Ticket<T> ticket = new Ticket<>(userId != null ? userId : UNKNOWN_USER, categoryCode, call);
+
+        boolean startNow = false;
+        lock.lock();
+        try {
+            if (active < maxConcurrency && queued == 0) {
+                active++;
+                ticket.started = true;
+                startNow = true;
+            } else if (!enqueue(ticket)) {
+                rejectedCount.increment();
+                metrics.recordStage(FloatChatMetrics.STAGE_QUEUE, categoryCode, FloatChatMetrics.OUTCOME_REJECTED,
+                        ticket.enqueuedNanos);
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("LLM 호출 대기열 초과 - Category: " + categoryCode));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (startNow) {
+            dispatch(Collections.singletonList(ticket));
+            return ticket.result;
+        }
+
+        // 대기 중 기한 만료/취소 시 큐에서 제거 (시작한 뒤에는 LlmClient 가 기한을 처리)
+        queuedCount.increment();
+        if (deadline.hasDeadline()) {
+            CompletableFuture.delayedExecutor(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> abandon(ticket, new TimeoutException("LLM 호출 대기 시간 초과"),
+                            FloatChatMetrics.OUTCOME_EXPIRED));
+        }
+        deadline.onCancel(() -> abandon(ticket, new CancellationException("LLM 호출 대기 중 취소"),
+                FloatChatMetrics.OUTCOME_CANCELLED));
+        return ticket.result;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> queuedByCategory = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("active", active);
+            stats.put("queued", queued);
+            for (Map.Entry<String, CategoryQueue> entry : categories.entrySet()) {
+                if (entry.getValue().size > 0) {
+                    queuedByCategory.put(entry.getKey(), entry.getValue().size);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        stats.put("queuedByCategory", queuedByCategory);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("started", startedCount.sum());
+        stats.put("waited", queuedCount.sum());
+        stats.put("rejected", rejectedCount.sum());
+        stats.put("expired", expiredCount.sum());
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 대기열에 넣습니다. 상한을 넘으면 false (잠금 안에서 호출)
+     */
+    private boolean enqueue(Ticket<?> ticket) {
+        if (queued >= maxQueueSize) {
+            return false;
+        }
+        String categoryKey = ticket.categoryCode != null ? ticket.categoryCode : "";
+        CategoryQueue category = categories.get(categoryKey);
+        if (category == null) {
+            Integer weight = weightByCategory.get(categoryKey);
+            category = new CategoryQueue(weight != null ? weight : Math.max(1, defaultWeight));
+            categories.put(categoryKey, category);
+        }
+        ArrayDeque<Ticket<?>> userQueue = category.users.get(ticket.userId);
+        if (userQueue != null && userQueue.size() >= maxQueuedPerUser) {
+            return false;
+        }
+        if (userQueue == null) {
+            userQueue = new ArrayDeque<>();
+            category.users.put(ticket.userId, userQueue);
+            category.turns.addLast(ticket.userId);
+        }
+        if (category.size == 0) {
+            // 쉬고 있던 카테고리가 밀린 차례를 몰아 받지 않도록 현재 시점부터 시작
+            category.pass = Math.max(category.pass, globalPass);
+        }
+        userQueue.addLast(ticket);
+        category.size++;
+        queued++;
+        return true;
+    }
+
+    /**
+     * 빈 자리만큼 대기 중인 호출을 꺼냅니다. (잠금 안에서 호출, 시작은 잠금 밖에서)
+     */
+    private List<Ticket<?>> dequeueRunnable() {
+        List<Ticket<?>> runnable = null;
+        while (active < maxConcurrency && queued > 0) {
+            CategoryQueue next = null;
+            for (CategoryQueue category : categories.values()) {
+                if (category.size > 0 && (next == null || category.pass < next.pass)) {
+                    next = category;
+                }
+            }
+            Ticket<?> ticket = next.pollNextUser();
+            next.pass += 1.0 / next.weight;
+            globalPass = next.pass;
+            queued--;
+            active++;
+            ticket.started = true;
+            if (runnable == null) {
+                runnable = new ArrayList<>();
+            }
+            runnable.add(ticket);
+        }
+        return runnable;
+    }
+
+    /**
+     * 호출들을 차례로 시작합니다. 바로 끝난 호출(회로 차단, 기한 초과 등)의 빈 자리는 재귀 없이 이 반복에서 다음 호출로 채우므로
+     * 대기열이 길어도 스택이 깊어지지 않습니다.
+     */
+    private void dispatch(List<Ticket<?>> runnable) {
+        ArrayDeque<Ticket<?>> pending = new ArrayDeque<>(runnable);
+        while (!pending.isEmpty()) {
+            if (!start(pending.poll())) {
+                continue;
+            }
+            List<Ticket<?>> next = releaseSlot();
+            if (next != null) {
+                pending.addAll(next);
+            }
+        }
+    }
+
+    /**
+     * 호출을 시작합니다. 호출이 이미 끝났으면 결과를 전달하고 true 를 반환하며, 빈 자리는 호출 측에서 채웁니다.
+     * 끝나지 않았으면 완료 시 결과를 전달한 뒤 빈 자리를 채웁니다.
+     */
+    private <T> boolean start(Ticket<T> ticket) {
+        startedCount.increment();
+        metrics.recordStage(FloatChatMetrics.STAGE_QUEUE, ticket.categoryCode, FloatChatMetrics.OUTCOME_SUCCESS,
+                ticket.enqueuedNanos);
+        CompletableFuture<T> call = invoke(ticket.call);
+        // 호출 측이 결과를 취소하면 진행 중인 호출도 취소
+        ticket.result.whenComplete((value, error) -> call.cancel(true));
+        if (call.isDone()) {
+            complete(ticket, call);
+            return true;
+        }
+        call.whenComplete((value, error) -> {
+            complete(ticket, call);
+            List<Ticket<?>> next = releaseSlot();
+            if (next != null) {
+                dispatch(next);
+            }
+        });
+        return false;
+    }
+
+    /**
+     * 호출 결과를 ticket 에 전달합니다. (자리를 돌려주기 전에 완료)
+     */
+    private static <T> void complete(Ticket<T> ticket, CompletableFuture<T> call) {
+        try {
+            ticket.result.complete(call.join());
+        } catch (CompletionException e) {
+            ticket.result.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+        } catch (CancellationException e) {
+            ticket.result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> invoke(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 자리 하나를 돌려주고, 그 자리에서 시작할 대기 호출을 꺼냅니다.
+     */
+    private List<Ticket<?>> releaseSlot() {
+        lock.lock();
+        try {
+            active--;
+            return dequeueRunnable();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 아직 시작하지 않은 호출을 큐에서 빼고 실패로 완료합니다.
+     */
+    private void abandon(Ticket<?> ticket, Exception reason, String outcome) {
+        lock.lock();
+        try {
+            if (ticket.started || ticket.result.isDone()) {
+                return;
+            }
+            CategoryQueue category = categories.get(ticket.categoryCode != null ? ticket.categoryCode : "");
+            category.remove(ticket);
+            queued--;
+        } finally {
+            lock.unlock();
+        }
+        expiredCount.increment();
+        metrics.recordStage(FloatChatMetrics.STAGE_QUEUE, ticket.categoryCode, outcome, ticket.enqueuedNanos);
+        ticket.result.completeExceptionally(reason);
+    }
+
+    /**
+     * 카테고리별 대기열 (사용자별 큐 + 사용자 차례 순서)
+     */
+    private static final class CategoryQueue {
+
+        private final int weight;
+        private final Map<String, ArrayDeque<Ticket<?>>> users = new HashMap<>();
+        private final ArrayDeque<String> turns = new ArrayDeque<>();
+        private double pass;
+        private int size;
+
+        private CategoryQueue(int weight) {
+            this.weight = weight;
+        }
+
+        /**
+         * 차례가 된 사용자의 가장 오래된 호출을 꺼내고, 남은 호출이 있으면 그 사용자를 맨 뒤로 보냅니다.
+         */
+        private Ticket<?> pollNextUser() {
+            String userId = turns.pollFirst();
+            ArrayDeque<Ticket<?>> userQueue = users.get(userId);
+            Ticket<?> ticket = userQueue.pollFirst();
+            if (userQueue.isEmpty()) {
+                users.remove(userId);
+            } else {
+                turns.addLast(userId);
+            }
+            size--;
+            return ticket;
+        }
+
+        private void remove(Ticket<?> ticket) {
+            ArrayDeque<Ticket<?>> userQueue = users.get(ticket.userId);
+            userQueue.remove(ticket);
+            if (userQueue.isEmpty()) {
+                users.remove(ticket.userId);
+                turns.remove(ticket.userId);
+            }
+            size--;
+        }
+    }
+
+    private static final class Ticket<T> {
+
+        private final String userId;
+        private final String categoryCode;
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedNanos = System.nanoTime();
+        private boolean started;
+
+        private Ticket(String userId, String categoryCode, Supplier<CompletableFuture<T>> call) {
+            this.userId = userId;
+            this.categoryCode = categoryCode;
+            this.call = call;
+        }
+    }
+}
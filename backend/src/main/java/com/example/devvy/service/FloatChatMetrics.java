@@ -0,0 +1,180 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SWP Float Chat 메시지 처리 단계별 지표
+ *
+ * float_chat.pipeline.stage 타이머에 stage / category / outcome 태그로 단계별 소요 시간을 기록합니다.
+ * 태그 조합별 Timer/Counter 는 최초 한 번만 등록하고 이후에는 맵 조회만 수행합니다.
+ * 등록되지 않은 카테고리 코드는 태그 폭증을 막기 위해 unknown 으로 기록합니다.
+ */
+@Component
+public class FloatChatMetrics {
+
+    // === 단계 ===
+    public static final String STAGE_VALIDATE = "validate";
+    public static final String STAGE_QUEUE = "queue";
+    public static final String STAGE_PROMPT = "prompt";
+    public static final String STAGE_CONTEXT = "context";
+    public static final String STAGE_RETRIEVE = "retrieve";
+    public static final String STAGE_LLM = "llm";
+    public static final String STAGE_SAVE = "save";
+    public static final String STAGE_TOTAL = "total";
+
+    // === 결과 ===
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FALLBACK = "fallback";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_CANCELLED = "cancelled";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_EXPIRED = "expired";
+
+    private static final String UNKNOWN_CATEGORY = "unknown";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FloatChatCategoryCache categoryCache;
+
+    /**
+     * Prometheus 히스토그램 버킷 노출 여부 (histogram_quantile 집계용)
+     */
+    @Value("${float-chat.metrics.histogram:true}")
+    private boolean histogram;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> promptTokens = new ConcurrentHashMap<>();
+
+    /**
+     * 단계 소요 시간을 기록합니다.
+     */
+    public void recordStage(String stage, String categoryCode, String outcome, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        String category = categoryTag(categoryCode);
+        String key = stage + '|' + category + '|' + outcome;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> registerTimer(stage, category, outcome));
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * LLM 호출 실패 횟수
+     */
+    public void incrementLlmError(String categoryCode) {
+        counter("float_chat.llm.errors", categoryCode, "LLM 호출 실패 횟수").increment();
+    }
+
+    /**
+     * 기본 안내 문구(일시적인 오류)로 응답한 횟수
+     */
+    public void incrementFallback(String categoryCode) {
+        counter("float_chat.fallback.responses", categoryCode, "기본 안내 문구로 대체한 응답 수").increment();
+    }
+
+    /**
+     * 비동기 메시지 응답 타임아웃 횟수
+     */
+    public void incrementAsyncTimeout(String categoryCode) {
+        counter("float_chat.async.timeouts", categoryCode, "비동기 메시지 응답 타임아웃 횟수").increment();
+    }
+
+    /**
+     * 요청별 추정 입력 토큰 수 (시스템 + 사용자 프롬프트)
+     */
+    public void recordPromptTokens(String categoryCode, int tokens) {
+        String category = categoryTag(categoryCode);
+        DistributionSummary summary = promptTokens.get(category);
+        if (summary == null) {
+            summary = promptTokens.computeIfAbsent(category, k -> DistributionSummary.builder("float_chat.prompt.tokens")
+                    .description("요청별 추정 입력 토큰 수")
+                    .baseUnit("tokens")
+                    .tag("category", category)
+                    .register(meterRegistry));
+        }
+        summary.record(tokens);
+    }
+
+    /**
+     * 토큰 예산 초과로 프롬프트를 잘라낸 횟수 (part: context / system / question)
+     */
+    public void incrementPromptTruncated(String categoryCode, String part) {
+        String category = categoryTag(categoryCode);
+        String key = "float_chat.prompt.truncated|" + category + '|' + part;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> Counter.builder("float_chat.prompt.truncated")
+                    .description("토큰 예산 초과로 프롬프트를 잘라낸 횟수")
+                    .tag("category", category)
+                    .tag("part", part)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    /**
+     * 사용자별 요청 한도 초과로 거절한 횟수 (scope: endpoint / category)
+     */
+    public void incrementRateLimited(String endpoint, String categoryCode, String scope) {
+        String category = categoryTag(categoryCode);
+        String key = "float_chat.rate_limit.rejected|" + endpoint + '|' + category + '|' + scope;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> Counter.builder("float_chat.rate_limit.rejected")
+                    .description("사용자별 요청 한도 초과로 거절한 요청 수")
+                    .tag("endpoint", endpoint)
+                    .tag("category", category)
+                    .tag("scope", scope)
+                    .register(meterRegistry));
+        }
+        counter.increment();
+    }
+
+    // === Private 메서드들 ===
+
+    private String categoryTag(String categoryCode) {
+        return categoryCode != null && categoryCache.contains(categoryCode) ? categoryCode : UNKNOWN_CATEGORY;
+    }
+
+    private Counter counter(String name, String categoryCode, String description) {
+        String category = categoryTag(categoryCode);
+        String key = name + '|' + category;
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> Counter.builder(name)
+                    .description(description)
+                    .tag("category", category)
+                    .register(meterRegistry));
+        }
+        return counter;
+    }
+
+    private Timer registerTimer(String stage, String category, String outcome) {
+        Timer.Builder builder = Timer.builder("float_chat.pipeline.stage")
+                .description("메시지 처리 단계별 소요 시간")
+                .tag("stage", stage)
+                .tag("category", category)
+                .tag("outcome", outcome);
+        if (histogram) {
+            builder.publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(2));
+        }
+        return builder.register(meterRegistry);
+    }
+}
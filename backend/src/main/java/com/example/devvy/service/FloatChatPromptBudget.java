@@ -0,0 +1,210 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SWP Float Chat 프롬프트 토큰 예산
+ *
+ * 카테고리별 입력 토큰 예산을 넘으면 다음 순서로 잘라 예산에 맞춥니다. (항상 같은 입력이면 같은 결과)
+ * 1. 이전 대화 문맥 - 오래된 앞부분부터 제거, 남는 예산이 작으면 문맥 전체 제외
+ * 2. 지식베이스 참고 자료 - 유사도가 낮은 뒷부분부터 제거, 남는 예산이 작으면 전체 제외
+ * 3. 시스템 프롬프트 - 뒷부분부터 제거
+ * 4. 사용자 질문 - 뒷부분부터 제거
+ */
+@Component
+public class FloatChatPromptBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatPromptBudget.class);
+    private static final String TRUNCATED_MARK = "…";
+
+    @Autowired
+    private TokenEstimator tokenEstimator;
+
+    @Autowired
+    private FloatChatMetrics metrics;
+
+    @Value("${float-chat.prompt-budget.max-tokens:4000}")
+    private int defaultMaxTokens;
+
+    /**
+     * 카테고리별 예산 (예: swdp_api:6000,voc:3000)
+     */
+    @Value("${float-chat.prompt-budget.categories:}")
+    private String categoryBudgets;
+
+    /**
+     * 문맥/참고 자료에 남길 최소 토큰 (이보다 적게 남으면 통째로 제외)
+     */
+    @Value("${float-chat.prompt-budget.min-context-tokens:100}")
+    private int minContextTokens;
+
+    private Map<String, Integer> maxTokensByCategory = Collections.emptyMap();
+    private int userPromptOverhead;
+    private int contextOverhead;
+    private int knowledgeOverhead;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : categoryBudgets.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+        maxTokensByCategory = Collections.unmodifiableMap(budgets);
+
+        // 사용자 프롬프트 템플릿 고정 문구의 토큰 수
+        userPromptOverhead = tokenEstimator.estimate(FloatChatService.buildUserPrompt(""));
+        contextOverhead = tokenEstimator.estimate(FloatChatService.buildUserPrompt("", " ")) - userPromptOverhead;
+        knowledgeOverhead = tokenEstimator.estimate(FloatChatService.buildUserPrompt("", "", " ")) - userPromptOverhead;
+        log.info("프롬프트 토큰 예산 - 기본: {}, 카테고리별: {}, 추정 기준: {}",
+                defaultMaxTokens, maxTokensByCategory, tokenEstimator.getName());
+    }
+
+    public int getMaxTokens(String categoryCode) {
+        Integer maxTokens = maxTokensByCategory.get(categoryCode);
+        return maxTokens != null ? maxTokens : defaultMaxTokens;
+    }
+
+    /**
+     * 시스템 프롬프트, 이전 대화 문맥, 지식베이스 참고 자료, 질문을 카테고리 예산에 맞춥니다.
+     */
+    public FittedPrompt fit(String categoryCode, String systemPrompt, String conversationContext,
+                            String knowledge, String userQuestion) {
+        int budget = getMaxTokens(categoryCode);
+        int systemTokens = tokenEstimator.estimate(systemPrompt);
+        int questionTokens = tokenEstimator.estimate(userQuestion);
+        int contextTokens = conversationContext.isEmpty() ? 0 : tokenEstimator.estimate(conversationContext) + contextOverhead;
+        int knowledgeTokens = knowledge.isEmpty() ? 0 : tokenEstimator.estimate(knowledge) + knowledgeOverhead;
+
+        int required = systemTokens + userPromptOverhead + questionTokens;
+        if (required + contextTokens + knowledgeTokens <= budget) {
+            return new FittedPrompt(systemPrompt, conversationContext, knowledge, userQuestion,
+                    required + contextTokens + knowledgeTokens, false);
+        }
+
+        // 1. 문맥 (최근 대화가 뒤에 있으므로 앞부분을 제거)
+        String fittedContext = "";
+        int remaining = budget - required - knowledgeTokens - contextOverhead;
+        if (!conversationContext.isEmpty() && remaining >= minContextTokens) {
+            fittedContext = TRUNCATED_MARK + conversationContext.substring(
+                    tokenEstimator.fitSuffix(conversationContext, remaining - 1));
+            contextTokens = tokenEstimator.estimate(fittedContext) + contextOverhead;
+        } else {
+            contextTokens = 0;
+        }
+        if (!conversationContext.isEmpty()) {
+            metrics.incrementPromptTruncated(categoryCode, "context");
+        }
+        if (required + knowledgeTokens <= budget) {
+            return new FittedPrompt(systemPrompt, fittedContext, knowledge, userQuestion,
+                    required + contextTokens + knowledgeTokens, true);
+        }
+
+        // 2. 참고 자료 (유사도가 높은 조각이 앞에 있으므로 뒷부분을 제거)
+        String fittedKnowledge = "";
+        remaining = budget - required - knowledgeOverhead;
+        if (!knowledge.isEmpty() && remaining >= minContextTokens) {
+            fittedKnowledge = truncateTail(knowledge, remaining);
+            knowledgeTokens = tokenEstimator.estimate(fittedKnowledge) + knowledgeOverhead;
+        } else {
+            knowledgeTokens = 0;
+        }
+        if (!knowledge.isEmpty()) {
+            metrics.incrementPromptTruncated(categoryCode, "knowledge");
+        }
+        if (required <= budget) {
+            return new FittedPrompt(systemPrompt, "", fittedKnowledge, userQuestion, required + knowledgeTokens, true);
+        }
+
+        // 3. 시스템 프롬프트
+        String fittedSystemPrompt = systemPrompt;
+        int systemBudget = budget - userPromptOverhead - questionTokens;
+        if (systemBudget < systemTokens) {
+            fittedSystemPrompt = truncateTail(systemPrompt, systemBudget);
+            systemTokens = tokenEstimator.estimate(fittedSystemPrompt);
+            metrics.incrementPromptTruncated(categoryCode, "system");
+        }
+
+        // 4. 질문
+        String fittedQuestion = userQuestion;
+        int questionBudget = budget - userPromptOverhead - systemTokens;
+        if (questionBudget < questionTokens) {
+            fittedQuestion = truncateTail(userQuestion, questionBudget);
+            questionTokens = tokenEstimator.estimate(fittedQuestion);
+            metrics.incrementPromptTruncated(categoryCode, "question");
+        }
+
+        log.info("프롬프트 토큰 예산 초과로 잘라냄 - Category: {}, 예산: {}, 결과: {}",
+                categoryCode, budget, systemTokens + userPromptOverhead + questionTokens);
+        return new FittedPrompt(fittedSystemPrompt, "", "", fittedQuestion,
+                systemTokens + userPromptOverhead + questionTokens, true);
+    }
+
+    // === Private 메서드들 ===
+
+    private String truncateTail(String text, int maxTokens) {
+        if (maxTokens <= 1) {
+            return "";
+        }
+        return text.substring(0, tokenEstimator.fitPrefix(text, maxTokens - 1)) + TRUNCATED_MARK;
+    }
+
+    /**
+     * 예산에 맞춘 프롬프트 구성 요소
+     */
+    public static final class FittedPrompt {
+
+        private final String systemPrompt;
+        private final String conversationContext;
+        private final String knowledge;
+        private final String userQuestion;
+        private final int estimatedTokens;
+        private final boolean truncated;
+
+        FittedPrompt(String systemPrompt, String conversationContext, String knowledge, String userQuestion,
+                     int estimatedTokens, boolean truncated) {
+            this.systemPrompt = systemPrompt;
+            this.conversationContext = conversationContext;
+            this.knowledge = knowledge;
+            this.userQuestion = userQuestion;
+            this.estimatedTokens = estimatedTokens;
+            this.truncated = truncated;
+        }
+
+        public String getSystemPrompt() {
+            return systemPrompt;
+        }
+
+        public String getConversationContext() {
+            return conversationContext;
+        }
+
+        public String getKnowledge() {
+            return knowledge;
+        }
+
+        public String getUserQuestion() {
+            return userQuestion;
+        }
+
+        public int getEstimatedTokens() {
+            return estimatedTokens;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SWP Float Chat 사용자별 요청 한도 (토큰 버킷)
+ *
+ * 사용자마다 엔드포인트별 버킷과, 한도가 설정된 카테고리별 버킷을 둡니다. (예: message=30/60 → 60초에 30건, 최대 30건 연속 허용)
+ * 버킷 상태는 "버킷이 다시 가득 차는 시각" 하나(GCRA)로 표현해 AtomicLong CAS 한 번으로 갱신하므로 잠금이 없습니다.
+ * 가득 찬 버킷은 새로 만든 버킷과 같으므로 purge-interval-ms 마다 제거합니다. (사용자 수가 많아도 메모리는 최근 요청한 사용자만큼)
+ * 사용자 식별(Spring Security 연동) 전에는 모든 요청이 같은 사용자로 집계되어 전체 한도가 되므로 기본값은 비활성입니다.
+ */
+@Component
+public class FloatChatRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatRateLimiter.class);
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    // === 엔드포인트 ===
+    /** /message, /message/async, /message/stream, /message/jobs, /message/batch (배치는 항목 수만큼 차감) */
+    public static final String ENDPOINT_MESSAGE = "message";
+    public static final String ENDPOINT_FEEDBACK = "feedback";
+
+    // === 한도 범위 ===
+    public static final String SCOPE_ENDPOINT = "endpoint";
+    public static final String SCOPE_CATEGORY = "category";
+
+    @Autowired
+    private FloatChatMetrics metrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${float-chat.rate-limit.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 엔드포인트별 사용자 한도 (엔드포인트=건수/초)
+     */
+    @Value("${float-chat.rate-limit.endpoints:message=30/60,feedback=60/60}")
+    private String endpointLimits;
+
+    /**
+     * 카테고리별 사용자 한도 (카테고리=건수/초, 메시지 엔드포인트에 적용)
+     */
+    @Value("${float-chat.rate-limit.categories:}")
+    private String categoryLimits;
+
+    private Map<String, Limit> limitByEndpoint = Collections.emptyMap();
+    private Map<String, Limit> limitByCategory = Collections.emptyMap();
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        limitByEndpoint = parseLimits(endpointLimits);
+        limitByCategory = parseLimits(categoryLimits);
+        Gauge.builder("float_chat.rate_limit.buckets", buckets, Map::size)
+                .description("사용 중인 요청 한도 버킷 수")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("사용자별 요청 한도 - 엔드포인트: {}, 카테고리: {}", limitByEndpoint, limitByCategory);
+        }
+    }
+
+    /**
+     * 요청 permits 건을 차감합니다. 카테고리 한도와 엔드포인트 한도를 모두 통과해야 허용합니다.
+     * 한 번에 버킷 크기보다 많이 요청하면 버킷 크기만큼만 차감합니다. (큰 배치가 영원히 거절되지 않도록)
+     *
+     * @return 허용되면 null, 거절되면 거절 정보
+     */
+    public Rejection tryAcquire(String endpoint, String userId, String categoryCode, int permits) {
+        return tryAcquire(endpoint, userId, Collections.singletonMap(categoryCode, permits));
+    }
+
+    /**
+     * 카테고리별 요청 건수를 한 번에 차감합니다. (배치 요청)
+     * 카테고리 한도를 모두 통과하고 엔드포인트 한도를 전체 건수로 통과해야 허용하며,
+     * 하나라도 거절되면 앞서 차감한 버킷을 모두 되돌립니다.
+     *
+     * @return 허용되면 null, 거절되면 거절 정보
+     */
+    public Rejection tryAcquire(String endpoint, String userId, Map<String, Integer> permitsByCategory) {
+        if (!enabled) {
+            return null;
+        }
+        String user = userId != null ? userId : "";
+        long now = System.nanoTime();
+        List<AtomicLong> acquiredBuckets = new ArrayList<>();
+        List<Long> acquiredCosts = new ArrayList<>();
+
+        int totalPermits = 0;
+        for (Map.Entry<String, Integer> entry : permitsByCategory.entrySet()) {
+            String categoryCode = entry.getKey();
+            totalPermits += entry.getValue();
+            Limit categoryLimit = ENDPOINT_MESSAGE.equals(endpoint) && categoryCode != null
+                    ? limitByCategory.get(categoryCode) : null;
+            if (categoryLimit == null) {
+                continue;
+            }
+            AtomicLong categoryBucket = bucket(SCOPE_CATEGORY + KEY_SEPARATOR + categoryCode + KEY_SEPARATOR + user, now);
+            long categoryCost = categoryLimit.cost(entry.getValue());
+            long waitNanos = categoryLimit.acquire(categoryBucket, categoryCost, now);
+            if (waitNanos > 0) {
+                refund(acquiredBuckets, acquiredCosts);
+                return reject(endpoint, categoryCode, SCOPE_CATEGORY, categoryLimit, waitNanos);
+            }
+            acquiredBuckets.add(categoryBucket);
+            acquiredCosts.add(categoryCost);
+        }
+
+        Limit endpointLimit = limitByEndpoint.get(endpoint);
+        if (endpointLimit != null) {
+            AtomicLong endpointBucket = bucket(SCOPE_ENDPOINT + KEY_SEPARATOR + endpoint + KEY_SEPARATOR + user, now);
+            long waitNanos = endpointLimit.acquire(endpointBucket, endpointLimit.cost(totalPermits), now);
+            if (waitNanos > 0) {
+                // 엔드포인트 한도에 막힌 요청은 카테고리 한도에서도 차감하지 않음
+                refund(acquiredBuckets, acquiredCosts);
+                String categoryCode = permitsByCategory.size() == 1 ? permitsByCategory.keySet().iterator().next() : null;
+                return reject(endpoint, categoryCode, SCOPE_ENDPOINT, endpointLimit, waitNanos);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 다시 가득 찬(한동안 요청이 없던) 버킷을 제거합니다.
+     * 제거와 동시에 들어온 요청은 새 버킷으로 한 번 더 허용될 수 있습니다.
+     */
+    @Scheduled(fixedDelayString = "${float-chat.rate-limit.purge-interval-ms:60000}",
+            initialDelayString = "${float-chat.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        log.debug("요청 한도 버킷 정리 - {}개 → {}개", before, buckets.size());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("buckets", buckets.size());
+        stats.put("endpoints", limitByEndpoint.toString());
+        stats.put("categories", limitByCategory.toString());
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        return bucket;
+    }
+
+    private static void refund(List<AtomicLong> acquiredBuckets, List<Long> acquiredCosts) {
+        for (int i = 0; i < acquiredBuckets.size(); i++) {
+            acquiredBuckets.get(i).addAndGet(-acquiredCosts.get(i));
+        }
+    }
+
+    private Rejection reject(String endpoint, String categoryCode, String scope, Limit limit, long waitNanos) {
+        metrics.incrementRateLimited(endpoint, categoryCode, scope);
+        long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return new Rejection(endpoint, SCOPE_CATEGORY.equals(scope) ? categoryCode : null, scope,
+                limit.permits, limit.periodSeconds, retryAfterSeconds);
+    }
+
+    /**
+     * "키=건수/초,..." 형식의 한도 설정을 읽습니다.
+     */
+    private static Map<String, Limit> parseLimits(String value) {
+        Map<String, Limit> limits = new HashMap<>();
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf('=');
+            int slash = entry.indexOf('/', separator + 1);
+            if (separator <= 0 || slash < 0) {
+                continue;
+            }
+            int permits = Integer.parseInt(entry.substring(separator + 1, slash).trim());
+            long periodSeconds = Long.parseLong(entry.substring(slash + 1).trim());
+            if (permits > 0 && periodSeconds > 0) {
+                limits.put(entry.substring(0, separator).trim(), new Limit(permits, periodSeconds));
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * 버킷 한도 (periodSeconds 동안 permits 건, 최대 permits 건 연속)
+     */
+    private static final class Limit {
+
+        private final int permits;
+        private final long periodSeconds;
+        private final long intervalNanos;
+        private final long capacityNanos;
+
+        private Limit(int permits, long periodSeconds) {
+            this.permits = permits;
+            this.periodSeconds = periodSeconds;
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(periodSeconds) / permits;
+            this.capacityNanos = intervalNanos * permits;
+        }
+
+        private long cost(int requested) {
+            return Math.min(Math.max(requested, 1), permits) * intervalNanos;
+        }
+
+        /**
+         * 버킷에서 cost 만큼 차감합니다. bucket 값은 버킷이 다시 가득 차는 시각입니다.
+         *
+         * @return 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 시간(ns)
+         */
+        private long acquire(AtomicLong bucket, long cost, long now) {
+            while (true) {
+                long fullAt = bucket.get();
+                long next = (fullAt - now > 0 ? fullAt : now) + cost;
+                long excess = next - now - capacityNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (bucket.compareAndSet(fullAt, next)) {
+                    return 0L;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return permits + "/" + periodSeconds + "s";
+        }
+    }
+
+    /**
+     * 요청 한도 초과 정보 (429 응답 본문)
+     */
+    public static final class Rejection {
+
+        private final String endpoint;
+        private final String categoryCode;
+        private final String scope;
+        private final int limit;
+        private final long periodSeconds;
+        private final long retryAfterSeconds;
+
+        private Rejection(String endpoint, String categoryCode, String scope, int limit, long periodSeconds,
+                          long retryAfterSeconds) {
+            this.endpoint = endpoint;
+            this.categoryCode = categoryCode;
+            this.scope = scope;
+            this.limit = limit;
+            this.periodSeconds = periodSeconds;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", endpoint);
+            if (categoryCode != null) {
+                map.put("categoryCode", categoryCode);
+            }
+            map.put("scope", scope);
+            map.put("limit", limit);
+            map.put("periodSeconds", periodSeconds);
+            map.put("retryAfterSeconds", retryAfterSeconds);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SWP Float Chat 동일 LLM 요청 병합기 (single-flight)
+ *
+ * 같은 키(카테고리 + 프롬프트 지문 + 정규화된 질문)의 요청이 처리 중이면 새로 호출하지 않고
+ * 진행 중인 future 를 함께 기다립니다. 완료되는 즉시 키를 제거하므로 결과를 보관하지는 않습니다.
+ */
+@Component
+public class FloatChatRequestCoalescer {
+
+    @Value("${float-chat.coalescing.enabled:true}")
+    private boolean enabled;
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder originatedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * 같은 키의 호출이 진행 중이면 그 결과를, 아니면 loader 로 새 호출을 시작한 결과를 반환합니다.
+     */
+    public CompletableFuture<String> call(String key, Supplier<CompletableFuture<String>> loader) {
+        if (!enabled) {
+            originatedCount.increment();
+            return loader.get();
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedCount.increment();
+            return existing;
+        }
+
+        originatedCount.increment();
+        try {
+            loader.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, created);
+                if (ex != null) {
+                    created.completeExceptionally(ex);
+                } else {
+                    created.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("originated", originatedCount.sum());
+        stats.put("coalesced", coalescedCount.sum());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
@@ -0,0 +1,308 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.entity.FloatChatRetentionVo;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SWP Float Chat 보존 기간 정리 작업 (대화, 피드백)
+ *
+ * 한 번의 DELETE 로 지우면 넓은 범위가 오래 잠기고 undo 로그가 커지므로,
+ * PK 순서로 chunk-size 개씩 구간을 나누어 구간마다 별도 트랜잭션으로 삭제하고 구간 사이에 쉬어 갑니다.
+ * (초당 max-rows-per-second 행 이하, 구간 사이 최소 pause-ms)
+ * 구간마다 진행 상태(SWP_FLOAT_CHAT_RETENTION)를 저장하므로 재기동 후 같은 기준 일시로 이어서 정리합니다.
+ * PK 는 저장 순서대로 증가하므로 삭제할 행이 하나도 없는 구간에 도달하면 정리를 마칩니다.
+ * 여러 인스턴스에서 동시에 실행해도 결과는 같지만 중복 작업이 되므로 한 인스턴스에서만 enabled 로 설정합니다.
+ * 행을 지우는 작업이므로 기본값은 비활성이며, 보존 기간(retention-days)은 운영 정책에 맞게 지정해야 합니다.
+ */
+@Component
+public class FloatChatRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatRetentionJob.class);
+
+    public static final String TABLE_CONVERSATION = "SWP_FLOAT_CHAT_CONVERSATION";
+    public static final String TABLE_FEEDBACK = "SWP_FLOAT_CHAT_FEEDBACK";
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Autowired
+    private FloatChatSearchIndex searchIndex;
+
+    @Value("${float-chat.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${float-chat.retention.retention-days:180}")
+    private int retentionDays;
+
+    @Value("${float-chat.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${float-chat.retention.max-rows-per-second:5000}")
+    private int maxRowsPerSecond;
+
+    @Value("${float-chat.retention.pause-ms:100}")
+    private long pauseMs;
+
+    /**
+     * 기동 시 중단된(RUNNING) 정리가 있으면 이어서 실행
+     */
+    @Value("${float-chat.retention.resume-on-startup:true}")
+    private boolean resumeOnStartup;
+
+    private final List<Target> targets = Arrays.asList(
+            new Target(TABLE_CONVERSATION, (afterId, limit) -> floatChatMapper.selectConversationIdsAfter(afterId, limit),
+                    (fromId, toId, cutoff) -> floatChatMapper.deleteOldConversationsInRange(fromId, toId, cutoff)),
+            new Target(TABLE_FEEDBACK, (afterId, limit) -> floatChatMapper.selectFeedbackIdsAfter(afterId, limit),
+                    (fromId, toId, cutoff) -> floatChatMapper.deleteOldFeedbackInRange(fromId, toId, cutoff)));
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService runExecutor;
+
+    @PostConstruct
+    public void init() {
+        runExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "float-chat-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!enabled) {
+            return;
+        }
+        log.info("보존 기간 정리 - 보존: {}일, 구간: {}행, 최대 {}행/초, 구간 간격: {}ms",
+                retentionDays, chunkSize, maxRowsPerSecond, pauseMs);
+        if (resumeOnStartup && hasInterruptedRun()) {
+            log.info("중단된 보존 기간 정리를 이어서 실행합니다.");
+            start(retentionDays);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runExecutor.shutdownNow();
+    }
+
+    /**
+     * 정해진 시각에 보존 기간 정리를 시작합니다. (스케줄러 스레드를 오래 점유하지 않도록 별도 스레드에서 실행)
+     */
+    @Scheduled(cron = "${float-chat.retention.cron:0 0 3 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            start(retentionDays);
+        }
+    }
+
+    /**
+     * 백그라운드에서 정리를 시작합니다. 이미 진행 중이면 false
+     */
+    public boolean start(int days) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        runExecutor.execute(() -> {
+            try {
+                runAll(days);
+            } catch (Exception e) {
+                log.error("보존 기간 정리 실패 (다음 실행 시 이어서 정리)", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 현재 스레드에서 정리를 실행하고 삭제한 행 수를 반환합니다.
+     *
+     * @throws IllegalStateException 이미 정리가 진행 중인 경우
+     */
+    public long runNow(int days) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("보존 기간 정리가 이미 진행 중입니다.");
+        }
+        try {
+            return runAll(days);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 테이블별 진행 상태 (기준 일시, 마지막으로 처리한 PK, 삭제한 행 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("retentionDays", retentionDays);
+        for (Target target : targets) {
+            Map<String, Object> table = new LinkedHashMap<>();
+            FloatChatRetentionVo checkpoint = target.checkpoint;
+            if (checkpoint != null) {
+                table.put("status", checkpoint.getStatus());
+                table.put("cutoffDate", checkpoint.getCutoffDate());
+                table.put("lastId", checkpoint.getLastId());
+                table.put("deleted", checkpoint.getDeletedCount());
+                table.put("startedDate", checkpoint.getStartedDate());
+                table.put("modifiedDate", checkpoint.getModifiedDate());
+            }
+            stats.put(target.tableName, table);
+        }
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private boolean hasInterruptedRun() {
+        try {
+            for (Target target : targets) {
+                FloatChatRetentionVo checkpoint = floatChatMapper.selectRetentionCheckpoint(target.tableName);
+                if (checkpoint != null && FloatChatRetentionVo.STATUS_RUNNING.equals(checkpoint.getStatus())) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("보존 기간 정리 진행 상태 조회 실패: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    private long runAll(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("보존 기간은 1일 이상이어야 합니다.");
+        }
+        long total = 0;
+        for (Target target : targets) {
+            long deleted = cleanup(target, days);
+            total += deleted;
+            if (deleted > 0 && TABLE_CONVERSATION.equals(target.tableName)) {
+                // 삭제된 대화가 검색 결과에 남지 않도록 색인 재구성
+                searchIndex.rebuild();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 테이블 하나를 PK 구간 단위로 정리합니다. RUNNING 상태가 남아 있으면 그 기준 일시와 위치에서 이어서 정리합니다.
+     *
+     * @return 이번 실행에서 삭제한 행 수
+     */
+    private long cleanup(Target target, int days) {
+        FloatChatRetentionVo checkpoint = floatChatMapper.selectRetentionCheckpoint(target.tableName);
+        if (checkpoint != null && FloatChatRetentionVo.STATUS_RUNNING.equals(checkpoint.getStatus())) {
+            log.info("보존 기간 정리 재개 - {}: 기준 {}, {} 다음부터 (삭제 {}건)",
+                    target.tableName, checkpoint.getCutoffDate(), checkpoint.getLastId(), checkpoint.getDeletedCount());
+        } else {
+            checkpoint = new FloatChatRetentionVo();
+            checkpoint.setTableName(target.tableName);
+            checkpoint.setStatus(FloatChatRetentionVo.STATUS_RUNNING);
+            checkpoint.setCutoffDate(LocalDateTime.now().minusDays(days));
+            checkpoint.setLastId(0L);
+            checkpoint.setDeletedCount(0L);
+            checkpoint.setStartedDate(LocalDateTime.now());
+            save(target, checkpoint);
+            log.info("보존 기간 정리 시작 - {}: 기준 {}", target.tableName, checkpoint.getCutoffDate());
+        }
+        target.checkpoint = checkpoint;
+
+        long deletedThisRun = 0;
+        long minChunkNanos = maxRowsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(chunkSize) / maxRowsPerSecond : 0L;
+        while (true) {
+            long chunkStart = System.nanoTime();
+            List<Long> ids = target.selectIds.select(checkpoint.getLastId(), chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+            int deleted = target.deleteRange.delete(fromId, toId, checkpoint.getCutoffDate());
+
+            deletedThisRun += deleted;
+            checkpoint.setLastId(toId);
+            checkpoint.setDeletedCount(checkpoint.getDeletedCount() + deleted);
+            if (deleted == 0 || ids.size() < chunkSize) {
+                // 보존 기간 안쪽 구간에 도달 (이후 행은 모두 기준 일시 이후)
+                break;
+            }
+            save(target, checkpoint);
+            log.debug("보존 기간 정리 진행 - {}: ~{} (삭제 {}건)", target.tableName, toId, checkpoint.getDeletedCount());
+
+            if (!pause(chunkStart, minChunkNanos)) {
+                log.info("보존 기간 정리 중단 - {}: {} 까지 처리 (재기동 후 이어서 정리)", target.tableName, toId);
+                return deletedThisRun;
+            }
+        }
+
+        checkpoint.setStatus(FloatChatRetentionVo.STATUS_COMPLETED);
+        save(target, checkpoint);
+        log.info("보존 기간 정리 완료 - {}: 삭제 {}건", target.tableName, checkpoint.getDeletedCount());
+        return deletedThisRun;
+    }
+
+    /**
+     * 구간 사이에 쉬어 갑니다. (처리 속도 제한과 최소 간격 중 긴 쪽) 중단 요청을 받으면 false
+     */
+    private boolean pause(long chunkStartNanos, long minChunkNanos) {
+        long elapsed = System.nanoTime() - chunkStartNanos;
+        long sleepNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(pauseMs), minChunkNanos - elapsed);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void save(Target target, FloatChatRetentionVo checkpoint) {
+        checkpoint.setModifiedDate(LocalDateTime.now());
+        floatChatMapper.upsertRetentionCheckpoint(checkpoint);
+        target.checkpoint = checkpoint;
+    }
+
+    private interface IdSelector {
+        List<Long> select(Long afterId, int limit);
+    }
+
+    private interface RangeDeleter {
+        int delete(Long fromId, Long toId, LocalDateTime cutoffDate);
+    }
+
+    /**
+     * 정리 대상 테이블
+     */
+    private static final class Target {
+
+        private final String tableName;
+        private final IdSelector selectIds;
+        private final RangeDeleter deleteRange;
+        private volatile FloatChatRetentionVo checkpoint;
+
+        private Target(String tableName, IdSelector selectIds, RangeDeleter deleteRange) {
+            this.tableName = tableName;
+            this.selectIds = selectIds;
+            this.deleteRange = deleteRange;
+        }
+    }
+}
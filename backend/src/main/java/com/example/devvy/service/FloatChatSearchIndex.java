@@ -0,0 +1,639 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.entity.FloatChatSearchHitVo;
+import com.temporary22.aiagent.entity.FloatChatVo;
+import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SWP Float Chat 대화 검색 색인 (사용자별 메모리 역색인)
+ *
+ * 색인어는 FloatChatTokenizer 기준(한글/한자 bigram, 그 외 단어)이므로 조사가 붙은 단어도 검색됩니다.
+ * 색인은 사용자별로 분리되어 검색 비용이 해당 사용자의 대화 수에만 비례하고, 점수는 BM25 로 계산합니다.
+ * 저장되는 대화는 saveConversation 에서 바로 추가되며, 기동 시 또는 요청 시 최신 대화(max-documents 건)로 다시 만듭니다.
+ * 메모리는 사용자별(max-documents-per-user)과 전체(max-documents) 문서 수 상한으로 제한하며,
+ * 상한을 넘으면 가장 먼저 색인된 대화부터 색인에서 제외합니다. (DB 의 대화는 그대로 유지)
+ * 제외된 문서의 색인어 항목은 제외된 수가 남은 문서 수 이상이 될 때 한 번에 정리합니다.
+ */
+@Component
+public class FloatChatSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FloatChatSearchIndex.class);
+    private static final float BM25_K1 = 1.2f;
+    private static final float BM25_B = 0.75f;
+    private static final String ELLIPSIS = "…";
+
+    @Autowired
+    private FloatChatMapper floatChatMapper;
+
+    @Value("${float-chat.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${float-chat.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${float-chat.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    /**
+     * 스니펫용으로 보관할 AI 응답 최대 길이
+     */
+    @Value("${float-chat.search.max-stored-chars:4000}")
+    private int maxStoredChars;
+
+    @Value("${float-chat.search.snippet-chars:120}")
+    private int snippetChars;
+
+    /**
+     * 사용자별로 색인할 최대 대화 수 (넘으면 오래된 대화부터 제외)
+     */
+    @Value("${float-chat.search.max-documents-per-user:2000}")
+    private int maxDocumentsPerUser;
+
+    /**
+     * 전체 색인할 최대 대화 수 (넘으면 모든 사용자 중 오래된 대화부터 5% 여유가 생길 때까지 제외)
+     */
+    @Value("${float-chat.search.max-documents:50000}")
+    private int maxDocuments;
+
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile IndexSet indexes = new IndexSet();
+    private Queue<FloatChatVo> pendingDuringRebuild;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private ExecutorService rebuildExecutor;
+    private volatile long lastRebuildMillis = -1L;
+
+    private final LongAdder indexedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder searchCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "float-chat-search-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 저장된 대화를 색인에 추가합니다. (같은 conversationId 는 한 번만 색인)
+     */
+    public void add(FloatChatVo conversation) {
+        if (!enabled || conversation.getConversationId() == null || conversation.getUserId() == null) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            addTo(indexes, conversation);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(conversation);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용자의 대화에서 질의와 관련도가 높은 순으로 최대 limit 건을 반환합니다.
+     *
+     * @param categoryCode null 이면 전체 카테고리
+     */
+    public List<FloatChatSearchHitVo> search(String userId, String categoryCode, String query, int limit) {
+        searchCount.increment();
+        UserIndex index = indexes.users.get(userId);
+        Set<String> terms = new LinkedHashSet<>();
+        FloatChatTokenizer.tokenize(query, terms, null);
+        if (index == null || terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return index.search(categoryCode, terms, limit, this);
+    }
+
+    /**
+     * 최신 대화로 색인을 다시 만듭니다. (백그라운드 실행, 이미 진행 중이면 false)
+     */
+    public boolean rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        swapLock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        rebuildExecutor.execute(this::rebuildNow);
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        IndexSet current = indexes;
+        long terms = 0;
+        for (UserIndex index : current.users.values()) {
+            terms += index.termCount();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("users", current.users.size());
+        stats.put("documents", current.documents.get());
+        stats.put("maxDocuments", maxDocuments);
+        stats.put("maxDocumentsPerUser", maxDocumentsPerUser);
+        stats.put("terms", terms);
+        stats.put("indexed", indexedCount.sum());
+        stats.put("evicted", evictedCount.sum());
+        stats.put("searches", searchCount.sum());
+        stats.put("rebuilding", rebuilding.get());
+        stats.put("lastRebuildMs", lastRebuildMillis);
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private void rebuildNow() {
+        long start = System.currentTimeMillis();
+        IndexSet rebuilt = new IndexSet();
+        Queue<FloatChatVo> pending;
+        try {
+            // 상한 밖의 대화는 색인에 남지 않으므로 최신 대화부터 max-documents 건만 읽고,
+            // 사용자별 상한을 넘는 (더 오래된) 대화는 건너뜀
+            List<FloatChatVo> recent = new ArrayList<>();
+            Map<String, Integer> countByUser = new HashMap<>();
+            Long beforeId = null;
+            int read = 0;
+            List<FloatChatVo> batch;
+            do {
+                batch = floatChatMapper.selectConversationsForIndex(beforeId,
+                        Math.min(rebuildBatchSize, maxDocuments - read));
+                for (FloatChatVo conversation : batch) {
+                    beforeId = conversation.getConversationId();
+                    if (conversation.getUserId() != null
+                            && countByUser.merge(conversation.getUserId(), 1, Integer::sum) <= maxDocumentsPerUser) {
+                        recent.add(conversation);
+                    }
+                }
+                read += batch.size();
+            } while (batch.size() == rebuildBatchSize && read < maxDocuments && !Thread.currentThread().isInterrupted());
+
+            // 색인은 오래된 순서로 쌓아야 상한 초과 시 오래된 대화부터 제외됨
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                addTo(rebuilt, recent.get(i));
+            }
+
+            // 재구성 중 추가된 대화를 반영한 뒤 교체
+            swapLock.writeLock().lock();
+            try {
+                pending = pendingDuringRebuild;
+                for (FloatChatVo conversation : pending) {
+                    addTo(rebuilt, conversation);
+                }
+                indexes = rebuilt;
+            } finally {
+                pendingDuringRebuild = null;
+                swapLock.writeLock().unlock();
+            }
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            log.info("대화 검색 색인 재구성 완료 - 사용자: {}명, 문서: {}건, 소요: {}ms",
+                    rebuilt.users.size(), rebuilt.documents.get(), lastRebuildMillis);
+        } catch (Exception e) {
+            swapLock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.error("대화 검색 색인 재구성 실패 (기존 색인 유지)", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void addTo(IndexSet target, FloatChatVo conversation) {
+        while (true) {
+            UserIndex index = target.users.computeIfAbsent(conversation.getUserId(), userId -> new UserIndex());
+            int result = index.add(conversation, maxStoredChars);
+            if (result == UserIndex.REMOVED) {
+                // 전체 상한 정리로 비어서 제거된 색인 - 새 색인에 다시 추가
+                target.users.remove(conversation.getUserId(), index);
+                continue;
+            }
+            if (result == UserIndex.ADDED) {
+                indexedCount.increment();
+                target.documents.incrementAndGet();
+                evict(target, index.evictOverflow(maxDocumentsPerUser));
+            }
+            break;
+        }
+        if (target.documents.get() > maxDocuments) {
+            evictGlobal(target);
+        }
+    }
+
+    /**
+     * 전체 문서 수가 상한을 넘으면 모든 사용자 중 가장 먼저 색인된 대화부터 5% 여유가 생길 때까지 제외합니다.
+     * 다른 스레드가 정리 중이면 그 스레드에 맡기고 바로 반환합니다.
+     */
+    private void evictGlobal(IndexSet target) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long goal = maxDocuments - maxDocuments / 20L;
+            if (target.documents.get() <= goal) {
+                return;
+            }
+            // 정리 중에도 색인 추가는 계속되므로 사용자별 가장 오래된 문서 번호를 꺼내 둔 값으로 정렬
+            PriorityQueue<long[]> oldestFirst = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+            List<Map.Entry<String, UserIndex>> candidates = new ArrayList<>(target.users.entrySet());
+            for (int i = 0; i < candidates.size(); i++) {
+                long oldest = candidates.get(i).getValue().oldestConversationId();
+                if (oldest != Long.MAX_VALUE) {
+                    oldestFirst.add(new long[] {oldest, i});
+                }
+            }
+            while (target.documents.get() > goal && !oldestFirst.isEmpty()) {
+                long[] next = oldestFirst.poll();
+                Map.Entry<String, UserIndex> entry = candidates.get((int) next[1]);
+                UserIndex index = entry.getValue();
+                evict(target, index.evictOldest(1, true));
+                long oldest = index.oldestConversationId();
+                if (oldest != Long.MAX_VALUE) {
+                    next[0] = oldest;
+                    oldestFirst.add(next);
+                } else if (index.isRemoved()) {
+                    target.users.remove(entry.getKey(), index);
+                }
+            }
+            log.debug("대화 검색 색인 전체 상한 정리 - 남은 문서: {}건", target.documents.get());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evict(IndexSet target, int evicted) {
+        if (evicted > 0) {
+            target.documents.addAndGet(-evicted);
+            evictedCount.add(evicted);
+        }
+    }
+
+    /**
+     * 질의어가 처음 나오는 위치 주변을 잘라 스니펫을 만듭니다.
+     */
+    String snippet(String text, Set<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int position = -1;
+        for (String term : terms) {
+            int found = lower.indexOf(term);
+            if (found >= 0 && (position < 0 || found < position)) {
+                position = found;
+            }
+        }
+        int start = position < 0 ? 0 : Math.max(0, position - snippetChars / 3);
+        int end = Math.min(text.length(), start + snippetChars);
+        String window = text.substring(start, end).replace('\n', ' ').trim();
+        return (start > 0 ? ELLIPSIS : "") + window + (end < text.length() ? ELLIPSIS : "");
+    }
+
+    /**
+     * 사용자 한 명의 역색인
+     */
+    private static final class UserIndex {
+
+        static final int ADDED = 1;
+        static final int DUPLICATE = 0;
+        static final int REMOVED = -1;
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<String, Postings> postings = new HashMap<>();
+        /** 색인 순서대로 보관 (firstLive 앞은 제외된 문서) */
+        final List<Document> documents = new ArrayList<>();
+        final Set<Long> conversationIds = new HashSet<>();
+        long totalLength;
+        int firstLive;
+        /** 전체 상한 정리로 비워져 색인 목록에서 제거된 상태 (더 이상 추가하지 않음) */
+        boolean removed;
+
+        /**
+         * @return ADDED, DUPLICATE(이미 색인된 대화), REMOVED(제거된 색인이므로 새 색인에 추가해야 함)
+         */
+        int add(FloatChatVo conversation, int maxStoredChars) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = FloatChatTokenizer.tokenize(conversation.getUserQuestion(), null, frequencies)
+                    + FloatChatTokenizer.tokenize(conversation.getAiResponse(), null, frequencies);
+            String answer = conversation.getAiResponse();
+            if (answer != null && answer.length() > maxStoredChars) {
+                answer = answer.substring(0, maxStoredChars);
+            }
+            Document document = new Document(conversation.getConversationId(), conversation.getCategoryCode(),
+                    conversation.getCreatedDate() != null ? conversation.getCreatedDate() : LocalDateTime.now(),
+                    conversation.getUserQuestion(), answer, Math.max(1, length));
+
+            lock.writeLock().lock();
+            try {
+                if (removed) {
+                    return REMOVED;
+                }
+                if (!conversationIds.add(document.conversationId)) {
+                    return DUPLICATE;
+                }
+                int docIndex = documents.size();
+                documents.add(document);
+                totalLength += document.length;
+                for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(docIndex, entry.getValue());
+                }
+                return ADDED;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 문서 수가 maxDocuments 를 넘는 만큼 오래된 문서를 제외하고 제외한 수를 반환합니다.
+         */
+        int evictOverflow(int maxDocuments) {
+            lock.writeLock().lock();
+            try {
+                int overflow = documents.size() - firstLive - Math.max(1, maxDocuments);
+                return overflow > 0 ? evictOldest(overflow, false) : 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 가장 먼저 색인된 문서부터 count 건을 제외하고 제외한 수를 반환합니다.
+         *
+         * @param removeIfEmpty 모두 제외되면 제거된 상태로 표시 (이후 추가는 새 색인으로)
+         */
+        int evictOldest(int count, boolean removeIfEmpty) {
+            lock.writeLock().lock();
+            try {
+                int evicted = 0;
+                while (evicted < count && firstLive < documents.size()) {
+                    Document document = documents.set(firstLive++, null);
+                    conversationIds.remove(document.conversationId);
+                    totalLength -= document.length;
+                    evicted++;
+                }
+                if (firstLive == documents.size()) {
+                    postings.clear();
+                    documents.clear();
+                    firstLive = 0;
+                    removed = removeIfEmpty;
+                } else if (firstLive >= documents.size() - firstLive) {
+                    compact();
+                }
+                return evicted;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 가장 먼저 색인된 문서의 conversationId (문서가 없으면 Long.MAX_VALUE)
+         */
+        long oldestConversationId() {
+            lock.readLock().lock();
+            try {
+                return firstLive < documents.size() ? documents.get(firstLive).conversationId : Long.MAX_VALUE;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean isRemoved() {
+            lock.readLock().lock();
+            try {
+                return removed;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * 제외된 문서를 목록과 색인어 항목에서 지우고 문서 번호를 앞으로 당깁니다. (write lock 보유 상태에서 호출)
+         */
+        private void compact() {
+            int offset = firstLive;
+            Iterator<Postings> iterator = postings.values().iterator();
+            while (iterator.hasNext()) {
+                Postings termPostings = iterator.next();
+                termPostings.dropBefore(offset);
+                if (termPostings.size == 0) {
+                    iterator.remove();
+                }
+            }
+            documents.subList(0, offset).clear();
+            firstLive = 0;
+        }
+
+        List<FloatChatSearchHitVo> search(String categoryCode, Set<String> terms, int limit,
+                                          FloatChatSearchIndex owner) {
+            lock.readLock().lock();
+            try {
+                int documentCount = documents.size() - firstLive;
+                if (documentCount == 0) {
+                    return Collections.emptyList();
+                }
+                float averageLength = (float) totalLength / documentCount;
+                float[] scores = new float[documents.size()];
+                for (String term : terms) {
+                    Postings termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        continue;
+                    }
+                    int from = termPostings.indexOf(firstLive);
+                    int df = (termPostings.size - from) / 2;
+                    if (df == 0) {
+                        continue;
+                    }
+                    float idf = (float) Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                    for (int i = from; i < termPostings.size; i += 2) {
+                        int docIndex = termPostings.data[i];
+                        Document document = documents.get(docIndex);
+                        if (categoryCode != null && !categoryCode.equals(document.categoryCode)) {
+                            continue;
+                        }
+                        int tf = termPostings.data[i + 1];
+                        float norm = BM25_K1 * (1 - BM25_B + BM25_B * document.length / averageLength);
+                        scores[docIndex] += idf * tf * (BM25_K1 + 1) / (tf + norm);
+                    }
+                }
+
+                // 점수 동률이면 최신 대화 우선
+                PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> {
+                    int compare = Float.compare(scores[a], scores[b]);
+                    return compare != 0 ? compare : Integer.compare(a, b);
+                });
+                for (int docIndex = firstLive; docIndex < documents.size(); docIndex++) {
+                    if (scores[docIndex] <= 0f) {
+                        continue;
+                    }
+                    top.add(docIndex);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+
+                List<FloatChatSearchHitVo> hits = new ArrayList<>(top.size());
+                while (!top.isEmpty()) {
+                    int docIndex = top.poll();
+                    Document document = documents.get(docIndex);
+                    hits.add(new FloatChatSearchHitVo(document.conversationId, document.categoryCode,
+                            document.createdDate, Math.round(scores[docIndex] * 1000) / 1000.0,
+                            owner.snippet(document.question, terms), owner.snippet(document.answer, terms)));
+                }
+                Collections.reverse(hits);
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int termCount() {
+            lock.readLock().lock();
+            try {
+                return postings.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 색인어별 (문서 번호, 빈도) 목록
+     */
+    private static final class Postings {
+
+        int[] data = new int[4];
+        int size;
+
+        void add(int docIndex, int frequency) {
+            if (size + 2 > data.length) {
+                int[] grown = new int[data.length * 2];
+                System.arraycopy(data, 0, grown, 0, size);
+                data = grown;
+            }
+            data[size++] = docIndex;
+            data[size++] = frequency;
+        }
+
+        /**
+         * docIndex 가 minDocIndex 이상인 첫 항목의 위치 (항목은 문서 번호 오름차순)
+         */
+        int indexOf(int minDocIndex) {
+            int low = 0;
+            int high = size / 2;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (data[mid * 2] < minDocIndex) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low * 2;
+        }
+
+        /**
+         * offset 보다 앞선 문서의 항목을 지우고 나머지 문서 번호를 offset 만큼 당깁니다.
+         */
+        void dropBefore(int offset) {
+            int from = indexOf(offset);
+            int remaining = size - from;
+            for (int i = 0; i < remaining; i += 2) {
+                data[i] = data[from + i] - offset;
+                data[i + 1] = data[from + i + 1];
+            }
+            size = remaining;
+            if (data.length > 4 && size * 4 <= data.length) {
+                int[] shrunk = new int[Math.max(4, size * 2)];
+                System.arraycopy(data, 0, shrunk, 0, size);
+                data = shrunk;
+            }
+        }
+    }
+
+    /**
+     * 사용자별 색인 목록과 전체 문서 수 (재구성 시 통째로 교체)
+     */
+    private static final class IndexSet {
+
+        final ConcurrentHashMap<String, UserIndex> users = new ConcurrentHashMap<>();
+        final AtomicLong documents = new AtomicLong();
+    }
+
+    private static final class Document {
+
+        final Long conversationId;
+        final String categoryCode;
+        final LocalDateTime createdDate;
+        final String question;
+        final String answer;
+        final int length;
+
+        Document(Long conversationId, String categoryCode, LocalDateTime createdDate,
+                 String question, String answer, int length) {
+            this.conversationId = conversationId;
+            this.categoryCode = categoryCode;
+            this.createdDate = createdDate;
+            this.question = question;
+            this.answer = answer;
+            this.length = length;
+        }
+    }
+}
@@ -1,17 +1,45 @@
 package com.temporary22.aiagent.impl.aiAgent;
 
 import com.temporary22.devportal.mapper.aiagent.FloatChatMapper;
+import com.temporary22.aiagent.config.FloatChatAsyncConfig;
+import com.temporary22.aiagent.entity.FloatChatBatchItemVo;
+import com.temporary22.aiagent.entity.FloatChatJobVo;
+import com.temporary22.aiagent.entity.FloatChatKnowledgeDocumentVo;
+import com.temporary22.aiagent.entity.FloatChatSearchHitVo;
 import com.temporary22.aiagent.entity.FloatChatVo;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmClient;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmDeadline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.LinkedHashMap;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * SWP Float Chat 비즈니스 로직 서비스 (비동기 처리 및 프롬프트 관리 추가)
@@ -22,10 +50,89 @@ public class FloatChatService {
 
     private static final Logger log = LoggerFactory.getLogger(FloatChatService.class);
     private static final int RECENT_CONVERSATION_LIMIT = 20;
+    private static final int MAX_CONVERSATION_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int MAX_KNOWLEDGE_SOURCE_LENGTH = 200;
+    private static final int MAX_KNOWLEDGE_DOCUMENT_LENGTH = 1_000_000;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+    private static final String FALLBACK_RESPONSE =
+        "죄송합니다. 일시적인 오류로 응답을 생성할 수 없습니다. 잠시 후 다시 시도해주세요.";
 
     @Autowired
     private FloatChatMapper floatChatMapper;
 
+    @Autowired
+    private FloatChatCategoryCache categoryCache;
+
+    @Autowired
+    private LlmClient llmClient;
+
+    @Autowired
+    private FloatChatConversationWriter conversationWriter;
+
+    @Autowired
+    private FloatChatAnswerCache answerCache;
+
+    @Autowired
+    private FloatChatRequestCoalescer requestCoalescer;
+
+    @Autowired
+    private FloatChatHealthMonitor healthMonitor;
+
+    @Autowired
+    private FloatChatMetrics metrics;
+
+    @Autowired
+    private FloatChatContextManager contextManager;
+
+    @Autowired
+    private FloatChatPromptBudget promptBudget;
+
+    @Autowired
+    private FloatChatSearchIndex searchIndex;
+
+    @Autowired
+    private FloatChatKnowledgeBase knowledgeBase;
+
+    @Autowired
+    private FloatChatJobStore jobStore;
+
+    @Autowired
+    private FloatChatLlmScheduler llmScheduler;
+
+    @Autowired
+    private FloatChatRateLimiter rateLimiter;
+
+    @Autowired
+    private FloatChatRetentionJob retentionJob;
+
+    @Autowired
+    @Qualifier(FloatChatAsyncConfig.CHAT_EXECUTOR)
+    private Executor chatExecutor;
+
+    /**
+     * LLM 응답 이후의 저장처럼 블로킹 작업을 이어서 실행하는 실행기
+     * LLM future 는 HttpClient 스레드나 JVM 공용 타이머 스레드(orTimeout)에서 완료되므로 그 스레드에서 DB 작업을 하지 않도록 chatExecutor 로 넘깁니다.
+     * chatExecutor 가 포화되면 응답을 버리지 않도록 완료한 스레드에서 그대로 실행합니다.
+     */
+    private final Executor completionExecutor = this::executeCompletion;
+
+    @Value("${float-chat.batch.max-items:20}")
+    private int batchMaxItems;
+
+    /**
+     * 배치 하나가 동시에 실행하는 LLM 호출 수
+     */
+    @Value("${float-chat.batch.max-concurrency:4}")
+    private int batchMaxConcurrency;
+
+    /**
+     * 메시지 작업 하나의 처리 기한 (LLM 호출 포함)
+     */
+    @Value("${float-chat.job.timeout-ms:120000}")
+    private long jobTimeoutMs;
+
     // === 카테고리 관리 ===
 
     /**
@@ -33,11 +140,19 @@ public class FloatChatService {
      */
     public List<FloatChatVo> getCategories() {
         log.debug("카테고리 목록 조회 시작");
-        List<FloatChatVo> categories = floatChatMapper.selectCategories();
+        List<FloatChatVo> categories = categoryCache.getCategories();
         log.info("카테고리 조회 완료: {}개", categories.size());
         return categories;
     }
 
+    /**
+     * 클라이언트용 카테고리 목록 응답(직렬화 본문 + ETag)을 조회합니다.
+     * 캐시 스냅샷이 없으면 null 을 반환합니다.
+     */
+    public FloatChatCategoryCache.CategoryListBody getCategoryListBody() {
+        return categoryCache.getCategoryListBody();
+    }
+
     /**
      * 특정 카테고리 정보를 조회합니다.
      */
@@ -47,7 +162,7 @@ public class FloatChatService {
             throw new IllegalArgumentException("카테고리 코드가 필요합니다.");
         }
         
-        FloatChatVo category = floatChatMapper.selectCategoryByCode(categoryCode);
+        FloatChatVo category = categoryCache.getCategory(categoryCode);
         if (category == null) {
             throw new IllegalArgumentException("존재하지 않는 카테고리입니다: " + categoryCode);
         }
@@ -63,7 +178,19 @@ public class FloatChatService {
         if (categoryCode == null || categoryCode.trim().isEmpty()) {
             return false;
         }
-        return floatChatMapper.checkCategoryExists(categoryCode) > 0;
+        return categoryCache.contains(categoryCode);
+    }
+
+    /**
+     * 카테고리/답변 캐시 및 요청 병합 통계를 반환합니다.
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("category", categoryCache.getStats());
+        stats.put("answer", answerCache.getStats());
+        stats.put("coalescing", requestCoalescer.getStats());
+        stats.put("context", contextManager.getStats());
+        return stats;
     }
 
     // === 프롬프트 관리 ===
@@ -87,12 +214,27 @@ public class FloatChatService {
             throw new IllegalArgumentException("시스템 프롬프트는 5000자를 초과할 수 없습니다.");
         }
         
-        int updatedRows = floatChatMapper.updateSystemPrompt(categoryCode, systemPrompt.trim(), userId);
+        String trimmedPrompt = systemPrompt.trim();
+        int updatedRows = floatChatMapper.updateSystemPrompt(categoryCode, trimmedPrompt, userId);
         
         if (updatedRows == 0) {
             throw new RuntimeException("시스템 프롬프트 업데이트에 실패했습니다.");
         }
         
+        // 커밋 이후에 캐시 스냅샷 교체 (롤백 시 캐시 오염 방지)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    categoryCache.applyPromptUpdate(categoryCode, trimmedPrompt);
+                    answerCache.invalidateCategory(categoryCode);
+                }
+            });
+        } else {
+            categoryCache.applyPromptUpdate(categoryCode, trimmedPrompt);
+            answerCache.invalidateCategory(categoryCode);
+        }
+        
         log.info("시스템 프롬프트 업데이트 완료 - Category: {}", categoryCode);
     }
 
@@ -106,7 +248,7 @@ public class FloatChatService {
             throw new IllegalArgumentException("존재하지 않는 카테고리입니다: " + categoryCode);
         }
         
-        String systemPrompt = floatChatMapper.selectSystemPrompt(categoryCode);
+        String systemPrompt = categoryCache.getSystemPrompt(categoryCode);
         
         // DB에 저장된 프롬프트가 없으면 기본 프롬프트 사용
         if (systemPrompt == null || systemPrompt.trim().isEmpty()) {
@@ -121,41 +263,71 @@ public class FloatChatService {
 
     /**
      * 사용자 질문을 처리하고 AI 응답을 생성하여 저장합니다. (비동기 처리)
+     * 실행기 스레드는 프롬프트 준비에만 사용하고, LLM 응답을 기다리는 동안에는 스레드를 점유하지 않습니다.
+     * 클라이언트가 기다리지 않게 되어 deadline 이 취소되면 LLM 호출을 중단하고 CancellationException 으로 완료합니다.
+     *
+     * @throws RejectedExecutionException 실행기 포화
      */
-    @Async
-    public CompletableFuture<FloatChatVo> processMessageAsync(FloatChatVo request) {
+    public CompletableFuture<FloatChatVo> processMessageAsync(FloatChatVo request, LlmDeadline deadline) {
         log.info("비동기 메시지 처리 시작 - User: {}, Category: {}", 
                 request.getUserId(), request.getCategoryCode());
 
-        try {
-            validateMessageRequest(request);
-            
-            FloatChatVo aiResponse = generateAIResponse(request);
-            saveConversation(request, aiResponse);
+        return CompletableFuture.supplyAsync(() -> runPipelineAsync(request, deadline, null), chatExecutor)
+            .thenCompose(Function.identity())
+            .handle((aiResponse, ex) -> {
+                if (ex == null) {
+                    log.info("비동기 메시지 처리 완료 - ConversationId: {}", aiResponse.getConversationId());
+                    return aiResponse;
+                }
+                Throwable cause = unwrap(ex);
+                if (cause instanceof CancellationException) {
+                    log.info("비동기 메시지 처리 취소 - User: {}, Category: {}", request.getUserId(), request.getCategoryCode());
+                    throw (CancellationException) cause;
+                }
+                log.error("비동기 메시지 처리 중 오류 발생", cause);
+                return FloatChatVo.createErrorResponse("메시지 처리 실패: " + cause.getMessage());
+            });
+    }
 
-            log.info("비동기 메시지 처리 완료 - ConversationId: {}", aiResponse.getConversationId());
-            return CompletableFuture.completedFuture(aiResponse);
+    /**
+     * 사용자 질문을 처리하고 AI 응답을 청크 단위로 전달합니다. (스트리밍 처리)
+     * 스트림이 끝나면 전체 응답을 저장하고 conversationId 가 포함된 결과를 반환합니다.
+     * 실행기 스레드는 프롬프트 준비에만 사용하고, 스트림이 열려 있는 동안에는 스레드를 점유하지 않습니다.
+     *
+     * @throws RejectedExecutionException 실행기 포화
+     */
+    public CompletableFuture<FloatChatVo> processMessageStream(FloatChatVo request, LlmDeadline deadline,
+                                                               Consumer<String> chunkListener) {
+        log.info("스트리밍 메시지 처리 시작 - User: {}, Category: {}", 
+                request.getUserId(), request.getCategoryCode());
 
-        } catch (Exception e) {
-            log.error("비동기 메시지 처리 중 오류 발생", e);
-            FloatChatVo errorResponse = FloatChatVo.createErrorResponse("메시지 처리 실패: " + e.getMessage());
-            return CompletableFuture.completedFuture(errorResponse);
-        }
+        return CompletableFuture.supplyAsync(() -> runPipelineAsync(request, deadline, chunkListener), chatExecutor)
+            .thenCompose(Function.identity())
+            .handle((aiResponse, ex) -> {
+                if (ex == null) {
+                    log.info("스트리밍 메시지 처리 완료 - ConversationId: {}", aiResponse.getConversationId());
+                    return aiResponse;
+                }
+                Throwable cause = unwrap(ex);
+                if (cause instanceof CancellationException) {
+                    log.info("스트리밍 메시지 처리 취소 - User: {}, Category: {}", request.getUserId(), request.getCategoryCode());
+                    throw (CancellationException) cause;
+                }
+                log.error("스트리밍 메시지 처리 중 오류 발생", cause);
+                return FloatChatVo.createErrorResponse("메시지 처리 실패: " + cause.getMessage());
+            });
     }
 
     /**
      * 동기식 메시지 처리 (기존 호환성 유지)
+     * LLM 호출 동안 트랜잭션/커넥션을 잡지 않도록 트랜잭션 없이 처리합니다. (저장은 단건 insert)
      */
-    @Transactional
     public FloatChatVo processMessage(FloatChatVo request) {
         log.info("동기 메시지 처리 시작 - User: {}, Category: {}", 
                 request.getUserId(), request.getCategoryCode());
 
         try {
-            validateMessageRequest(request);
-            
-            FloatChatVo aiResponse = generateAIResponse(request);
-            saveConversation(request, aiResponse);
+            FloatChatVo aiResponse = runPipeline(request, LlmDeadline.none(), null);
 
             log.info("동기 메시지 처리 완료 - ConversationId: {}", aiResponse.getConversationId());
             return aiResponse;
@@ -166,6 +338,163 @@ public class FloatChatService {
         }
     }
 
+    // === 배치 메시지 처리 ===
+
+    /**
+     * 여러 질문을 한 번에 처리합니다.
+     * 카테고리 검증과 시스템 프롬프트 조회는 카테고리별로 한 번만 하고, LLM 호출은 배치당 max-concurrency 개까지 동시에 실행합니다.
+     * 항목별 결과는 완료되는 대로 itemListener 로 전달하며, 성공한 대화는 모두 끝난 뒤 한 번에 저장합니다.
+     * 배치 항목은 서로 독립된 질문으로 보고 이전 대화 문맥을 사용하거나 갱신하지 않습니다.
+     * deadline 은 배치 전체에 적용되며, 취소되면 남은 항목은 LLM 을 호출하지 않고 오류 항목이 됩니다.
+     */
+    public CompletableFuture<List<FloatChatBatchItemVo>> processMessageBatch(String userId, List<FloatChatVo> items,
+                                                                           LlmDeadline deadline,
+                                                                           Consumer<FloatChatBatchItemVo> itemListener) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("배치 항목이 필요합니다.");
+        }
+        if (items.size() > batchMaxItems) {
+            throw new IllegalArgumentException("배치 항목은 " + batchMaxItems + "개를 초과할 수 없습니다.");
+        }
+        log.info("배치 메시지 처리 시작 - User: {}, 항목: {}개", userId, items.size());
+        
+        // 카테고리별 검증 및 시스템 프롬프트 조회 (유효하지 않은 카테고리는 null)
+        Map<String, String> systemPrompts = new HashMap<>();
+        for (FloatChatVo item : items) {
+            String categoryCode = item != null ? item.getCategoryCode() : null;
+            if (categoryCode != null && !systemPrompts.containsKey(categoryCode)) {
+                systemPrompts.put(categoryCode, isCategoryValid(categoryCode) ? getSystemPrompt(categoryCode) : null);
+            }
+        }
+        
+        // 각 작업 줄은 항목 하나가 끝나면 다음 항목을 가져가므로 동시 LLM 호출 수는 작업 줄 수로 제한됨
+        // (LLM 응답을 기다리는 동안 실행기 스레드를 점유하지 않음)
+        FloatChatBatchItemVo[] results = new FloatChatBatchItemVo[items.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+        Supplier<CompletableFuture<Void>> lane = () -> runBatchLane(nextIndex, userId, items, systemPrompts,
+            deadline, results, itemListener);
+        
+        int concurrency = Math.min(batchMaxConcurrency, items.size());
+        List<CompletableFuture<Void>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            try {
+                workers.add(CompletableFuture.supplyAsync(lane, chatExecutor).thenCompose(Function.identity()));
+            } catch (RejectedExecutionException e) {
+                if (workers.isEmpty()) {
+                    throw e;
+                }
+                // 실행기 포화 - 이미 시작한 작업자가 나머지 항목까지 처리
+                break;
+            }
+        }
+        
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture[0]))
+            .thenApplyAsync(ignored -> saveBatchConversations(userId, items, results), completionExecutor);
+    }
+
+    // === 메시지 작업 (접수 후 조회) ===
+
+    /**
+     * 메시지 작업을 접수하고 바로 반환합니다. 응답 생성과 저장은 HTTP 연결과 무관하게 끝까지 진행됩니다.
+     * 같은 사용자가 같은 idempotencyKey 로 다시 접수하면 LLM 을 다시 호출하지 않고 기존 작업을 반환합니다.
+     *
+     * @throws RejectedExecutionException 실행기 포화
+     */
+    public FloatChatJobVo submitMessageJob(FloatChatVo request, String idempotencyKey) {
+        validateMessageRequest(request);
+        validateIdempotencyKey(idempotencyKey);
+        
+        FloatChatJobStore.Job job = jobStore.register(request.getUserId(), idempotencyKey, request);
+        if (!job.tryStart()) {
+            log.info("메시지 작업 재접수 - JobId: {}, User: {}", job.getJobId(), request.getUserId());
+            return job.toVo();
+        }
+        
+        // 클라이언트 연결이 끊겨도 취소하지 않고, 작업 기한만 적용
+        LlmDeadline deadline = LlmDeadline.after(jobTimeoutMs);
+        try {
+            CompletableFuture.supplyAsync(() -> runPipelineAsync(request, deadline, null), chatExecutor)
+                .thenCompose(Function.identity())
+                .whenComplete((aiResponse, ex) -> {
+                    if (ex != null) {
+                        log.error("메시지 작업 실패 - JobId: {}", job.getJobId(), ex);
+                        job.fail("메시지 처리 실패");
+                    } else {
+                        log.info("메시지 작업 완료 - JobId: {}, ConversationId: {}", job.getJobId(), aiResponse.getConversationId());
+                        job.succeed(aiResponse);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            job.fail("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
+            jobStore.discard(job);
+            throw e;
+        }
+        
+        log.info("메시지 작업 접수 - JobId: {}, User: {}, Category: {}",
+                job.getJobId(), request.getUserId(), request.getCategoryCode());
+        return job.toVo();
+    }
+
+    /**
+     * 같은 사용자가 같은 idempotencyKey 로 이미 접수한 메시지 작업을 조회합니다. 없으면 null 을 반환합니다.
+     *
+     * @throws IllegalArgumentException 같은 idempotencyKey 로 다른 질문을 접수한 경우
+     */
+    public FloatChatJobVo findMessageJob(FloatChatVo request, String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
+        FloatChatJobStore.Job job = jobStore.find(request.getUserId(), idempotencyKey, request);
+        return job != null ? job.toVo() : null;
+    }
+
+    /**
+     * 사용자의 메시지 작업 상태를 조회합니다. 없거나 만료되었으면 null 을 반환합니다.
+     */
+    public FloatChatJobVo getMessageJob(String userId, String jobId) {
+        FloatChatJobStore.Job job = jobStore.get(userId, jobId);
+        return job != null ? job.toVo() : null;
+    }
+
+    /**
+     * 메시지 작업이 끝나면 완료되는 future 를 반환합니다. 없거나 만료되었으면 null 을 반환합니다.
+     */
+    public CompletableFuture<FloatChatJobVo> awaitMessageJob(String userId, String jobId) {
+        FloatChatJobStore.Job job = jobStore.get(userId, jobId);
+        return job != null ? job.getResult() : null;
+    }
+
+    public Map<String, Object> getJobStats() {
+        return jobStore.getStats();
+    }
+
+    // === 요청 한도 ===
+
+    /**
+     * 사용자별 요청 한도를 차감합니다.
+     *
+     * @return 허용되면 null, 한도를 넘으면 거절 정보
+     */
+    public FloatChatRateLimiter.Rejection checkRateLimit(String endpoint, String userId, String categoryCode) {
+        return rateLimiter.tryAcquire(endpoint, userId, categoryCode, 1);
+    }
+
+    /**
+     * 배치 요청의 사용자별 요청 한도를 항목 수만큼 차감합니다. (카테고리별 한도 포함, 하나라도 거절되면 아무 버킷도 차감하지 않음)
+     */
+    public FloatChatRateLimiter.Rejection checkBatchRateLimit(String userId, List<FloatChatVo> items) {
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> countByCategory = new LinkedHashMap<>();
+        for (FloatChatVo item : items) {
+            countByCategory.merge(item != null && item.getCategoryCode() != null ? item.getCategoryCode() : "", 1, Integer::sum);
+        }
+        return rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_MESSAGE, userId, countByCategory);
+    }
+
+    public Map<String, Object> getRateLimitStats() {
+        return rateLimiter.getStats();
+    }
+
     /**
      * 사용자별 카테고리별 최신 대화 목록을 조회합니다.
      */
@@ -189,6 +518,182 @@ public class FloatChatService {
         return conversations;
     }
 
+    /**
+     * 사용자별 카테고리별 대화 목록을 커서 기반으로 조회합니다. (AI 응답 제외)
+     * 반환 데이터: conversations, nextCursor(마지막 페이지면 null), hasNext
+     */
+    public Map<String, Object> getConversationPage(String userId, String categoryCode, String cursor, int size) {
+        log.debug("대화 페이지 조회 시작 - User: {}, Category: {}, Cursor: {}", userId, categoryCode, cursor);
+        
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("사용자 ID가 필요합니다.");
+        }
+        
+        if (!isCategoryValid(categoryCode)) {
+            throw new IllegalArgumentException("유효하지 않은 카테고리입니다: " + categoryCode);
+        }
+        
+        if (size < 1 || size > MAX_CONVERSATION_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1-" + MAX_CONVERSATION_PAGE_SIZE + " 사이 값이어야 합니다.");
+        }
+        
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDateTime.parse(parts[0]);
+            cursorId = Long.valueOf(parts[1]);
+        }
+        
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        List<FloatChatVo> conversations = floatChatMapper.selectConversationPage(
+            userId, categoryCode, cursorDate, cursorId, size + 1);
+        
+        boolean hasNext = conversations.size() > size;
+        if (hasNext) {
+            conversations = conversations.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            FloatChatVo last = conversations.get(conversations.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedDate(), last.getConversationId());
+        }
+        
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("conversations", conversations);
+        page.put("nextCursor", nextCursor);
+        page.put("hasNext", hasNext);
+        
+        log.info("대화 페이지 조회 완료 - User: {}, Category: {}, 대화 수: {}, 다음 페이지: {}", 
+                userId, categoryCode, conversations.size(), hasNext);
+        
+        return page;
+    }
+
+    /**
+     * 사용자의 특정 대화를 조회합니다. (AI 응답 포함)
+     */
+    public FloatChatVo getConversation(String userId, String categoryCode, Long conversationId) {
+        log.debug("대화 상세 조회 시작 - User: {}, ConversationId: {}", userId, conversationId);
+        
+        if (!isCategoryValid(categoryCode)) {
+            throw new IllegalArgumentException("유효하지 않은 카테고리입니다: " + categoryCode);
+        }
+        
+        FloatChatVo conversation = floatChatMapper.selectConversationById(userId, categoryCode, conversationId);
+        if (conversation == null) {
+            throw new IllegalArgumentException("존재하지 않는 대화입니다: " + conversationId);
+        }
+        
+        return conversation;
+    }
+
+    /**
+     * 사용자의 대화 기록을 검색합니다. (관련도 순, 질문/응답 스니펫 포함)
+     *
+     * @param categoryCode null 이면 전체 카테고리
+     */
+    public List<FloatChatSearchHitVo> searchConversations(String userId, String categoryCode, String query, int size) {
+        log.debug("대화 검색 시작 - User: {}, Category: {}", userId, categoryCode);
+        
+        if (!searchIndex.isEnabled()) {
+            throw new IllegalStateException("대화 검색이 비활성화되어 있습니다.");
+        }
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("검색어가 필요합니다.");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("검색어는 " + MAX_SEARCH_QUERY_LENGTH + "자를 초과할 수 없습니다.");
+        }
+        if (size < 1 || size > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("검색 결과 수는 1-" + MAX_SEARCH_RESULTS + " 사이 값이어야 합니다.");
+        }
+        if (categoryCode != null && !isCategoryValid(categoryCode)) {
+            throw new IllegalArgumentException("유효하지 않은 카테고리입니다: " + categoryCode);
+        }
+        
+        List<FloatChatSearchHitVo> hits = searchIndex.search(userId, categoryCode, query.trim(), size);
+        log.info("대화 검색 완료 - User: {}, 결과: {}건", userId, hits.size());
+        return hits;
+    }
+
+    /**
+     * 대화 검색 색인을 테이블 기준으로 다시 만듭니다. (이미 진행 중이면 false)
+     */
+    public boolean rebuildSearchIndex() {
+        return searchIndex.rebuild();
+    }
+
+    public Map<String, Object> getSearchIndexStats() {
+        return searchIndex.getStats();
+    }
+
+    // === 지식베이스 관리 ===
+
+    /**
+     * 문서를 카테고리 지식베이스에 추가합니다. 이후 답변이 달라질 수 있으므로 해당 카테고리 답변 캐시를 비웁니다.
+     */
+    public Map<String, Object> addKnowledgeDocument(String categoryCode, FloatChatKnowledgeDocumentVo document) {
+        log.debug("지식베이스 문서 추가 시작 - Category: {}", categoryCode);
+        
+        if (!knowledgeBase.isEnabled()) {
+            throw new IllegalStateException("지식베이스가 비활성화되어 있습니다.");
+        }
+        if (!isCategoryValid(categoryCode)) {
+            throw new IllegalArgumentException("유효하지 않은 카테고리입니다: " + categoryCode);
+        }
+        if (document.getSource() == null || document.getSource().trim().isEmpty()) {
+            throw new IllegalArgumentException("문서 출처가 필요합니다.");
+        }
+        if (document.getSource().length() > MAX_KNOWLEDGE_SOURCE_LENGTH) {
+            throw new IllegalArgumentException("문서 출처는 " + MAX_KNOWLEDGE_SOURCE_LENGTH + "자를 초과할 수 없습니다.");
+        }
+        if (document.getContent() == null || document.getContent().trim().isEmpty()) {
+            throw new IllegalArgumentException("문서 내용이 필요합니다.");
+        }
+        if (document.getContent().length() > MAX_KNOWLEDGE_DOCUMENT_LENGTH) {
+            throw new IllegalArgumentException("문서는 " + MAX_KNOWLEDGE_DOCUMENT_LENGTH + "자를 초과할 수 없습니다.");
+        }
+        
+        int added = knowledgeBase.addDocument(categoryCode, document.getSource().trim(), document.getContent());
+        answerCache.invalidateCategory(categoryCode);
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("categoryCode", categoryCode);
+        result.put("addedChunks", added);
+        result.put("totalChunks", knowledgeBase.getChunkCount(categoryCode));
+        return result;
+    }
+
+    /**
+     * 카테고리 지식베이스를 삭제합니다.
+     *
+     * @return 삭제된 조각 수
+     */
+    public int clearKnowledge(String categoryCode) {
+        if (!knowledgeBase.isEnabled()) {
+            throw new IllegalStateException("지식베이스가 비활성화되어 있습니다.");
+        }
+        if (!isCategoryValid(categoryCode)) {
+            throw new IllegalArgumentException("유효하지 않은 카테고리입니다: " + categoryCode);
+        }
+        int removed = knowledgeBase.clear(categoryCode);
+        answerCache.invalidateCategory(categoryCode);
+        return removed;
+    }
+
+    public Map<String, Object> getKnowledgeStats() {
+        return knowledgeBase.getStats();
+    }
+
+    /**
+     * 대화 저장기 상태를 반환합니다.
+     */
+    public Map<String, Object> getConversationWriterStats() {
+        return conversationWriter.getStats();
+    }
+
     /**
      * 피드백을 저장합니다.
      */
@@ -206,57 +711,481 @@ public class FloatChatService {
     }
 
     /**
-     * 시스템 상태를 확인합니다.
+     * 시스템 상태를 확인합니다. (상태 모니터가 보관한 결과 사용)
      */
     public FloatChatVo performHealthCheck() {
-        try {
-            int healthStatus = floatChatMapper.healthCheck();
-            return FloatChatVo.createSuccessResponse(
-                healthStatus == 1 ? "HEALTHY" : "UNHEALTHY", 
-                "시스템 상태 정상"
-            );
-        } catch (Exception e) {
-            log.error("헬스체크 실패", e);
+        String status = healthMonitor.getStatus();
+        if (FloatChatHealthMonitor.STATUS_DOWN.equals(status)) {
             return FloatChatVo.createErrorResponse("시스템 상태 확인 실패");
         }
+        return FloatChatVo.createSuccessResponse(status, "시스템 상태 정상");
+    }
+
+    /**
+     * 마지막으로 확인한 전체 상태 (UP / DEGRADED / DOWN / UNKNOWN)
+     */
+    public String getHealthStatus() {
+        return healthMonitor.getStatus();
+    }
+
+    public Map<String, Object> getHealthLiveness() {
+        return healthMonitor.getLiveness();
+    }
+
+    public Map<String, Object> getHealthReadiness() {
+        return healthMonitor.getReadiness();
+    }
+
+    /**
+     * 비동기 메시지 응답 타임아웃을 기록합니다.
+     */
+    public void recordAsyncTimeout(String categoryCode) {
+        metrics.incrementAsyncTimeout(categoryCode);
     }
 
     // === Private 메서드들 ===
 
     /**
-     * LLMCall을 이용하여 AI 응답을 생성합니다. (시스템 프롬프트 DB에서 조회)
+     * 이전 대화 문맥을 조회합니다. (최초 요청 시에만 DB 조회)
+     */
+    private String loadConversationContext(FloatChatVo request) {
+        long contextStart = System.nanoTime();
+        String conversationContext = contextManager.getContext(request.getUserId(), request.getCategoryCode(),
+            Boolean.TRUE.equals(request.getFollowUp()));
+        metrics.recordStage(FloatChatMetrics.STAGE_CONTEXT, request.getCategoryCode(),
+            FloatChatMetrics.OUTCOME_SUCCESS, contextStart);
+        return conversationContext;
+    }
+
+    /**
+     * 카테고리 지식베이스에서 질문과 관련된 참고 자료를 조회합니다. (관련 자료가 없으면 빈 문자열)
+     */
+    private String retrieveKnowledge(String categoryCode, String userQuestion) {
+        long retrieveStart = System.nanoTime();
+        String knowledge = knowledgeBase.buildReference(categoryCode, userQuestion);
+        metrics.recordStage(FloatChatMetrics.STAGE_RETRIEVE, categoryCode,
+            FloatChatMetrics.OUTCOME_SUCCESS, retrieveStart);
+        return knowledge;
+    }
+
+    /**
+     * 시스템 프롬프트, 이전 대화 문맥, 참고 자료, 질문을 카테고리 토큰 예산에 맞추고 추정 토큰 수를 기록합니다.
+     */
+    private FloatChatPromptBudget.FittedPrompt fitPrompt(String categoryCode, String systemPrompt,
+                                                         String conversationContext, String userQuestion) {
+        String knowledge = retrieveKnowledge(categoryCode, userQuestion);
+        FloatChatPromptBudget.FittedPrompt prompt =
+            promptBudget.fit(categoryCode, systemPrompt, conversationContext, knowledge, userQuestion);
+        metrics.recordPromptTokens(categoryCode, prompt.getEstimatedTokens());
+        return prompt;
+    }
+
+    /**
+     * 검증 → AI 응답 생성 → 저장 순서로 메시지를 처리하고 단계별 소요 시간을 기록합니다.
+     * chunkListener 가 있으면 스트리밍으로 응답을 생성합니다.
+     */
+    private FloatChatVo runPipeline(FloatChatVo request, LlmDeadline deadline, Consumer<String> chunkListener) {
+        try {
+            return runPipelineAsync(request, deadline, chunkListener).join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 검증과 프롬프트 준비는 호출 스레드에서 하고, LLM 응답 이후의 저장은 chatExecutor 에서 이어서 처리합니다.
+     * (LLM 응답을 기다리는 동안 스레드를 점유하지 않음)
      */
-    private FloatChatVo generateAIResponse(FloatChatVo request) {
+    private CompletableFuture<FloatChatVo> runPipelineAsync(FloatChatVo request, LlmDeadline deadline,
+                                                            Consumer<String> chunkListener) {
+        String categoryCode = request.getCategoryCode();
+        long start = System.nanoTime();
+        try {
+            validateMessageRequest(request);
+        } catch (RuntimeException e) {
+            metrics.recordStage(FloatChatMetrics.STAGE_VALIDATE, categoryCode, FloatChatMetrics.OUTCOME_ERROR, start);
+            metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, FloatChatMetrics.OUTCOME_ERROR, start);
+            return CompletableFuture.failedFuture(e);
+        }
+        metrics.recordStage(FloatChatMetrics.STAGE_VALIDATE, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, start);
+        
+        // 프롬프트/LLM 단계는 응답 생성 메서드 안에서 기록
+        CompletableFuture<FloatChatVo> response = chunkListener == null
+            ? generateAIResponseAsync(request, null, true, deadline)
+            : generateAIResponseStreamAsync(request, deadline, chunkListener);
+        
+        return response
+            .thenApplyAsync(aiResponse -> saveResponse(request, aiResponse), completionExecutor)
+            .whenComplete((aiResponse, ex) -> {
+                String outcome;
+                if (ex != null) {
+                    outcome = unwrap(ex) instanceof CancellationException
+                        ? FloatChatMetrics.OUTCOME_CANCELLED : FloatChatMetrics.OUTCOME_ERROR;
+                } else {
+                    outcome = FALLBACK_RESPONSE.equals(aiResponse.getAiResponse())
+                        ? FloatChatMetrics.OUTCOME_FALLBACK : FloatChatMetrics.OUTCOME_SUCCESS;
+                }
+                metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, outcome, start);
+            });
+    }
+
+    /**
+     * 생성된 응답을 저장하고, 정상 응답이면 대화 문맥에 추가합니다.
+     */
+    private FloatChatVo saveResponse(FloatChatVo request, FloatChatVo aiResponse) {
+        String categoryCode = request.getCategoryCode();
+        long stageStart = System.nanoTime();
+        try {
+            saveConversation(request, aiResponse);
+        } catch (RuntimeException e) {
+            metrics.recordStage(FloatChatMetrics.STAGE_SAVE, categoryCode, FloatChatMetrics.OUTCOME_ERROR, stageStart);
+            throw e;
+        }
+        metrics.recordStage(FloatChatMetrics.STAGE_SAVE, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, stageStart);
+        
+        if (!FALLBACK_RESPONSE.equals(aiResponse.getAiResponse())) {
+            contextManager.append(request.getUserId(), categoryCode,
+                request.getUserQuestion(), aiResponse.getAiResponse());
+        }
+        return aiResponse;
+    }
+
+    /**
+     * 남은 배치 항목을 하나씩 처리합니다. 항목 하나가 끝나면 다음 항목을 이어서 시작하고, 남은 항목이 없으면 완료됩니다.
+     */
+    private CompletableFuture<Void> runBatchLane(AtomicInteger nextIndex, String userId, List<FloatChatVo> items,
+                                                 Map<String, String> systemPrompts, LlmDeadline deadline,
+                                                 FloatChatBatchItemVo[] results,
+                                                 Consumer<FloatChatBatchItemVo> itemListener) {
+        int index = nextIndex.getAndIncrement();
+        if (index >= items.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return processBatchItemAsync(index, userId, items.get(index), systemPrompts, deadline)
+            .thenCompose(result -> {
+                results[index] = result;
+                notifyBatchItem(itemListener, result);
+                return runBatchLane(nextIndex, userId, items, systemPrompts, deadline, results, itemListener);
+            });
+    }
+
+    /**
+     * 배치 항목 하나의 AI 응답을 생성합니다. 실패하거나 기본 안내 문구로 대체되면 오류 항목으로 완료됩니다.
+     */
+    private CompletableFuture<FloatChatBatchItemVo> processBatchItemAsync(int index, String userId, FloatChatVo item,
+                                                                         Map<String, String> systemPrompts,
+                                                                         LlmDeadline deadline) {
+        String categoryCode = item != null ? item.getCategoryCode() : null;
+        long start = System.nanoTime();
+        if (item == null || !item.isValidMessage()) {
+            metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, FloatChatMetrics.OUTCOME_ERROR, start);
+            return CompletableFuture.completedFuture(
+                FloatChatBatchItemVo.error(index, categoryCode, "메시지 요청이 유효하지 않습니다."));
+        }
+        String systemPrompt = systemPrompts.get(categoryCode);
+        if (systemPrompt == null) {
+            metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, FloatChatMetrics.OUTCOME_ERROR, start);
+            return CompletableFuture.completedFuture(
+                FloatChatBatchItemVo.error(index, categoryCode, "존재하지 않는 카테고리입니다: " + categoryCode));
+        }
+        
+        if (deadline.isCancelled() || deadline.isExpired()) {
+            metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, FloatChatMetrics.OUTCOME_CANCELLED, start);
+            return CompletableFuture.completedFuture(
+                FloatChatBatchItemVo.error(index, categoryCode, "배치 처리 시간이 초과되었습니다."));
+        }
+        
+        item.setUserId(userId);
+        return generateAIResponseAsync(item, systemPrompt, false, deadline)
+            .handle((aiResponse, ex) -> {
+                FloatChatBatchItemVo result;
+                String outcome;
+                if (ex != null) {
+                    boolean cancelled = unwrap(ex) instanceof CancellationException;
+                    outcome = cancelled ? FloatChatMetrics.OUTCOME_CANCELLED : FloatChatMetrics.OUTCOME_ERROR;
+                    result = FloatChatBatchItemVo.error(index, categoryCode,
+                        cancelled ? "배치 처리가 취소되었습니다." : FALLBACK_RESPONSE);
+                } else if (FALLBACK_RESPONSE.equals(aiResponse.getAiResponse())) {
+                    outcome = FloatChatMetrics.OUTCOME_FALLBACK;
+                    result = FloatChatBatchItemVo.error(index, categoryCode, FALLBACK_RESPONSE);
+                } else {
+                    outcome = FloatChatMetrics.OUTCOME_SUCCESS;
+                    result = FloatChatBatchItemVo.success(index, categoryCode, aiResponse.getAiResponse());
+                }
+                metrics.recordStage(FloatChatMetrics.STAGE_TOTAL, categoryCode, outcome, start);
+                return result;
+            });
+    }
+
+    private void notifyBatchItem(Consumer<FloatChatBatchItemVo> itemListener, FloatChatBatchItemVo item) {
+        if (itemListener == null) {
+            return;
+        }
+        try {
+            itemListener.accept(item);
+        } catch (RuntimeException e) {
+            // 클라이언트 연결 종료 등 - 나머지 항목 처리와 저장은 계속 진행
+            log.debug("배치 항목 결과 전달 실패 - Index: {}: {}", item.getIndex(), e.getMessage());
+        }
+    }
+
+    /**
+     * 성공한 배치 항목의 대화를 한 번에 저장하고 conversationId 를 채웁니다.
+     */
+    private List<FloatChatBatchItemVo> saveBatchConversations(String userId, List<FloatChatVo> items,
+                                                              FloatChatBatchItemVo[] results) {
+        List<FloatChatVo> conversations = new ArrayList<>();
+        List<FloatChatBatchItemVo> savedItems = new ArrayList<>();
+        for (FloatChatBatchItemVo result : results) {
+            if (!Boolean.TRUE.equals(result.getSuccess())) {
+                continue;
+            }
+            FloatChatVo conversationVo = new FloatChatVo();
+            conversationVo.setCategoryCode(result.getCategoryCode());
+            conversationVo.setUserId(userId);
+            conversationVo.setUserQuestion(items.get(result.getIndex()).getUserQuestion());
+            conversationVo.setAiResponse(result.getAiResponse());
+            conversations.add(conversationVo);
+            savedItems.add(result);
+        }
+        
+        conversationWriter.writeAll(conversations);
+        for (int i = 0; i < conversations.size(); i++) {
+            savedItems.get(i).setConversationId(conversations.get(i).getConversationId());
+            searchIndex.add(conversations.get(i));
+        }
+        
+        log.info("배치 메시지 처리 완료 - User: {}, 성공: {}/{}", userId, conversations.size(), results.length);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * LlmClient를 이용하여 AI 응답을 생성합니다.
+     * 프롬프트 준비까지만 호출 스레드에서 하고, LLM 호출은 스케줄러 차례가 되면 시작해 응답이 오면 반환한 future 를 완료합니다.
+     *
+     * @param resolvedSystemPrompt 미리 조회한 시스템 프롬프트 (null 이면 카테고리 캐시에서 조회)
+     * @param useContext false 이면 이전 대화 문맥 없이 단독 질문으로 처리
+     * @param deadline 취소되면 기본 안내 문구 대신 CancellationException 으로 완료
+     */
+    private CompletableFuture<FloatChatVo> generateAIResponseAsync(FloatChatVo request, String resolvedSystemPrompt,
+                                                                   boolean useContext, LlmDeadline deadline) {
         String categoryCode = request.getCategoryCode();
         String userQuestion = request.getUserQuestion();
         
         log.info("AI 응답 생성 시작 - Category: {}", categoryCode);
         
+        String requestKey;
+        boolean cacheEnabled;
+        CompletableFuture<String> llmCall;
+        long llmStart;
         try {
-            // DB에서 시스템 프롬프트 조회
-            String systemPrompt = getSystemPrompt(categoryCode);
+            // 캐시에서 시스템 프롬프트 조회
+            long promptStart = System.nanoTime();
+            String systemPrompt = resolvedSystemPrompt != null ? resolvedSystemPrompt : getSystemPrompt(categoryCode);
+            
+            // 동일 질문 답변 캐시 조회 (대화 저장은 호출 측에서 그대로 수행)
+            requestKey = FloatChatAnswerCache.buildKey(categoryCode, userQuestion, systemPrompt);
+            metrics.recordStage(FloatChatMetrics.STAGE_PROMPT, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, promptStart);
             
-            // 사용자 프롬프트 생성
-            String userPrompt = buildUserPrompt(userQuestion);
+            // 이전 대화 문맥 (문맥이 있으면 답변이 달라지므로 답변 캐시와 요청 병합을 사용하지 않음)
+            String conversationContext = useContext ? loadConversationContext(request) : "";
+            boolean contextual = !conversationContext.isEmpty();
+            cacheEnabled = !contextual && answerCache.isEnabled(categoryCode);
+            if (cacheEnabled) {
+                String cachedAnswer = answerCache.get(requestKey);
+                if (cachedAnswer != null) {
+                    log.info("AI 응답 캐시 적중 - Category: {}", categoryCode);
+                    return CompletableFuture.completedFuture(FloatChatVo.createAIResponse(cachedAnswer));
+                }
+            }
             
-            // LLMCall 호출
-            String llmResponse = LLMCall(systemPrompt, userPrompt);
+            // 토큰 예산에 맞춰 프롬프트 생성
+            FloatChatPromptBudget.FittedPrompt prompt = fitPrompt(categoryCode, systemPrompt, conversationContext, userQuestion);
+            String llmSystemPrompt = prompt.getSystemPrompt();
+            String userPrompt = buildUserPrompt(prompt.getUserQuestion(), prompt.getConversationContext(), prompt.getKnowledge());
+            
+            // LLM 호출 (동시에 들어온 동일 질문은 하나의 호출을 공유 - 공유 호출은 한 요청의 취소로 중단되지 않도록 분리된 기한 사용)
+            // 호출은 스케줄러가 사용자/카테고리별로 공정하게 차례를 정해 시작
+            String userId = request.getUserId();
+            llmStart = System.nanoTime();
+            llmCall = contextual
+                ? llmScheduler.submit(userId, categoryCode, deadline,
+                    () -> llmClient.call(categoryCode, llmSystemPrompt, userPrompt, deadline))
+                : awaitShared(requestCoalescer.call(requestKey, () -> {
+                    LlmDeadline shared = deadline.detached();
+                    return llmScheduler.submit(userId, categoryCode, shared,
+                        () -> llmClient.call(categoryCode, llmSystemPrompt, userPrompt, shared));
+                }), deadline);
+        } catch (Exception e) {
+            try {
+                return CompletableFuture.completedFuture(responseFallback(categoryCode, deadline, e));
+            } catch (RuntimeException cancelled) {
+                return CompletableFuture.failedFuture(cancelled);
+            }
+        }
+        
+        return llmCall.handle((llmResponse, ex) -> {
+            if (ex != null) {
+                metrics.recordStage(FloatChatMetrics.STAGE_LLM, categoryCode, FloatChatMetrics.OUTCOME_ERROR, llmStart);
+                metrics.incrementLlmError(categoryCode);
+                Throwable cause = unwrap(ex);
+                return responseFallback(categoryCode, deadline,
+                    cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+            }
+            metrics.recordStage(FloatChatMetrics.STAGE_LLM, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, llmStart);
+            if (cacheEnabled) {
+                answerCache.put(requestKey, categoryCode, llmResponse);
+            }
             
             // 응답을 그대로 사용 (복잡한 파싱 없음)
             return FloatChatVo.createAIResponse(llmResponse);
+        });
+    }
+
+    /**
+     * AI 응답 생성 실패를 처리합니다. 취소되었으면 CancellationException 을 던지고, 아니면 기본 안내 문구를 반환합니다.
+     */
+    private FloatChatVo responseFallback(String categoryCode, LlmDeadline deadline, Exception e) {
+        if (deadline.isCancelled()) {
+            throw cancelled(e);
+        }
+        log.error("AI 응답 생성 실패", e);
+        metrics.incrementFallback(categoryCode);
+        return FloatChatVo.createAIResponse(FALLBACK_RESPONSE);
+    }
+
+    /**
+     * LlmClient 스트리밍 호출로 AI 응답을 청크 단위로 생성합니다.
+     * 프롬프트 준비까지만 호출 스레드에서 하고, 스트림이 끝나면 반환한 future 를 완료합니다.
+     * 첫 청크 전에 실패하면 기본 안내 문구를 응답으로 전달하고, 전달 도중 실패하면 예외로 완료합니다.
+     */
+    private CompletableFuture<FloatChatVo> generateAIResponseStreamAsync(FloatChatVo request, LlmDeadline deadline,
+                                                                         Consumer<String> chunkListener) {
+        String categoryCode = request.getCategoryCode();
+        String userQuestion = request.getUserQuestion();
+        
+        log.info("AI 스트리밍 응답 생성 시작 - Category: {}", categoryCode);
+        
+        StringBuilder fullResponse = new StringBuilder();
+        String cacheKey;
+        CompletableFuture<Void> stream;
+        long llmStart;
+        try {
+            long promptStart = System.nanoTime();
+            String systemPrompt = getSystemPrompt(categoryCode);
+            
+            metrics.recordStage(FloatChatMetrics.STAGE_PROMPT, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, promptStart);
+            
+            String conversationContext = loadConversationContext(request);
+            cacheKey = conversationContext.isEmpty() && answerCache.isEnabled(categoryCode)
+                ? FloatChatAnswerCache.buildKey(categoryCode, userQuestion, systemPrompt) : null;
+            String cachedAnswer = cacheKey != null ? answerCache.get(cacheKey) : null;
+            if (cachedAnswer != null) {
+                log.info("AI 스트리밍 응답 캐시 적중 - Category: {}", categoryCode);
+                chunkListener.accept(cachedAnswer);
+                return CompletableFuture.completedFuture(FloatChatVo.createAIResponse(cachedAnswer));
+            }
+            
+            FloatChatPromptBudget.FittedPrompt prompt = fitPrompt(categoryCode, systemPrompt, conversationContext, userQuestion);
+            String userPrompt = buildUserPrompt(prompt.getUserQuestion(), prompt.getConversationContext(), prompt.getKnowledge());
             
+            llmStart = System.nanoTime();
+            stream = llmScheduler.submit(request.getUserId(), categoryCode, deadline,
+                () -> llmClient.stream(categoryCode, prompt.getSystemPrompt(), userPrompt, deadline, chunk -> {
+                    fullResponse.append(chunk);
+                    chunkListener.accept(chunk);
+                }));
         } catch (Exception e) {
-            log.error("AI 응답 생성 실패", e);
-            return FloatChatVo.createAIResponse(
-                "죄송합니다. 일시적인 오류로 응답을 생성할 수 없습니다. 잠시 후 다시 시도해주세요."
-            );
+            try {
+                return CompletableFuture.completedFuture(streamFallback(categoryCode, deadline, chunkListener, fullResponse, e));
+            } catch (RuntimeException fallbackError) {
+                return CompletableFuture.failedFuture(fallbackError);
+            }
         }
+        
+        // 기한 초과는 JVM 공용 타이머 스레드에서 완료되므로 기본 안내 문구 전송과 이후 처리는 chatExecutor 에서 실행
+        return stream.handleAsync((ignored, ex) -> {
+            if (ex != null) {
+                metrics.recordStage(FloatChatMetrics.STAGE_LLM, categoryCode, FloatChatMetrics.OUTCOME_ERROR, llmStart);
+                metrics.incrementLlmError(categoryCode);
+                Throwable cause = unwrap(ex);
+                return streamFallback(categoryCode, deadline, chunkListener, fullResponse,
+                    cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+            }
+            metrics.recordStage(FloatChatMetrics.STAGE_LLM, categoryCode, FloatChatMetrics.OUTCOME_SUCCESS, llmStart);
+            
+            if (cacheKey != null) {
+                answerCache.put(cacheKey, categoryCode, fullResponse.toString());
+            }
+            return FloatChatVo.createAIResponse(fullResponse.toString());
+        }, completionExecutor);
     }
 
     /**
-     * 기본 시스템 프롬프트를 생성합니다. (DB에 프롬프트가 없을 때 사용)
+     * 스트리밍 응답 생성 실패를 처리합니다. 취소되었거나 이미 일부를 전달했으면 예외를 던지고, 아니면 기본 안내 문구를 전달합니다.
      */
-    private String buildDefaultSystemPrompt(String categoryCode) {
+    private FloatChatVo streamFallback(String categoryCode, LlmDeadline deadline, Consumer<String> chunkListener,
+                                       StringBuilder fullResponse, Exception e) {
+        if (deadline.isCancelled()) {
+            throw cancelled(e);
+        }
+        if (fullResponse.length() > 0) {
+            throw new IllegalStateException("스트리밍 응답 전달 중단", e);
+        }
+        log.error("AI 스트리밍 응답 생성 실패", e);
+        metrics.incrementFallback(categoryCode);
+        chunkListener.accept(FALLBACK_RESPONSE);
+        return FloatChatVo.createAIResponse(FALLBACK_RESPONSE);
+    }
+
+    /**
+     * 여러 요청이 공유하는 호출의 결과를 이 요청의 기한까지만 기다리는 future 를 반환합니다.
+     * 공유 호출은 처음 요청한 쪽의 기한으로 진행되므로, 이 요청의 기한 만료/취소 시에는 공유 호출을 두고 먼저 끝냅니다.
+     */
+    private static <T> CompletableFuture<T> awaitShared(CompletableFuture<T> shared, LlmDeadline deadline) {
+        CompletableFuture<T> own = shared.copy();
+        if (deadline.hasDeadline()) {
+            own.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        }
+        deadline.onCancel(() -> own.cancel(false));
+        return own;
+    }
+
+    /**
+     * 취소된 요청의 예외를 CancellationException 으로 변환합니다. (기본 안내 문구로 대체하지 않음)
+     */
+    private static CancellationException cancelled(Exception cause) {
+        if (cause instanceof CancellationException) {
+            return (CancellationException) cause;
+        }
+        CancellationException cancellation = new CancellationException("클라이언트 요청 취소");
+        cancellation.initCause(cause);
+        return cancellation;
+    }
+
+    private void executeCompletion(Runnable task) {
+        try {
+            chatExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * CompletableFuture 가 감싼 원래 예외를 꺼냅니다.
+     */
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * 기본 시스템 프롬프트를 생성합니다. (DB에 프롬프트가 없을 때 사용, 벤치마크에서 직접 호출)
+     */
+    static String buildDefaultSystemPrompt(String categoryCode) {
         StringBuilder systemPrompt = new StringBuilder();
         
         systemPrompt.append("당신은 SWP(Software Platform) 전문 AI 어시스턴트입니다.\n");
@@ -304,10 +1233,32 @@ public class FloatChatService {
     }
 
     /**
-     * 사용자 프롬프트를 생성합니다.
+     * 사용자 프롬프트를 생성합니다. (벤치마크에서 직접 호출)
+     */
+    static String buildUserPrompt(String userQuestion) {
+        return buildUserPrompt(userQuestion, "", "");
+    }
+
+    /**
+     * 이전 대화 문맥을 포함한 사용자 프롬프트를 생성합니다.
+     */
+    static String buildUserPrompt(String userQuestion, String conversationContext) {
+        return buildUserPrompt(userQuestion, conversationContext, "");
+    }
+
+    /**
+     * 이전 대화 문맥과 지식베이스 참고 자료를 포함한 사용자 프롬프트를 생성합니다.
      */
-    private String buildUserPrompt(String userQuestion) {
+    static String buildUserPrompt(String userQuestion, String conversationContext, String knowledge) {
         StringBuilder userPrompt = new StringBuilder();
+        if (!knowledge.isEmpty()) {
+            userPrompt.append(knowledge).append('\n');
+            userPrompt.append("위 참고 자료에 관련 내용이 있으면 우선 활용하고, 없는 내용은 추측하지 마세요.\n\n");
+        }
+        if (!conversationContext.isEmpty()) {
+            userPrompt.append(conversationContext).append('\n');
+            userPrompt.append("위 대화에 이어지는 질문입니다. 필요한 경우 이전 대화를 참고하세요.\n\n");
+        }
         userPrompt.append("사용자 질문: ").append(userQuestion).append("\n\n");
         userPrompt.append("위 질문에 대해 답변해주세요. ");
         userPrompt.append("만약 답변 내용이 목록, 현황, 비교, 통계, 데이터 등의 구조화된 정보라면 ");
@@ -316,21 +1267,28 @@ public class FloatChatService {
         return userPrompt.toString();
     }
 
-    /**
-     * LLMCall 함수 (이미 구현되어 있다고 가정)
-     */
-    private String LLMCall(String systemPrompt, String userPrompt) {
-        // TODO: 실제 LLM API 호출 구현
-        log.debug("LLM 호출 - System: {}, User: {}", 
-                systemPrompt.substring(0, Math.min(100, systemPrompt.length())),
-                userPrompt.substring(0, Math.min(100, userPrompt.length())));
-        
-        // 임시 구현 (실제 환경에서는 제거하고 실제 LLM 호출 코드로 대체)
-        return "LLMCall 함수가 아직 구현되지 않았습니다. 실제 LLM API 연동이 필요합니다.";
-    }
-
     // ===== 헬퍼 메서드들 =====
     
+    private static String encodeCursor(LocalDateTime createdDate, Long conversationId) {
+        String raw = createdDate + "|" + conversationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("유효하지 않은 커서입니다.");
+        }
+    }
+    
     private void validateMessageRequest(FloatChatVo request) {
         if (!request.isValidMessage()) {
             throw new IllegalArgumentException("메시지 요청이 유효하지 않습니다.");
@@ -341,6 +1299,12 @@ public class FloatChatService {
         }
     }
 
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.trim().isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException("Idempotency-Key 는 1~" + MAX_IDEMPOTENCY_KEY_LENGTH + "자여야 합니다.");
+        }
+    }
+
     private void saveConversation(FloatChatVo request, FloatChatVo aiResponse) {
         FloatChatVo conversationVo = new FloatChatVo();
         conversationVo.setCategoryCode(request.getCategoryCode());
@@ -348,21 +1312,28 @@ public class FloatChatService {
         conversationVo.setUserQuestion(request.getUserQuestion());
         conversationVo.setAiResponse(aiResponse.getAiResponse());
         
-        floatChatMapper.insertConversation(conversationVo);
+        conversationWriter.write(conversationVo);
         aiResponse.setConversationId(conversationVo.getConversationId());
+        searchIndex.add(conversationVo);
     }
 
-    @Transactional
-    public int cleanupOldData(int retentionDays) {
+    /**
+     * 보존 기간이 지난 대화와 피드백을 PK 구간 단위로 나누어 삭제합니다. (FloatChatRetentionJob)
+     */
+    public long cleanupOldData(int retentionDays) {
         log.info("오래된 데이터 정리 시작 - 보존 기간: {}일", retentionDays);
         
         if (retentionDays < 1) {
             throw new IllegalArgumentException("보존 기간은 1일 이상이어야 합니다.");
         }
         
-        int deletedCount = floatChatMapper.deleteOldConversations(retentionDays);
+        long deletedCount = retentionJob.runNow(retentionDays);
         log.info("오래된 데이터 정리 완료 - 삭제된 레코드 수: {}", deletedCount);
         
         return deletedCount;
     }
+
+    public Map<String, Object> getRetentionStats() {
+        return retentionJob.getStats();
+    }
 }
\ No newline at end of file
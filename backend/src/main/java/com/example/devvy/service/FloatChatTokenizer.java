@@ -0,0 +1,76 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SWP Float Chat 텍스트 색인어 분리기
+ *
+ * 대화 검색 색인과 지식베이스 임베딩이 같은 기준으로 텍스트를 나누도록 공용으로 사용합니다.
+ * 한글/한자/가나는 연속된 두 글자(bigram), 그 외 문자는 단어 단위로 나눕니다.
+ */
+public final class FloatChatTokenizer {
+
+    private FloatChatTokenizer() {
+    }
+
+    /**
+     * 텍스트를 색인어로 나눕니다. (NFKC, 소문자, 한글/한자 bigram, 그 외 단어)
+     *
+     * @param frequencies null 이 아니면 색인어별 빈도를 누적
+     * @return 색인어 수
+     */
+    public static int tokenize(String text, Set<String> terms, Map<String, Integer> frequencies) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int count = 0;
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            char ch = normalized.charAt(i);
+            int start = i;
+            if (isBigramScript(ch)) {
+                while (i < length && isBigramScript(normalized.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    count += emit(normalized.substring(start, i), terms, frequencies);
+                } else {
+                    for (int j = start; j < i - 1; j++) {
+                        count += emit(normalized.substring(j, j + 2), terms, frequencies);
+                    }
+                }
+            } else if (Character.isLetterOrDigit(ch)) {
+                while (i < length && Character.isLetterOrDigit(normalized.charAt(i))
+                        && !isBigramScript(normalized.charAt(i))) {
+                    i++;
+                }
+                count += emit(normalized.substring(start, i), terms, frequencies);
+            } else {
+                i++;
+            }
+        }
+        return count;
+    }
+
+    private static int emit(String term, Set<String> terms, Map<String, Integer> frequencies) {
+        if (terms != null) {
+            terms.add(term);
+        }
+        if (frequencies != null) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return 1;
+    }
+
+    private static boolean isBigramScript(char ch) {
+        return (ch >= 0xAC00 && ch <= 0xD7A3)      // 한글 음절
+                || (ch >= 0x3130 && ch <= 0x318F)   // 한글 호환 자모
+                || (ch >= 0x4E00 && ch <= 0x9FFF)   // 한자
+                || (ch >= 0x3040 && ch <= 0x30FF);  // 가나
+    }
+}
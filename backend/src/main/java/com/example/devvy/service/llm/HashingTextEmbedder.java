@@ -0,0 +1,73 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import com.temporary22.aiagent.impl.aiAgent.FloatChatTokenizer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 특징 해싱(feature hashing) 기반 텍스트 임베딩
+ *
+ * 색인어(한글 bigram, 그 외 단어)를 해시로 고정 차원에 흩뿌리고 빈도는 1 + log(tf) 로 완화합니다.
+ * 외부 모델 없이 CPU 만으로 동작하며, 같은 입력에는 항상 같은 벡터를 돌려줍니다.
+ * 해시 충돌에 의한 부호 편향을 줄이기 위해 해시의 한 비트로 부호를 정합니다.
+ */
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private final int dimension;
+
+    public HashingTextEmbedder(int dimension) {
+        if (dimension < 16) {
+            throw new IllegalArgumentException("임베딩 차원은 16 이상이어야 합니다: " + dimension);
+        }
+        this.dimension = dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        FloatChatTokenizer.tokenize(text, null, frequencies);
+
+        float[] vector = new float[dimension];
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            int hash = mix(entry.getKey().hashCode());
+            int index = (hash >>> 1) % dimension;
+            float weight = (float) (1.0 + Math.log(entry.getValue()));
+            vector[index] += (hash & 1) == 0 ? weight : -weight;
+        }
+
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < dimension; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public String getId() {
+        return "hashing-v1-" + dimension;
+    }
+
+    /**
+     * String.hashCode 의 하위 비트 분포를 고르게 합니다. (murmur3 fmix32)
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
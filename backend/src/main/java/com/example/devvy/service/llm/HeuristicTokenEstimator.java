@@ -0,0 +1,137 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.Locale;
+
+/**
+ * 문자 종류별 가중치 기반 토큰 추정기
+ *
+ * 가중치는 문자당 1/1000 토큰 단위의 정수로 누적하고 마지막에 올림하므로 부동소수점 연산과 할당이 없습니다.
+ * BPE 토크나이저는 한글/한자를 영문보다 훨씬 잘게 나누므로 문자 종류별로 가중치를 따로 둡니다.
+ */
+public final class HeuristicTokenEstimator implements TokenEstimator {
+
+    private static final int MILLI = 1000;
+
+    /**
+     * cl100k 계열 (gpt-3.5, gpt-4)
+     */
+    public static final HeuristicTokenEstimator CL100K =
+            new HeuristicTokenEstimator("cl100k", 250, 340, 120, 600, 1200, 1300, 1000);
+
+    /**
+     * o200k 계열 (gpt-4o 이후) - 한글/한자 어휘가 늘어 문자당 토큰 수가 적음
+     */
+    public static final HeuristicTokenEstimator O200K =
+            new HeuristicTokenEstimator("o200k", 230, 340, 120, 600, 700, 900, 1000);
+
+    private final String name;
+    private final int letter;
+    private final int digit;
+    private final int whitespace;
+    private final int punctuation;
+    private final int hangul;
+    private final int cjk;
+    private final int other;
+
+    public HeuristicTokenEstimator(String name, int letter, int digit, int whitespace,
+                                   int punctuation, int hangul, int cjk, int other) {
+        this.name = name;
+        this.letter = letter;
+        this.digit = digit;
+        this.whitespace = whitespace;
+        this.punctuation = punctuation;
+        this.hangul = hangul;
+        this.cjk = cjk;
+        this.other = other;
+    }
+
+    /**
+     * 모델 이름으로 추정 기준을 선택합니다. 알 수 없는 모델은 보수적인 cl100k 기준을 사용합니다.
+     */
+    public static HeuristicTokenEstimator forModel(String model) {
+        String normalized = model == null ? "" : model.toLowerCase(Locale.ROOT);
+        if (normalized.equals("o200k") || normalized.contains("gpt-4o") || normalized.contains("gpt-4.1")
+                || normalized.startsWith("o1") || normalized.startsWith("o3") || normalized.startsWith("o4")) {
+            return O200K;
+        }
+        return CL100K;
+    }
+
+    @Override
+    public int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        long milli = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            milli += weight(text.charAt(i));
+        }
+        return toTokens(milli);
+    }
+
+    @Override
+    public int fitPrefix(CharSequence text, int maxTokens) {
+        long limit = (long) Math.max(0, maxTokens) * MILLI;
+        long milli = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            milli += weight(text.charAt(i));
+            if (milli > limit) {
+                return avoidSplitSurrogate(text, i);
+            }
+        }
+        return length;
+    }
+
+    @Override
+    public int fitSuffix(CharSequence text, int maxTokens) {
+        long limit = (long) Math.max(0, maxTokens) * MILLI;
+        long milli = 0;
+        for (int i = text.length() - 1; i >= 0; i--) {
+            milli += weight(text.charAt(i));
+            if (milli > limit) {
+                int start = i + 1;
+                return start < text.length() && Character.isLowSurrogate(text.charAt(start)) ? start + 1 : start;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    // === Private 메서드들 ===
+
+    private int weight(char ch) {
+        if (ch < 0x80) {
+            if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')) {
+                return letter;
+            }
+            if (ch >= '0' && ch <= '9') {
+                return digit;
+            }
+            if (ch == ' ' || ch == '\n' || ch == '\t' || ch == '\r') {
+                return whitespace;
+            }
+            return punctuation;
+        }
+        if ((ch >= 0xAC00 && ch <= 0xD7A3) || (ch >= 0x3130 && ch <= 0x318F) || (ch >= 0x1100 && ch <= 0x11FF)) {
+            return hangul;
+        }
+        if ((ch >= 0x4E00 && ch <= 0x9FFF) || (ch >= 0x3040 && ch <= 0x30FF)) {
+            return cjk;
+        }
+        // 서로게이트 쌍은 두 char 합쳐 other 하나로 계산
+        return Character.isSurrogate(ch) ? other / 2 : other;
+    }
+
+    private static int avoidSplitSurrogate(CharSequence text, int end) {
+        return end > 0 && Character.isHighSurrogate(text.charAt(end - 1)) ? end - 1 : end;
+    }
+
+    private static int toTokens(long milli) {
+        return (int) ((milli + MILLI - 1) / MILLI);
+    }
+}
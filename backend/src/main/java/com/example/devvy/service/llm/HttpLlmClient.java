@@ -0,0 +1,240 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * OpenAI 호환 Chat Completions API 를 호출하는 기본 LlmClient 구현
+ *
+ * 하나의 java.net.http.HttpClient 를 공유하여 커넥션(HTTP/2 멀티플렉싱, HTTP/1.1 keep-alive)을
+ * 재사용하므로 요청마다 TCP/TLS 핸드셰이크 비용이 발생하지 않습니다.
+ * 모든 호출은 sendAsync 기반이며 스트리밍 응답은 라인 단위 구독자로 처리합니다.
+ */
+public class HttpLlmClient implements LlmClient {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpLlmClient.class);
+    private static final String STREAM_DATA_PREFIX = "data:";
+    private static final String STREAM_DONE = "[DONE]";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI completionsUri;
+    private final String apiKey;
+    private final String model;
+    private final Duration readTimeout;
+
+    public HttpLlmClient(String baseUrl, String apiKey, String model,
+                         Duration connectTimeout, Duration readTimeout, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.objectMapper = objectMapper;
+        this.completionsUri = URI.create(stripTrailingSlash(baseUrl) + "/v1/chat/completions");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.readTimeout = readTimeout;
+        log.info("LLM 클라이언트 초기화 - Endpoint: {}, Model: {}, ConnectTimeout: {}, ReadTimeout: {}",
+                completionsUri, model, connectTimeout, readTimeout);
+    }
+
+    @Override
+    public CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline) {
+        Duration timeout = effectiveTimeout(deadline);
+        if (timeout.isZero()) {
+            return CompletableFuture.failedFuture(new TimeoutException("LLM 호출 기한 초과"));
+        }
+        HttpRequest request = buildRequest(systemPrompt, userPrompt, false, timeout);
+
+        CompletableFuture<HttpResponse<byte[]>> send =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<String> result = send
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new LlmCallException("LLM 응답 오류 - HTTP " + response.statusCode());
+                    }
+                    try {
+                        JsonNode body = objectMapper.readTree(response.body());
+                        return body.path("choices").path(0).path("message").path("content").asText("");
+                    } catch (IOException e) {
+                        throw new LlmCallException("LLM 응답 파싱 실패", e);
+                    }
+                });
+        // 시간 초과, 호출 측 취소(클라이언트 이탈, 헤지 패배) 시 HTTP 교환도 중단
+        result.whenComplete((response, error) -> {
+            if (error != null) {
+                send.cancel(true);
+            }
+        });
+        deadline.onCancel(() -> result.cancel(true));
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline, Consumer<String> onChunk) {
+        Duration timeout = effectiveTimeout(deadline);
+        if (timeout.isZero()) {
+            return CompletableFuture.failedFuture(new TimeoutException("LLM 호출 기한 초과"));
+        }
+        HttpRequest request = buildRequest(systemPrompt, userPrompt, true, timeout);
+        ChunkSubscriber subscriber = new ChunkSubscriber(onChunk);
+
+        HttpResponse.BodyHandler<Void> handler = responseInfo -> {
+            if (responseInfo.statusCode() != 200) {
+                subscriber.result.completeExceptionally(
+                        new LlmCallException("LLM 스트리밍 응답 오류 - HTTP " + responseInfo.statusCode()));
+                return HttpResponse.BodySubscribers.replacing(null);
+            }
+            return HttpResponse.BodySubscribers.fromLineSubscriber(
+                    subscriber, s -> null, StandardCharsets.UTF_8, "\n");
+        };
+
+        CompletableFuture<HttpResponse<Void>> send = httpClient.sendAsync(request, handler);
+        send.whenComplete((response, ex) -> {
+            if (ex != null) {
+                subscriber.result.completeExceptionally(ex);
+            }
+        });
+        // 요청 기한은 스트림 전체에 적용 (HttpRequest.timeout 은 응답 헤더 수신까지만 적용됨)
+        if (deadline.hasDeadline()) {
+            subscriber.result.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        }
+        subscriber.result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                subscriber.cancelSubscription();
+                send.cancel(true);
+            }
+        });
+        deadline.onCancel(() -> subscriber.result.cancel(true));
+        return subscriber.result;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return completionsUri.toString();
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 요청 기한과 read-timeout 중 짧은 쪽 (기한이 지났으면 0)
+     */
+    private Duration effectiveTimeout(LlmDeadline deadline) {
+        long remaining = deadline.remainingMillis();
+        return remaining < readTimeout.toMillis() ? Duration.ofMillis(remaining) : readTimeout;
+    }
+
+    private HttpRequest buildRequest(String systemPrompt, String userPrompt, boolean stream, Duration timeout) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("model", model);
+        payload.put("stream", stream);
+        ArrayNode messages = payload.putArray("messages");
+        messages.addObject().put("role", "system").put("content", systemPrompt);
+        messages.addObject().put("role", "user").put("content", userPrompt);
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new LlmCallException("LLM 요청 생성 실패", e);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(completionsUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (apiKey != null && !apiKey.isEmpty()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return builder.build();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * SSE 라인을 받아 delta.content 를 onChunk 로 전달하는 구독자
+     */
+    private final class ChunkSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onChunk;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+
+        private ChunkSubscriber(Consumer<String> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (result.isDone()) {
+                subscription.cancel();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        void cancelSubscription() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (result.isDone() || !line.startsWith(STREAM_DATA_PREFIX)) {
+                return;
+            }
+            String data = line.substring(STREAM_DATA_PREFIX.length()).trim();
+            if (STREAM_DONE.equals(data)) {
+                result.complete(null);
+                return;
+            }
+            try {
+                JsonNode event = objectMapper.readTree(data);
+                String content = event.path("choices").path(0).path("delta").path("content").asText("");
+                if (!content.isEmpty()) {
+                    onChunk.accept(content);
+                }
+            } catch (Exception e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(null);
+        }
+    }
+}
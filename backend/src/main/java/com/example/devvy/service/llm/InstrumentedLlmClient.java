@@ -0,0 +1,62 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * 호출 지연시간과 성공/실패를 기록하는 LlmClient 데코레이터 (호출 측 취소는 기록하지 않음)
+ */
+public class InstrumentedLlmClient implements LlmClient {
+
+    private final LlmClient delegate;
+    private final LlmLatencyRecorder recorder;
+
+    public InstrumentedLlmClient(LlmClient delegate, LlmLatencyRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline) {
+        long start = System.nanoTime();
+        CompletableFuture<String> call = delegate.call(categoryCode, systemPrompt, userPrompt, deadline);
+        CompletableFuture<String> result = call.whenComplete((response, error) -> record(start, error));
+        result.whenComplete((response, error) -> call.cancel(true));
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline, Consumer<String> onChunk) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> stream = delegate.stream(categoryCode, systemPrompt, userPrompt, deadline, onChunk);
+        CompletableFuture<Void> result = stream.whenComplete((ignored, error) -> record(start, error));
+        result.whenComplete((ignored, error) -> stream.cancel(true));
+        return result;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return delegate.getEndpoint();
+    }
+
+    public LlmLatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    private void record(long start, Throwable error) {
+        long elapsed = System.nanoTime() - start;
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        if (error == null) {
+            recorder.recordSuccess(elapsed);
+        } else {
+            recorder.recordError(elapsed);
+        }
+    }
+}
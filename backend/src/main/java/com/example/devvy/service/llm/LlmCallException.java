@@ -0,0 +1,15 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+/**
+ * LLM 호출 실패 예외
+ */
+public class LlmCallException extends RuntimeException {
+
+    public LlmCallException(String message) {
+        super(message);
+    }
+
+    public LlmCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,202 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LLM 호출 회로 차단기 (최근 호출 수 기준 슬라이딩 윈도)
+ *
+ * CLOSED: 최근 windowSize 건 중 실패 비율이 임계값 이상이면(최소 minimumCalls 건) OPEN 으로 전환
+ * OPEN: openDuration 동안 호출을 바로 거절하고, 지나면 HALF_OPEN 으로 전환
+ * HALF_OPEN: halfOpenCalls 건만 시험 호출을 허용해 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ *
+ * CLOSED 상태의 호출 허용 여부는 잠금 없이 확인하며, 결과 기록만 잠금 안에서 처리합니다.
+ * 호출 측 취소로 끝난 호출은 성공/실패로 세지 않습니다.
+ */
+public class LlmCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failures;
+    private int windowCount;
+    private int windowIndex;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public LlmCircuitBreaker(boolean enabled, int windowSize, int minimumCalls, double failureRateThreshold,
+                             long openDurationMillis, int halfOpenCalls) {
+        this.enabled = enabled;
+        this.failures = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, failures.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * 호출 허용 여부를 확인합니다. 허용되면 결과를 반드시 onSuccess/onFailure/onIgnored 중 하나로 알려야 합니다.
+     */
+    public boolean tryAcquire() {
+        if (!enabled || state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+                return true;
+            }
+            rejectedCount.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++halfOpenSuccesses >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    resetWindow();
+                    log.info("LLM 회로 차단 해제 - 시험 호출 {}건 성공", halfOpenCalls);
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 결과를 판단할 수 없는 호출(취소 등)을 반환합니다. HALF_OPEN 시험 호출 허용 수를 되돌립니다.
+     */
+    public void onIgnored() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getOpenedCount() {
+        return openedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("state", state.name());
+        lock.lock();
+        try {
+            stats.put("windowCalls", windowCount);
+            stats.put("windowFailures", windowFailures);
+        } finally {
+            lock.unlock();
+        }
+        stats.put("opened", openedCount.sum());
+        stats.put("rejected", rejectedCount.sum());
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    private void open() {
+        log.warn("LLM 회로 차단 - 상태: {}, 최근 실패: {}/{}건, 차단 시간: {}ms", state, windowFailures, windowCount,
+                TimeUnit.NANOSECONDS.toMillis(openDurationNanos));
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+        openedCount.increment();
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == failures.length) {
+            if (failures[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        failures[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % failures.length;
+    }
+
+    private void resetWindow() {
+        windowCount = 0;
+        windowIndex = 0;
+        windowFailures = 0;
+    }
+}
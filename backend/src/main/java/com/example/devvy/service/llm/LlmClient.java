@@ -0,0 +1,32 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * SWP Float Chat LLM 호출 인터페이스
+ *
+ * 구현체는 호출 스레드를 막지 않고 CompletableFuture 로 결과를 돌려주어야 합니다.
+ * 반환한 future 가 취소되면 진행 중인 요청도 중단해야 합니다.
+ * categoryCode 는 라우팅(카테고리별 모델 선호)에 사용되며, 단일 엔드포인트 구현은 무시합니다.
+ */
+public interface LlmClient {
+
+    /**
+     * 시스템/사용자 프롬프트로 LLM을 호출하고 전체 응답을 반환합니다.
+     * 기한이 지나면 TimeoutException 으로, 기한이 취소되면 CancellationException 으로 완료됩니다.
+     */
+    CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt, LlmDeadline deadline);
+
+    /**
+     * 시스템/사용자 프롬프트로 LLM을 호출하고 생성되는 청크마다 onChunk 를 호출합니다.
+     * onChunk 가 예외를 던지면 스트림을 중단하고 해당 예외로 완료됩니다. (기한 처리는 call 과 동일)
+     */
+    CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt, LlmDeadline deadline,
+                                   Consumer<String> onChunk);
+
+    /**
+     * 호출 대상 식별자를 반환합니다. (로그/상태 확인용)
+     */
+    String getEndpoint();
+}
@@ -0,0 +1,324 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LLM 클라이언트 설정
+ *
+ * float-chat.llm.endpoints 에 여러 엔드포인트를 지정하면 LlmRouter 가 지연시간 기준으로 나누어 호출합니다.
+ * 지정하지 않으면 base-url/model 하나만 사용하고, stub.enabled=true 이면 로컬 스텁 서버를 띄웁니다.
+ * 엔드포인트와 base-url 이 모두 비어 있고 스텁도 사용하지 않으면 기동에 실패합니다. (운영에서 스텁 응답을 내보내지 않도록)
+ * (stub.latencies-ms 를 지정하면 지연시간이 다른 스텁 서버를 여러 개 띄워 라우팅을 확인할 수 있습니다)
+ * 모든 호출의 지연시간은 LlmLatencyRecorder 에 기록되어 상태 확인에 사용됩니다.
+ * 호출 순서: ResilientLlmClient(기한/회로 차단/헤징) → InstrumentedLlmClient(지연시간 기록) → LlmRouter → HttpLlmClient
+ */
+@Configuration
+public class LlmClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmClientConfig.class);
+
+    @Value("${float-chat.llm.base-url:}")
+    private String baseUrl;
+
+    @Value("${float-chat.llm.api-key:}")
+    private String apiKey;
+
+    @Value("${float-chat.llm.model:default}")
+    private String model;
+
+    @Value("${float-chat.llm.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${float-chat.llm.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    @Value("${float-chat.llm.stub.enabled:false}")
+    private boolean stubEnabled;
+
+    @Value("${float-chat.llm.stub.port:0}")
+    private int stubPort;
+
+    @Value("${float-chat.llm.stub.latency-ms:200}")
+    private long stubLatencyMs;
+
+    @Value("${float-chat.llm.stub.chunk-count:20}")
+    private int stubChunkCount;
+
+    @Value("${float-chat.llm.stub.chunk-delay-ms:20}")
+    private long stubChunkDelayMs;
+
+    /**
+     * 스텁 서버별 응답 지연 (예: 100,400). 지정하면 latency-ms 대신 지연시간마다 스텁 서버를 띄웁니다.
+     */
+    @Value("${float-chat.llm.stub.latencies-ms:}")
+    private String stubLatenciesMs;
+
+    /**
+     * 라우팅 대상 엔드포인트 (예: east=https://llm-east.internal|gpt-4o,west=https://llm-west.internal)
+     * 모델을 생략하면 float-chat.llm.model 을 사용합니다.
+     */
+    @Value("${float-chat.llm.endpoints:}")
+    private String endpoints;
+
+    /**
+     * 카테고리별 선호 모델 (예: swdp_api:gpt-4o,voc:gpt-4o-mini)
+     */
+    @Value("${float-chat.llm.routing.categories:}")
+    private String routingCategories;
+
+    @Value("${float-chat.llm.routing.ewma-alpha:0.3}")
+    private double routingEwmaAlpha;
+
+    @Value("${float-chat.llm.routing.eject-failures:5}")
+    private int routingEjectFailures;
+
+    /**
+     * 가장 빠른 엔드포인트 대비 이 배수 이상 느리면 제외
+     */
+    @Value("${float-chat.llm.routing.slow-ratio:3.0}")
+    private double routingSlowRatio;
+
+    @Value("${float-chat.llm.routing.slow-min-samples:20}")
+    private int routingSlowMinSamples;
+
+    @Value("${float-chat.llm.routing.eject-duration-ms:30000}")
+    private long routingEjectDurationMs;
+
+    @Value("${float-chat.llm.routing.probe-interval-ms:10000}")
+    private long routingProbeIntervalMs;
+
+    @Value("${float-chat.llm.latency-samples:1024}")
+    private int latencySamples;
+
+    /**
+     * 토큰 추정 기준 (cl100k, o200k). 비어 있으면 model 이름으로 선택합니다.
+     */
+    @Value("${float-chat.llm.token-profile:}")
+    private String tokenProfile;
+
+    @Value("${float-chat.llm.breaker.enabled:true}")
+    private boolean breakerEnabled;
+
+    /**
+     * 실패 비율을 계산할 최근 호출 수
+     */
+    @Value("${float-chat.llm.breaker.window-size:50}")
+    private int breakerWindowSize;
+
+    @Value("${float-chat.llm.breaker.minimum-calls:20}")
+    private int breakerMinimumCalls;
+
+    @Value("${float-chat.llm.breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRateThreshold;
+
+    @Value("${float-chat.llm.breaker.open-duration-ms:30000}")
+    private long breakerOpenDurationMs;
+
+    @Value("${float-chat.llm.breaker.half-open-calls:3}")
+    private int breakerHalfOpenCalls;
+
+    @Value("${float-chat.llm.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    /**
+     * 헤지 요청 최소 지연 (p95 가 이보다 짧아도 이 시간은 기다림)
+     */
+    @Value("${float-chat.llm.hedge.min-delay-ms:300}")
+    private long hedgeMinDelayMs;
+
+    /**
+     * 전체 호출 대비 헤지 요청 비율 상한
+     */
+    @Value("${float-chat.llm.hedge.max-ratio:0.1}")
+    private double hedgeMaxRatio;
+
+    @Value("${float-chat.llm.hedge.min-samples:50}")
+    private int hedgeMinSamples;
+
+    @Value("${float-chat.knowledge.embedding-dimension:512}")
+    private int embeddingDimension;
+
+    private final List<StubLlmServer> stubLlmServers = new ArrayList<>();
+
+    @Bean
+    public LlmLatencyRecorder llmLatencyRecorder() {
+        return new LlmLatencyRecorder(latencySamples);
+    }
+
+    /**
+     * 모델별 토큰 추정기 (다른 TokenEstimator 빈을 등록하면 대체됩니다)
+     */
+    @Bean
+    @ConditionalOnMissingBean(TokenEstimator.class)
+    public TokenEstimator tokenEstimator() {
+        TokenEstimator estimator = HeuristicTokenEstimator.forModel(
+                tokenProfile == null || tokenProfile.trim().isEmpty() ? model : tokenProfile.trim());
+        log.info("토큰 추정 기준: {} (Model: {})", estimator.getName(), model);
+        return estimator;
+    }
+
+    /**
+     * 지식베이스 임베딩 생성기 (다른 TextEmbedder 빈을 등록하면 대체됩니다)
+     */
+    @Bean
+    @ConditionalOnMissingBean(TextEmbedder.class)
+    public TextEmbedder textEmbedder() {
+        return new HashingTextEmbedder(embeddingDimension);
+    }
+
+    @Bean
+    public LlmCircuitBreaker llmCircuitBreaker(MeterRegistry meterRegistry) {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(breakerEnabled, breakerWindowSize, breakerMinimumCalls,
+                breakerFailureRateThreshold, breakerOpenDurationMs, breakerHalfOpenCalls);
+        Gauge.builder("float_chat.llm.breaker.state", breaker, b -> b.getState().ordinal())
+                .description("LLM 회로 차단기 상태 (0=CLOSED, 1=HALF_OPEN, 2=OPEN)")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.llm.breaker.opened", breaker, LlmCircuitBreaker::getOpenedCount)
+                .description("LLM 회로 차단 횟수")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.llm.rejected", breaker, LlmCircuitBreaker::getRejectedCount)
+                .tag("reason", "circuit_open")
+                .description("호출하지 않고 거절한 LLM 요청 수")
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    @Bean
+    public LlmRouter llmRouter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        List<LlmRouter.Endpoint> routed = new ArrayList<>();
+        if (!stubEnabled && isBlank(endpoints) && isBlank(baseUrl)) {
+            throw new IllegalStateException("LLM 엔드포인트가 설정되지 않았습니다. float-chat.llm.base-url 또는 float-chat.llm.endpoints 를 "
+                    + "설정하세요. (로컬 확인용 스텁 서버는 float-chat.llm.stub.enabled=true)");
+        }
+        if (stubEnabled) {
+            log.warn("float-chat.llm.stub.enabled=true - 로컬 LLM 스텁 서버를 사용합니다.");
+            List<Long> latencies = new ArrayList<>();
+            for (String latency : stubLatenciesMs.split(",")) {
+                if (!latency.trim().isEmpty()) {
+                    latencies.add(Long.parseLong(latency.trim()));
+                }
+            }
+            if (latencies.isEmpty()) {
+                latencies.add(stubLatencyMs);
+            }
+            for (int i = 0; i < latencies.size(); i++) {
+                // 여러 개를 띄울 때는 포트 충돌을 피하도록 임의 포트 사용
+                StubLlmServer stub = new StubLlmServer(latencies.size() == 1 ? stubPort : 0, latencies.get(i),
+                        stubChunkCount, stubChunkDelayMs, objectMapper);
+                stub.start();
+                stubLlmServers.add(stub);
+                routed.add(new LlmRouter.Endpoint("stub-" + i, model, createHttpClient(stub.getBaseUrl(), model, objectMapper)));
+            }
+        } else if (isBlank(endpoints)) {
+            routed.add(new LlmRouter.Endpoint("default", model, createHttpClient(baseUrl.trim(), model, objectMapper)));
+        } else {
+            for (String entry : endpoints.split(",")) {
+                int separator = entry.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                String name = entry.substring(0, separator).trim();
+                String target = entry.substring(separator + 1).trim();
+                int modelSeparator = target.indexOf('|');
+                String endpointModel = modelSeparator > 0 ? target.substring(modelSeparator + 1).trim() : model;
+                String url = modelSeparator > 0 ? target.substring(0, modelSeparator).trim() : target;
+                routed.add(new LlmRouter.Endpoint(name, endpointModel, createHttpClient(url, endpointModel, objectMapper)));
+            }
+        }
+
+        Map<String, String> modelByCategory = new LinkedHashMap<>();
+        for (String entry : routingCategories.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator > 0) {
+                modelByCategory.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+            }
+        }
+
+        LlmRouter router = new LlmRouter(routed, modelByCategory, routingEwmaAlpha, routingEjectFailures,
+                routingSlowRatio, routingSlowMinSamples, routingEjectDurationMs, routingProbeIntervalMs);
+        for (LlmRouter.Endpoint endpoint : router.getEndpoints()) {
+            Gauge.builder("float_chat.llm.endpoint.latency", endpoint, LlmRouter.Endpoint::getEwmaMillis)
+                    .tag("endpoint", endpoint.getName())
+                    .description("LLM 엔드포인트 지연시간 EWMA (ms)")
+                    .register(meterRegistry);
+            Gauge.builder("float_chat.llm.endpoint.inflight", endpoint, LlmRouter.Endpoint::getInFlight)
+                    .tag("endpoint", endpoint.getName())
+                    .description("LLM 엔드포인트 진행 중인 호출 수")
+                    .register(meterRegistry);
+            Gauge.builder("float_chat.llm.endpoint.ejected", endpoint, e -> e.isEjected() ? 1 : 0)
+                    .tag("endpoint", endpoint.getName())
+                    .description("LLM 엔드포인트 제외 여부 (1=제외)")
+                    .register(meterRegistry);
+            FunctionCounter.builder("float_chat.llm.endpoint.ejections", endpoint, LlmRouter.Endpoint::getEjectionCount)
+                    .tag("endpoint", endpoint.getName())
+                    .description("LLM 엔드포인트 제외 횟수")
+                    .register(meterRegistry);
+        }
+        log.info("LLM 라우팅 - 엔드포인트: {}, 카테고리별 모델: {}", router.getEndpoint(), modelByCategory);
+        return router;
+    }
+
+    /**
+     * 서비스가 사용하는 LLM 클라이언트 (라우터를 감싼 기한/회로 차단/헤징 클라이언트, 상태 확인도 이 라우터 기준)
+     * 라우터도 LlmClient 이므로 주입 대상이 이 빈이 되도록 @Primary 로 등록합니다.
+     */
+    @Bean
+    @Primary
+    public LlmClient llmClient(LlmRouter llmRouter, LlmLatencyRecorder llmLatencyRecorder,
+                               LlmCircuitBreaker llmCircuitBreaker, MeterRegistry meterRegistry) {
+        ResilientLlmClient resilient = new ResilientLlmClient(new InstrumentedLlmClient(llmRouter, llmLatencyRecorder),
+                llmCircuitBreaker, llmLatencyRecorder, hedgeEnabled, hedgeMinDelayMs, hedgeMaxRatio, hedgeMinSamples);
+        FunctionCounter.builder("float_chat.llm.rejected", resilient, ResilientLlmClient::getDeadlineRejectedCount)
+                .tag("reason", "deadline")
+                .description("호출하지 않고 거절한 LLM 요청 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.llm.cancelled", resilient, ResilientLlmClient::getCancelledCount)
+                .description("클라이언트 이탈 또는 헤지 패배로 취소된 LLM 호출 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.llm.hedge", resilient, ResilientLlmClient::getHedgeCount)
+                .tag("result", "issued")
+                .description("LLM 헤지 요청 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("float_chat.llm.hedge", resilient, ResilientLlmClient::getHedgeWinCount)
+                .tag("result", "won")
+                .description("LLM 헤지 요청 수")
+                .register(meterRegistry);
+        if (hedgeEnabled) {
+            log.info("LLM 헤징 활성화 - 최소 지연: {}ms, 비율 상한: {}", hedgeMinDelayMs, hedgeMaxRatio);
+        }
+        return resilient;
+    }
+
+    @PreDestroy
+    public void stopStubServer() {
+        for (StubLlmServer stub : stubLlmServers) {
+            stub.stop();
+        }
+    }
+
+    private HttpLlmClient createHttpClient(String url, String endpointModel, ObjectMapper objectMapper) {
+        return new HttpLlmClient(url, apiKey, endpointModel,
+                Duration.ofMillis(connectTimeoutMs), Duration.ofMillis(readTimeoutMs), objectMapper);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LLM 호출 기한 및 취소 신호
+ *
+ * 컨트롤러가 클라이언트 응답 기한으로 만들어 서비스와 LlmClient 까지 전달합니다.
+ * LlmClient 는 남은 시간만큼만 기다리고, 클라이언트가 떠나 cancel() 이 호출되면 진행 중인 호출을 중단합니다.
+ */
+public final class LlmDeadline {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final CompletableFuture<Void> cancellation;
+
+    private LlmDeadline(long deadlineNanos, CompletableFuture<Void> cancellation) {
+        this.deadlineNanos = deadlineNanos;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * 지금부터 timeoutMillis 후에 만료되는 기한
+     */
+    public static LlmDeadline after(long timeoutMillis) {
+        return new LlmDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis), new CompletableFuture<>());
+    }
+
+    /**
+     * 기한 없음 (LlmClient 의 read-timeout 만 적용)
+     */
+    public static LlmDeadline none() {
+        return new LlmDeadline(NO_DEADLINE, new CompletableFuture<>());
+    }
+
+    /**
+     * 같은 기한을 갖되 취소 신호는 공유하지 않는 기한 (여러 요청이 함께 기다리는 호출용)
+     */
+    public LlmDeadline detached() {
+        return new LlmDeadline(deadlineNanos, new CompletableFuture<>());
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * 남은 시간 (기한이 없으면 Long.MAX_VALUE, 지났으면 0)
+     */
+    public long remainingMillis() {
+        if (!hasDeadline()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return hasDeadline() && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public void cancel() {
+        cancellation.complete(null);
+    }
+
+    public boolean isCancelled() {
+        return cancellation.isDone();
+    }
+
+    /**
+     * 취소 시 실행할 작업을 등록합니다. (이미 취소되었으면 바로 실행)
+     */
+    public void onCancel(Runnable action) {
+        cancellation.thenRun(action);
+    }
+}
@@ -0,0 +1,153 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 최근 LLM 호출 지연시간 기록기
+ *
+ * 고정 크기 링 버퍼에 최근 호출의 지연시간(마이크로초)을 기록합니다. 실패한 호출은 음수로 저장합니다.
+ * 기록은 잠금 없이 수행되며, 백분위 계산은 상태 갱신 주기에 한 번만 수행합니다.
+ */
+public class LlmLatencyRecorder {
+
+    private final int mask;
+    private final AtomicLongArray samples;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private volatile long lastSuccessAt;
+    private volatile long lastErrorAt;
+
+    /**
+     * @param capacity 보관할 최근 표본 수 (2의 거듭제곱으로 올림)
+     */
+    public LlmLatencyRecorder(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.samples = new AtomicLongArray(size);
+    }
+
+    public void recordSuccess(long elapsedNanos) {
+        record(Math.max(1L, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        successCount.increment();
+        lastSuccessAt = System.currentTimeMillis();
+    }
+
+    public void recordError(long elapsedNanos) {
+        record(-Math.max(1L, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        errorCount.increment();
+        lastErrorAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 현재 링 버퍼 기준 지연시간 백분위와 오류율을 계산합니다.
+     */
+    public Snapshot snapshot() {
+        long written = cursor.get();
+        int count = (int) Math.min(written, samples.length());
+        long[] latencies = new long[count];
+        int size = 0;
+        int errors = 0;
+        for (int i = 0; i < count; i++) {
+            long sample = samples.get(i);
+            if (sample < 0) {
+                errors++;
+            } else if (sample > 0) {
+                latencies[size++] = sample;
+            }
+        }
+        Arrays.sort(latencies, 0, size);
+        return new Snapshot(count, errors, latencies, size,
+                successCount.sum(), errorCount.sum(), lastSuccessAt, lastErrorAt);
+    }
+
+    private void record(long value) {
+        samples.set((int) (cursor.getAndIncrement() & mask), value);
+    }
+
+    /**
+     * 지연시간 기록 시점 스냅샷
+     */
+    public static final class Snapshot {
+
+        private final int sampleCount;
+        private final int sampleErrors;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+        private final long totalSuccess;
+        private final long totalErrors;
+        private final long lastSuccessAt;
+        private final long lastErrorAt;
+
+        Snapshot(int sampleCount, int sampleErrors, long[] sorted, int size,
+                 long totalSuccess, long totalErrors, long lastSuccessAt, long lastErrorAt) {
+            this.sampleCount = sampleCount;
+            this.sampleErrors = sampleErrors;
+            this.p50Micros = percentile(sorted, size, 0.50);
+            this.p95Micros = percentile(sorted, size, 0.95);
+            this.p99Micros = percentile(sorted, size, 0.99);
+            this.maxMicros = size > 0 ? sorted[size - 1] : 0L;
+            this.totalSuccess = totalSuccess;
+            this.totalErrors = totalErrors;
+            this.lastSuccessAt = lastSuccessAt;
+            this.lastErrorAt = lastErrorAt;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
+
+        /**
+         * 최근 표본 중 실패 비율 (표본이 없으면 0)
+         */
+        public double getErrorRate() {
+            return sampleCount == 0 ? 0.0 : (double) sampleErrors / sampleCount;
+        }
+
+        public long getP95Micros() {
+            return p95Micros;
+        }
+
+        public long getLastSuccessAt() {
+            return lastSuccessAt;
+        }
+
+        public long getLastErrorAt() {
+            return lastErrorAt;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("samples", sampleCount);
+            map.put("errorRate", Math.round(getErrorRate() * 1000) / 1000.0);
+            map.put("p50Ms", toMillis(p50Micros));
+            map.put("p95Ms", toMillis(p95Micros));
+            map.put("p99Ms", toMillis(p99Micros));
+            map.put("maxMs", toMillis(maxMicros));
+            map.put("totalSuccess", totalSuccess);
+            map.put("totalErrors", totalErrors);
+            return map;
+        }
+
+        private static long percentile(long[] sorted, int size, double quantile) {
+            if (size == 0) {
+                return 0L;
+            }
+            int index = (int) Math.ceil(quantile * size) - 1;
+            return sorted[Math.min(size - 1, Math.max(0, index))];
+        }
+
+        private static double toMillis(long micros) {
+            return Math.round(micros / 100.0) / 10.0;
+        }
+    }
+}
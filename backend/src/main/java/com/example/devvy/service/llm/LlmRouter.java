@@ -0,0 +1,354 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 여러 LLM 엔드포인트로 호출을 나누는 라우터
+ *
+ * 엔드포인트마다 지연시간 지수이동평균(EWMA)과 진행 중인 호출 수를 유지하고,
+ * 예상 지연시간(EWMA × (진행 중 + 1))이 가장 작은 엔드포인트를 고릅니다. 최근 연속 실패가 있으면 실패 건수만큼 두 배씩 불리하게 계산합니다.
+ * 카테고리에 선호 모델이 지정되어 있으면 그 모델을 제공하는 엔드포인트 중에서 먼저 고릅니다.
+ *
+ * 연속 실패가 ejectFailures 건이거나, 같은 모델의 가장 빠른 엔드포인트보다 slowRatio 배 이상 느린 엔드포인트는
+ * ejectDuration 동안 제외하고, 시간이 지나면 EWMA 를 초기화한 뒤 다시 포함합니다. (마지막 남은 엔드포인트는 제외하지 않음)
+ * 한동안 선택되지 않은 엔드포인트는 probeInterval 마다 한 건씩 보내 EWMA 를 갱신합니다.
+ * 스트리밍 호출은 응답 길이에 따라 소요 시간이 달라지므로 EWMA 에 반영하지 않고 실패 여부만 반영합니다.
+ */
+public class LlmRouter implements LlmClient {
+
+    private static final Logger log = LoggerFactory.getLogger(LlmRouter.class);
+
+    private final List<Endpoint> endpoints;
+    private final Map<String, String> modelByCategory;
+    private final double ewmaAlpha;
+    private final int ejectFailures;
+    private final double slowRatio;
+    private final int slowMinSamples;
+    private final long ejectDurationNanos;
+    private final long probeIntervalNanos;
+    private final ReentrantLock ejectLock = new ReentrantLock();
+
+    public LlmRouter(List<Endpoint> endpoints, Map<String, String> modelByCategory, double ewmaAlpha,
+                     int ejectFailures, double slowRatio, int slowMinSamples,
+                     long ejectDurationMillis, long probeIntervalMillis) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("LLM 엔드포인트가 필요합니다.");
+        }
+        this.endpoints = Collections.unmodifiableList(new ArrayList<>(endpoints));
+        this.modelByCategory = Collections.unmodifiableMap(new LinkedHashMap<>(modelByCategory));
+        this.ewmaAlpha = ewmaAlpha;
+        this.ejectFailures = Math.max(1, ejectFailures);
+        this.slowRatio = slowRatio;
+        this.slowMinSamples = Math.max(1, slowMinSamples);
+        this.ejectDurationNanos = TimeUnit.MILLISECONDS.toNanos(ejectDurationMillis);
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(probeIntervalMillis);
+    }
+
+    @Override
+    public CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline) {
+        Endpoint endpoint = select(categoryCode);
+        long start = endpoint.begin();
+        CompletableFuture<String> call = endpoint.client.call(categoryCode, systemPrompt, userPrompt, deadline);
+        CompletableFuture<String> result = call.whenComplete((response, error) -> complete(endpoint, start, error, true));
+        result.whenComplete((response, error) -> call.cancel(true));
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline, Consumer<String> onChunk) {
+        Endpoint endpoint = select(categoryCode);
+        long start = endpoint.begin();
+        CompletableFuture<Void> stream = endpoint.client.stream(categoryCode, systemPrompt, userPrompt, deadline, onChunk);
+        CompletableFuture<Void> result = stream.whenComplete((ignored, error) -> complete(endpoint, start, error, false));
+        result.whenComplete((ignored, error) -> stream.cancel(true));
+        return result;
+    }
+
+    @Override
+    public String getEndpoint() {
+        StringBuilder names = new StringBuilder("router[");
+        for (int i = 0; i < endpoints.size(); i++) {
+            names.append(i == 0 ? "" : ",").append(endpoints.get(i).name);
+        }
+        return names.append(']').toString();
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 엔드포인트별 라우팅 상태 (상태 확인/모니터링용)
+     */
+    public List<Map<String, Object>> getStats() {
+        long now = System.nanoTime();
+        List<Map<String, Object>> stats = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("name", endpoint.name);
+            stat.put("model", endpoint.model);
+            stat.put("endpoint", endpoint.client.getEndpoint());
+            stat.put("state", endpoint.isAdmitted(now) ? "admitted" : "ejected");
+            stat.put("ewmaMillis", Math.round(endpoint.ewmaMillis * 10) / 10.0);
+            stat.put("inFlight", endpoint.inFlight.get());
+            stat.put("calls", endpoint.callCount.sum());
+            stat.put("errors", endpoint.errorCount.sum());
+            stat.put("ejections", endpoint.ejectionCount.sum());
+            stats.add(stat);
+        }
+        return stats;
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 선호 모델 → 예상 지연시간 순으로 엔드포인트를 고릅니다. 모두 제외된 상태면 가장 먼저 복귀할 엔드포인트를 사용합니다.
+     */
+    private Endpoint select(String categoryCode) {
+        long now = System.nanoTime();
+        String preferredModel = categoryCode != null ? modelByCategory.get(categoryCode) : null;
+
+        List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+        List<Endpoint> preferred = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAdmitted(now)) {
+                candidates.add(endpoint);
+                if (endpoint.model.equals(preferredModel)) {
+                    preferred.add(endpoint);
+                }
+            }
+        }
+        if (!preferred.isEmpty()) {
+            candidates = preferred;
+        }
+        if (candidates.isEmpty()) {
+            Endpoint earliest = endpoints.get(0);
+            for (Endpoint endpoint : endpoints) {
+                if (endpoint.ejectedUntilNanos - earliest.ejectedUntilNanos < 0) {
+                    earliest = endpoint;
+                }
+            }
+            return earliest;
+        }
+
+        // 오래 선택되지 않은 엔드포인트는 한 건만 보내 지연시간을 다시 측정
+        for (Endpoint endpoint : candidates) {
+            long lastSelected = endpoint.lastSelectedNanos.get();
+            if (candidates.size() > 1 && now - lastSelected >= probeIntervalNanos
+                    && endpoint.lastSelectedNanos.compareAndSet(lastSelected, now)) {
+                return endpoint;
+            }
+        }
+
+        // 아직 측정값이 없는 엔드포인트는 측정된 것 중 가장 빠른 값으로 간주
+        double fastest = Double.MAX_VALUE;
+        for (Endpoint endpoint : candidates) {
+            if (endpoint.ewmaMillis > 0) {
+                fastest = Math.min(fastest, endpoint.ewmaMillis);
+            }
+        }
+        double unknown = fastest == Double.MAX_VALUE ? 1.0 : fastest;
+
+        Endpoint best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (Endpoint endpoint : candidates) {
+            double ewma = endpoint.ewmaMillis > 0 ? endpoint.ewmaMillis : unknown;
+            double cost = ewma * (endpoint.inFlight.get() + 1) * (1 << Math.min(endpoint.consecutiveFailures, 16));
+            if (cost < bestCost) {
+                best = endpoint;
+                bestCost = cost;
+            }
+        }
+        best.lastSelectedNanos.set(now);
+        return best;
+    }
+
+    private void complete(Endpoint endpoint, long start, Throwable error, boolean recordLatency) {
+        endpoint.inFlight.decrementAndGet();
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        String ejectReason = null;
+        boolean checkSlow = false;
+        endpoint.lock.lock();
+        try {
+            if (error == null) {
+                endpoint.consecutiveFailures = 0;
+                if (recordLatency) {
+                    endpoint.record(elapsedMillis, ewmaAlpha);
+                    checkSlow = endpoint.samples >= slowMinSamples;
+                }
+            } else {
+                endpoint.errorCount.increment();
+                // 빠르게 실패하는 엔드포인트가 빠른 것으로 보이지 않도록 실패한 호출의 지연시간은 EWMA 에 반영하지 않음
+                endpoint.consecutiveFailures++;
+                if (endpoint.consecutiveFailures >= ejectFailures) {
+                    ejectReason = "연속 실패 " + endpoint.consecutiveFailures + "건";
+                }
+            }
+        } finally {
+            endpoint.lock.unlock();
+        }
+        if (checkSlow && isSlow(endpoint)) {
+            ejectReason = String.format("지연 %.0fms", endpoint.ewmaMillis);
+        }
+        if (ejectReason != null) {
+            eject(endpoint, ejectReason);
+        }
+    }
+
+    /**
+     * 같은 모델을 제공하는 다른 정상 엔드포인트 중 가장 빠른 것보다 slowRatio 배 이상 느린지 확인합니다.
+     * (모델이 다르면 응답 시간이 원래 다르므로 비교하지 않음)
+     */
+    private boolean isSlow(Endpoint endpoint) {
+        long now = System.nanoTime();
+        double fastest = Double.MAX_VALUE;
+        for (Endpoint other : endpoints) {
+            if (other != endpoint && other.model.equals(endpoint.model) && other.isAdmitted(now)
+                    && other.ewmaMillis > 0 && other.consecutiveFailures == 0) {
+                fastest = Math.min(fastest, other.ewmaMillis);
+            }
+        }
+        return fastest != Double.MAX_VALUE && endpoint.ewmaMillis >= fastest * slowRatio;
+    }
+
+    /**
+     * 엔드포인트를 제외합니다. 제외 판단은 ejectLock 안에서 하나씩 처리해 모든 엔드포인트가 동시에 제외되지 않도록 합니다.
+     */
+    private void eject(Endpoint endpoint, String reason) {
+        long now = System.nanoTime();
+        ejectLock.lock();
+        try {
+            int admitted = 0;
+            for (Endpoint other : endpoints) {
+                if (other.isAdmitted(now)) {
+                    admitted++;
+                }
+            }
+            if (!endpoint.isAdmitted(now) || admitted <= 1) {
+                return;
+            }
+            endpoint.ejectedUntilNanos = now + ejectDurationNanos;
+            endpoint.ejected = true;
+            endpoint.ejectionCount.increment();
+        } finally {
+            ejectLock.unlock();
+        }
+        log.warn("LLM 엔드포인트 제외 - {} ({}), 사유: {}, 제외 시간: {}ms",
+                endpoint.name, endpoint.client.getEndpoint(), reason, TimeUnit.NANOSECONDS.toMillis(ejectDurationNanos));
+    }
+
+    /**
+     * 라우팅 대상 엔드포인트
+     */
+    public static final class Endpoint {
+
+        private final String name;
+        private final String model;
+        private final LlmClient client;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong lastSelectedNanos = new AtomicLong(System.nanoTime());
+        private volatile double ewmaMillis;
+        private volatile long ejectedUntilNanos;
+        private volatile boolean ejected;
+        private volatile int consecutiveFailures;
+        private int samples;
+
+        private final LongAdder callCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder ejectionCount = new LongAdder();
+
+        public Endpoint(String name, String model, LlmClient client) {
+            this.name = name;
+            this.model = model;
+            this.client = client;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public double getEwmaMillis() {
+            return ewmaMillis;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public boolean isEjected() {
+            return !isAdmitted(System.nanoTime());
+        }
+
+        public long getEjectionCount() {
+            return ejectionCount.sum();
+        }
+
+        private long begin() {
+            inFlight.incrementAndGet();
+            callCount.increment();
+            return System.nanoTime();
+        }
+
+        /**
+         * 제외 시간이 지났으면 측정값을 초기화하고 다시 포함합니다.
+         */
+        private boolean isAdmitted(long now) {
+            if (!ejected) {
+                return true;
+            }
+            if (now - ejectedUntilNanos < 0) {
+                return false;
+            }
+            lock.lock();
+            try {
+                if (ejected) {
+                    ejected = false;
+                    ewmaMillis = 0;
+                    samples = 0;
+                    consecutiveFailures = 0;
+                    log.info("LLM 엔드포인트 복귀 - {} ({})", name, client.getEndpoint());
+                }
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        }
+
+        /**
+         * 잠금 안에서 호출합니다.
+         */
+        private void record(double elapsedMillis, double alpha) {
+            ewmaMillis = ewmaMillis <= 0 ? elapsedMillis : ewmaMillis + alpha * (elapsedMillis - ewmaMillis);
+            samples++;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 기한 확인, 회로 차단, 지연 헤징을 적용하는 LlmClient 데코레이터
+ *
+ * - 기한이 이미 지났거나 취소된 요청, 회로가 열린 상태의 요청은 provider 를 호출하지 않고 바로 실패합니다.
+ * - 헤징이 켜져 있으면 최근 p95 지연시간(최소 hedgeMinDelay)이 지나도 응답이 없을 때 같은 요청을 한 번 더 보내고,
+ *   먼저 성공한 응답을 사용하며 나머지는 취소합니다. 헤지 요청 수는 전체 호출의 hedgeMaxRatio 이하로 제한합니다.
+ * - 스트리밍은 이미 전달한 청크를 되돌릴 수 없으므로 헤징하지 않습니다.
+ */
+public class ResilientLlmClient implements LlmClient {
+
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LlmClient delegate;
+    private final LlmCircuitBreaker breaker;
+    private final LlmLatencyRecorder recorder;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMillis;
+    private final double hedgeMaxRatio;
+    private final int hedgeMinSamples;
+
+    private volatile long hedgeDelayMillis = -1L;
+    private volatile long hedgeDelayRefreshedAt = System.nanoTime() - HEDGE_DELAY_REFRESH_NANOS;
+
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder deadlineRejectedCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    public ResilientLlmClient(LlmClient delegate, LlmCircuitBreaker breaker, LlmLatencyRecorder recorder,
+                              boolean hedgeEnabled, long hedgeMinDelayMillis, double hedgeMaxRatio, int hedgeMinSamples) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.recorder = recorder;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+        this.hedgeMaxRatio = hedgeMaxRatio;
+        this.hedgeMinSamples = hedgeMinSamples;
+    }
+
+    @Override
+    public CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline) {
+        CompletableFuture<String> rejected = rejectIfUnavailable(deadline);
+        if (rejected != null) {
+            return rejected;
+        }
+        callCount.increment();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger();
+        deadline.onCancel(() -> result.cancel(false));
+        attempt(categoryCode, systemPrompt, userPrompt, deadline, result, outstanding, false);
+
+        long delay = currentHedgeDelayMillis();
+        if (delay > 0 && deadline.remainingMillis() > delay) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!result.isDone() && hedgeCount.sum() < callCount.sum() * hedgeMaxRatio && breaker.tryAcquire()) {
+                    hedgeCount.increment();
+                    attempt(categoryCode, systemPrompt, userPrompt, deadline, result, outstanding, true);
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt,
+                                          LlmDeadline deadline, Consumer<String> onChunk) {
+        CompletableFuture<Void> rejected = rejectIfUnavailable(deadline);
+        if (rejected != null) {
+            return rejected;
+        }
+        callCount.increment();
+        return delegate.stream(categoryCode, systemPrompt, userPrompt, deadline, onChunk)
+                .whenComplete((ignored, error) -> recordOutcome(error));
+    }
+
+    @Override
+    public String getEndpoint() {
+        return delegate.getEndpoint();
+    }
+
+    public LlmCircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public long getDeadlineRejectedCount() {
+        return deadlineRejectedCount.sum();
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWinCount.sum();
+    }
+
+    // === Private 메서드들 ===
+
+    /**
+     * 호출할 수 없는 요청이면 실패한 future 를, 호출할 수 있으면 null 을 반환합니다.
+     */
+    private <T> CompletableFuture<T> rejectIfUnavailable(LlmDeadline deadline) {
+        if (deadline.isCancelled()) {
+            cancelledCount.increment();
+            CompletableFuture<T> cancelled = new CompletableFuture<>();
+            cancelled.cancel(false);
+            return cancelled;
+        }
+        if (deadline.isExpired()) {
+            deadlineRejectedCount.increment();
+            return CompletableFuture.failedFuture(new TimeoutException("LLM 호출 기한 초과"));
+        }
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new LlmCallException("LLM 회로 차단 중 - 호출 생략"));
+        }
+        return null;
+    }
+
+    private void attempt(String categoryCode, String systemPrompt, String userPrompt, LlmDeadline deadline,
+                         CompletableFuture<String> result, AtomicInteger outstanding, boolean hedge) {
+        outstanding.incrementAndGet();
+        CompletableFuture<String> call = delegate.call(categoryCode, systemPrompt, userPrompt, deadline);
+        // 다른 시도가 먼저 끝났거나 요청이 취소되면 남은 시도는 중단
+        result.whenComplete((response, error) -> call.cancel(true));
+        call.whenComplete((response, error) -> {
+            recordOutcome(error);
+            if (error == null) {
+                if (result.complete(response) && hedge) {
+                    hedgeWinCount.increment();
+                }
+            } else if (deadline.isCancelled()) {
+                result.cancel(false);
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+    }
+
+    private void recordOutcome(Throwable error) {
+        if (error == null) {
+            breaker.onSuccess();
+        } else if (unwrap(error) instanceof CancellationException) {
+            cancelledCount.increment();
+            breaker.onIgnored();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    /**
+     * 헤지 요청 지연시간 (최근 p95, 1초마다 갱신, 표본이 부족하면 -1)
+     */
+    private long currentHedgeDelayMillis() {
+        if (!hedgeEnabled) {
+            return -1L;
+        }
+        long now = System.nanoTime();
+        if (now - hedgeDelayRefreshedAt >= HEDGE_DELAY_REFRESH_NANOS) {
+            LlmLatencyRecorder.Snapshot latency = recorder.snapshot();
+            hedgeDelayMillis = latency.getSampleCount() >= hedgeMinSamples
+                    ? Math.max(hedgeMinDelayMillis, TimeUnit.MICROSECONDS.toMillis(latency.getP95Micros()))
+                    : -1L;
+            hedgeDelayRefreshedAt = now;
+        }
+        return hedgeDelayMillis;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
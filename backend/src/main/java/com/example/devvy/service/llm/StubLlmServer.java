@@ -0,0 +1,158 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로컬 LLM 스텁 서버 (오프라인 처리량 측정용)
+ *
+ * OpenAI 호환 /v1/chat/completions 를 흉내내며, 설정된 지연 후 고정 형식의 응답을 돌려줍니다.
+ * stream=true 요청에는 chunkCount 개의 SSE 청크를 chunkDelayMs 간격으로 전송합니다.
+ */
+public class StubLlmServer {
+
+    private static final Logger log = LoggerFactory.getLogger(StubLlmServer.class);
+
+    private final int port;
+    private final long latencyMs;
+    private final int chunkCount;
+    private final long chunkDelayMs;
+    private final ObjectMapper objectMapper;
+    private final LongAdder requestCount = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubLlmServer(int port, long latencyMs, int chunkCount, long chunkDelayMs, ObjectMapper objectMapper) {
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.chunkCount = Math.max(1, chunkCount);
+        this.chunkDelayMs = chunkDelayMs;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 루프백 주소에서 스텁 서버를 시작합니다. (port 가 0 이면 임의 포트 사용)
+     */
+    public synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("LLM 스텁 서버 시작 실패", e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "llm-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.start();
+        log.info("LLM 스텁 서버 시작 - {} (지연: {}ms, 청크: {}개/{}ms)",
+                getBaseUrl(), latencyMs, chunkCount, chunkDelayMs);
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        log.info("LLM 스텁 서버 종료 - 처리 요청 수: {}", requestCount.sum());
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    // === Private 메서드들 ===
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        requestCount.increment();
+        try {
+            JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = objectMapper.readTree(body);
+            }
+            String userPrompt = request.path("messages").path(1).path("content").asText("");
+            String answer = buildAnswer(userPrompt);
+
+            sleep(latencyMs);
+            if (request.path("stream").asBoolean(false)) {
+                writeStream(exchange, answer);
+            } else {
+                writeJson(exchange, answer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void writeJson(HttpExchange exchange, String answer) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putArray("choices").addObject()
+                .putObject("message").put("role", "assistant").put("content", answer);
+        byte[] body = objectMapper.writeValueAsBytes(response);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void writeStream(HttpExchange exchange, String answer) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+
+        int chunkSize = Math.max(1, (answer.length() + chunkCount - 1) / chunkCount);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int start = 0; start < answer.length(); start += chunkSize) {
+                String piece = answer.substring(start, Math.min(answer.length(), start + chunkSize));
+                ObjectNode event = objectMapper.createObjectNode();
+                event.putArray("choices").addObject().putObject("delta").put("content", piece);
+                out.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(chunkDelayMs);
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String buildAnswer(String userPrompt) {
+        String question = userPrompt.length() > 50 ? userPrompt.substring(0, 50) : userPrompt;
+        return "[스텁 응답] 로컬 LLM 스텁 서버의 응답입니다. 요청 내용: " + question.replace('\n', ' ');
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+    }
+}
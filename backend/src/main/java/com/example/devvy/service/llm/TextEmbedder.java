@@ -0,0 +1,22 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+/**
+ * 텍스트 임베딩 생성기
+ *
+ * 지식베이스 문서 조각과 질문을 같은 차원의 L2 정규화 벡터로 변환합니다.
+ * getId() 가 달라지면 기존에 저장된 벡터와 호환되지 않으므로 지식베이스를 다시 적재해야 합니다.
+ */
+public interface TextEmbedder {
+
+    /**
+     * 텍스트의 임베딩 벡터를 생성합니다. (길이 1로 정규화, 색인어가 없으면 영벡터)
+     */
+    float[] embed(String text);
+
+    int getDimension();
+
+    /**
+     * 임베딩 방식 식별자 (저장 파일 호환성 확인용)
+     */
+    String getId();
+}
@@ -0,0 +1,30 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+/**
+ * LLM 토큰 수 추정기
+ *
+ * 실제 토크나이저 없이 문자 종류별 가중치로 토큰 수를 추정합니다.
+ * 구현체는 호출마다 객체를 할당하지 않아야 하며, 같은 입력에 대해 항상 같은 결과를 돌려주어야 합니다.
+ */
+public interface TokenEstimator {
+
+    /**
+     * 텍스트의 토큰 수를 추정합니다.
+     */
+    int estimate(CharSequence text);
+
+    /**
+     * 앞에서부터 maxTokens 안에 들어가는 최대 길이를 반환합니다.
+     */
+    int fitPrefix(CharSequence text, int maxTokens);
+
+    /**
+     * 뒤에서부터 maxTokens 안에 들어가는 구간의 시작 위치를 반환합니다.
+     */
+    int fitSuffix(CharSequence text, int maxTokens);
+
+    /**
+     * 추정 기준 이름 (로그/지표용)
+     */
+    String getName();
+}
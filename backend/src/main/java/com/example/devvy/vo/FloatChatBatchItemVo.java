@@ -0,0 +1,40 @@
+package com.temporary22.aiagent.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * SWP Float Chat 배치 메시지 항목별 처리 결과 객체
+ *
+ * index 는 요청 items 의 순서이며, conversationId 는 배치 전체 저장이 끝난 뒤 채워집니다.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FloatChatBatchItemVo {
+
+    private final int index;
+    private final String categoryCode;
+    private final Boolean success;
+    private final String aiResponse;
+    private final String errorMessage;
+
+    @Setter
+    private Long conversationId;
+
+    private FloatChatBatchItemVo(int index, String categoryCode, Boolean success, String aiResponse, String errorMessage) {
+        this.index = index;
+        this.categoryCode = categoryCode;
+        this.success = success;
+        this.aiResponse = aiResponse;
+        this.errorMessage = errorMessage;
+    }
+
+    public static FloatChatBatchItemVo success(int index, String categoryCode, String aiResponse) {
+        return new FloatChatBatchItemVo(index, categoryCode, true, aiResponse, null);
+    }
+
+    public static FloatChatBatchItemVo error(int index, String categoryCode, String errorMessage) {
+        return new FloatChatBatchItemVo(index, categoryCode, false, null, errorMessage);
+    }
+}
@@ -0,0 +1,16 @@
+package com.temporary22.aiagent.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * SWP Float Chat 배치 메시지 요청 객체 (항목별 categoryCode, userQuestion)
+ */
+@Getter
+@Setter
+public class FloatChatBatchRequestVo {
+
+    private List<FloatChatVo> items;
+}
@@ -0,0 +1,31 @@
+package com.temporary22.aiagent.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+/**
+ * SWP Float Chat 카테고리 응답 객체 (클라이언트용, 시스템 프롬프트 제외)
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FloatChatCategoryVo {
+
+    private final Long categoryId;
+    private final String categoryCode;
+    private final String description;
+    private final String descriptionEn;
+    private final String iconPath;
+
+    private FloatChatCategoryVo(FloatChatVo category) {
+        this.categoryId = category.getCategoryId();
+        this.categoryCode = category.getCategoryCode();
+        this.description = category.getDescription();
+        this.descriptionEn = category.getDescriptionEn();
+        this.iconPath = category.getIconPath();
+    }
+
+    // === 정적 팩토리 메서드 ===
+    public static FloatChatCategoryVo from(FloatChatVo category) {
+        return new FloatChatCategoryVo(category);
+    }
+}
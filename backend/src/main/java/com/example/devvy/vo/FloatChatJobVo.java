@@ -0,0 +1,41 @@
+package com.temporary22.aiagent.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * SWP Float Chat 메시지 작업 상태 객체
+ *
+ * status 가 SUCCEEDED 이면 conversationId/aiResponse 가, FAILED 이면 errorMessage 가 채워집니다.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FloatChatJobVo {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final String jobId;
+    private final String status;
+    private final String categoryCode;
+    private final LocalDateTime createdDate;
+    private final LocalDateTime completedDate;
+    private final Long conversationId;
+    private final String aiResponse;
+    private final String errorMessage;
+
+    public FloatChatJobVo(String jobId, String status, String categoryCode, LocalDateTime createdDate,
+                          LocalDateTime completedDate, Long conversationId, String aiResponse, String errorMessage) {
+        this.jobId = jobId;
+        this.status = status;
+        this.categoryCode = categoryCode;
+        this.createdDate = createdDate;
+        this.completedDate = completedDate;
+        this.conversationId = conversationId;
+        this.aiResponse = aiResponse;
+        this.errorMessage = errorMessage;
+    }
+}
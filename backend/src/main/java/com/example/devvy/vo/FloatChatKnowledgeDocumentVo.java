@@ -0,0 +1,19 @@
+package com.temporary22.aiagent.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * SWP Float Chat 지식베이스 문서 적재 요청 객체
+ */
+@Getter
+@Setter
+public class FloatChatKnowledgeDocumentVo {
+
+    /**
+     * 문서 출처 (파일명, 위키 제목 등 - 프롬프트에 출처로 표시)
+     */
+    private String source;
+
+    private String content;
+}
@@ -0,0 +1,27 @@
+package com.temporary22.aiagent.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * SWP Float Chat 보존 기간 정리 진행 상태 (테이블별, SWP_FLOAT_CHAT_RETENTION)
+ *
+ * status 가 RUNNING 이면 재기동 후 같은 cutoffDate 로 lastId 다음 구간부터 이어서 정리합니다.
+ */
+@Getter
+@Setter
+public class FloatChatRetentionVo {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    private String tableName;
+    private String status;
+    private LocalDateTime cutoffDate;
+    private Long lastId;
+    private Long deletedCount;
+    private LocalDateTime startedDate;
+    private LocalDateTime modifiedDate;
+}
@@ -0,0 +1,31 @@
+package com.temporary22.aiagent.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * SWP Float Chat 대화 검색 결과 객체
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FloatChatSearchHitVo {
+
+    private final Long conversationId;
+    private final String categoryCode;
+    private final LocalDateTime createdDate;
+    private final double score;
+    private final String questionSnippet;
+    private final String answerSnippet;
+
+    public FloatChatSearchHitVo(Long conversationId, String categoryCode, LocalDateTime createdDate,
+                                double score, String questionSnippet, String answerSnippet) {
+        this.conversationId = conversationId;
+        this.categoryCode = categoryCode;
+        this.createdDate = createdDate;
+        this.score = score;
+        this.questionSnippet = questionSnippet;
+        this.answerSnippet = answerSnippet;
+    }
+}
@@ -35,6 +35,7 @@ public class FloatChatVo {
     private String userQuestion;
     private String aiResponse;
     private LocalDateTime createdDate;
+    private Boolean followUp;  // 이전 대화에 이어지는 질문 (메모리에 문맥이 없으면 저장된 최근 대화를 문맥으로 읽음)
 
     // === 피드백 ===
     private Integer rating;
@@ -0,0 +1,8 @@
+-- =================================================================
+-- SWP Float Chat 인덱스
+-- =================================================================
+
+-- 대화 목록 커서 조회용 복합 인덱스 (selectConversationPage, selectRecentConversations)
+-- (USER_ID, CATEGORY_CODE) 등치 조건 후 (CREATED_DATE, CONVERSATION_ID) 역순 탐색이 인덱스만으로 정렬/범위 처리됩니다.
+CREATE INDEX IDX_FLOAT_CHAT_CONV_USER_CAT_DATE
+    ON SWP_FLOAT_CHAT_CONVERSATION (USER_ID, CATEGORY_CODE, CREATED_DATE, CONVERSATION_ID);
@@ -0,0 +1,53 @@
+-- =================================================================
+-- SWP Float Chat 테이블 (FloatChatMapper.xml 기준)
+-- =================================================================
+
+-- 카테고리 및 시스템 프롬프트
+CREATE TABLE IF NOT EXISTS SWP_FLOAT_CHAT_INFO (
+    CATEGORY_ID      BIGINT        NOT NULL AUTO_INCREMENT,
+    CATEGORY_CODE    VARCHAR(50)   NOT NULL,
+    DESCRIPTION      VARCHAR(200)  NULL,
+    DESCRIPTION_EN   VARCHAR(200)  NULL,
+    ICON_PATH        VARCHAR(300)  NULL,
+    SYSTEM_PROMPT    TEXT          NULL,
+    ACTIVE_YN        CHAR(1)       NOT NULL DEFAULT 'Y',
+    CREATED_DATE     DATETIME      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    MODIFIED_DATE    DATETIME      NULL,
+    MODIFIED_BY      VARCHAR(50)   NULL,
+    PRIMARY KEY (CATEGORY_ID),
+    CONSTRAINT UK_FLOAT_CHAT_INFO_CODE UNIQUE (CATEGORY_CODE)
+);
+
+-- 질문-답변 대화 (CONVERSATION_ID 는 write-behind 저장 시 애플리케이션에서 발급)
+CREATE TABLE IF NOT EXISTS SWP_FLOAT_CHAT_CONVERSATION (
+    CONVERSATION_ID  BIGINT        NOT NULL AUTO_INCREMENT,
+    CATEGORY_CODE    VARCHAR(50)   NOT NULL,
+    USER_ID          VARCHAR(50)   NOT NULL,
+    USER_QUESTION    TEXT          NOT NULL,
+    AI_RESPONSE      MEDIUMTEXT    NULL,
+    CREATED_DATE     DATETIME      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (CONVERSATION_ID)
+);
+
+-- 사용자 피드백
+CREATE TABLE IF NOT EXISTS SWP_FLOAT_CHAT_FEEDBACK (
+    FEEDBACK_ID        BIGINT        NOT NULL AUTO_INCREMENT,
+    USER_ID            VARCHAR(50)   NOT NULL,
+    RATING             INT           NOT NULL,
+    FEEDBACK_CATEGORY  VARCHAR(50)   NULL,
+    COMMENT            VARCHAR(1000) NULL,
+    CREATED_DATE       DATETIME      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (FEEDBACK_ID)
+);
+
+-- 보존 기간 정리 진행 상태 (테이블별, 재기동 시 LAST_ID 다음 구간부터 이어서 정리)
+CREATE TABLE IF NOT EXISTS SWP_FLOAT_CHAT_RETENTION (
+    TABLE_NAME       VARCHAR(64)   NOT NULL,
+    STATUS           VARCHAR(20)   NOT NULL,
+    CUTOFF_DATE      DATETIME      NOT NULL,
+    LAST_ID          BIGINT        NOT NULL DEFAULT 0,
+    DELETED_COUNT    BIGINT        NOT NULL DEFAULT 0,
+    STARTED_DATE     DATETIME      NOT NULL,
+    MODIFIED_DATE    DATETIME      NULL,
+    PRIMARY KEY (TABLE_NAME)
+);
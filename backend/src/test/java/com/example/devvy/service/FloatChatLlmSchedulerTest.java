@@ -0,0 +1,129 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmCallException;
+import com.temporary22.aiagent.impl.aiAgent.llm.LlmDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloatChatLlmSchedulerTest {
+
+    private FloatChatLlmScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new FloatChatLlmScheduler();
+        ReflectionTestUtils.setField(scheduler, "metrics", new FloatChatMetrics() {
+            @Override
+            public void recordStage(String stage, String categoryCode, String outcome, long startNanos) {
+            }
+        });
+        ReflectionTestUtils.setField(scheduler, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(scheduler, "maxQueueSize", 10_000);
+        ReflectionTestUtils.setField(scheduler, "maxQueuedPerUser", 10_000);
+        ReflectionTestUtils.setField(scheduler, "categoryWeights", "");
+        ReflectionTestUtils.setField(scheduler, "defaultWeight", 1);
+        scheduler.init();
+    }
+
+    @Test
+    @DisplayName("바로 실패하는 호출이 대기열을 비울 때 스택이 깊어지지 않음")
+    void fastFailingCallsDrainQueueWithoutRecursion() {
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        CompletableFuture<String> first = scheduler.submit("user", "cat", LlmDeadline.none(), () -> blocker);
+
+        int baseDepth = Thread.currentThread().getStackTrace().length;
+        AtomicInteger maxDepth = new AtomicInteger();
+        LlmCallException failure = new LlmCallException("LLM 회로 차단 중 - 호출 생략");
+        List<CompletableFuture<String>> queued = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            queued.add(scheduler.submit("user", "cat", LlmDeadline.none(), () -> {
+                maxDepth.accumulateAndGet(Thread.currentThread().getStackTrace().length, Math::max);
+                return CompletableFuture.failedFuture(failure);
+            }));
+        }
+        assertEquals(5_000, scheduler.getQueued());
+
+        blocker.complete("done");
+
+        assertEquals("done", first.join());
+        for (CompletableFuture<String> result : queued) {
+            CompletionException error = assertThrows(CompletionException.class, result::join);
+            assertSame(failure, error.getCause());
+        }
+        assertTrue(maxDepth.get() - baseDepth < 100, "stack depth grew to " + (maxDepth.get() - baseDepth));
+        assertEquals(0, scheduler.getActive());
+        assertEquals(0, scheduler.getQueued());
+    }
+
+    @Test
+    @DisplayName("호출 공급자가 예외를 던져도 자리를 돌려주고 다음 호출을 시작")
+    void throwingSupplierReleasesSlot() {
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        scheduler.submit("user", "cat", LlmDeadline.none(), () -> blocker);
+        CompletableFuture<String> throwing = scheduler.submit("user", "cat", LlmDeadline.none(), () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> next = scheduler.submit("other", "cat", LlmDeadline.none(),
+                () -> CompletableFuture.completedFuture("ok"));
+
+        blocker.complete("done");
+
+        assertTrue(throwing.isCompletedExceptionally());
+        assertEquals("ok", next.join());
+        assertEquals(0, scheduler.getActive());
+    }
+
+    @Test
+    @DisplayName("대기열 상한을 넘으면 바로 거절")
+    void rejectsWhenQueueIsFull() {
+        ReflectionTestUtils.setField(scheduler, "maxQueueSize", 2);
+        scheduler.submit("user", "cat", LlmDeadline.none(), CompletableFuture::new);
+        scheduler.submit("user", "cat", LlmDeadline.none(), CompletableFuture::new);
+        scheduler.submit("user", "cat", LlmDeadline.none(), CompletableFuture::new);
+
+        CompletableFuture<Object> rejected = scheduler.submit("user", "cat", LlmDeadline.none(), CompletableFuture::new);
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(error.getCause() instanceof RejectedExecutionException);
+        assertEquals(2, scheduler.getQueued());
+    }
+
+    @Test
+    @DisplayName("대기 중 취소된 호출은 시작하지 않고 대기열에서 제거")
+    void cancelledWhileQueuedIsRemoved() {
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        scheduler.submit("user", "cat", LlmDeadline.none(), () -> blocker);
+        LlmDeadline deadline = LlmDeadline.none();
+        AtomicInteger invoked = new AtomicInteger();
+        CompletableFuture<String> waiting = scheduler.submit("user", "cat", deadline, () -> {
+            invoked.incrementAndGet();
+            return CompletableFuture.completedFuture("late");
+        });
+
+        deadline.cancel();
+
+        assertThrows(CancellationException.class, waiting::join);
+        assertEquals(0, scheduler.getQueued());
+        blocker.complete("done");
+        assertEquals(0, invoked.get());
+        assertEquals(0, scheduler.getActive());
+    }
+}
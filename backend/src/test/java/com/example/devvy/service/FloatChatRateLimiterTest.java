@@ -0,0 +1,122 @@
+package com.temporary22.aiagent.impl.aiAgent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloatChatRateLimiterTest {
+
+    private static final String USER = "user";
+
+    private FloatChatRateLimiter rateLimiter;
+    private final List<String> rejectedScopes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new FloatChatRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "metrics", new FloatChatMetrics() {
+            @Override
+            public void incrementRateLimited(String endpoint, String categoryCode, String scope) {
+                rejectedScopes.add(scope);
+            }
+        });
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "endpointLimits", "message=5/60,feedback=2/60");
+        ReflectionTestUtils.setField(rateLimiter, "categoryLimits", "a=3/60,b=3/60");
+        rateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("배치 중 한 카테고리가 거절되면 앞서 차감한 카테고리와 엔드포인트 버킷을 모두 되돌림")
+    void batchCategoryRejectionRefundsEverything() {
+        assertNull(acquire("a", 2));
+
+        FloatChatRateLimiter.Rejection rejection = rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_MESSAGE, USER,
+                permits("b", 2, "a", 2));
+
+        assertNotNull(rejection);
+        assertEquals(FloatChatRateLimiter.SCOPE_CATEGORY, rejection.toMap().get("scope"));
+        assertEquals("a", rejection.toMap().get("categoryCode"));
+        // b 는 가득 찬 상태 그대로, 엔드포인트는 a 의 2건만 차감된 상태
+        assertNull(acquire("b", 3));
+        assertNotNull(acquire("b", 1));
+        assertEquals(FloatChatRateLimiter.SCOPE_CATEGORY, rejectedScopes.get(0));
+    }
+
+    @Test
+    @DisplayName("엔드포인트 한도에 막힌 배치는 카테고리 버킷을 되돌림")
+    void batchEndpointRejectionRefundsCategories() {
+        assertNull(acquire("c", 4));
+
+        FloatChatRateLimiter.Rejection rejection = rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_MESSAGE, USER,
+                permits("a", 1, "b", 1));
+
+        assertNotNull(rejection);
+        assertEquals(FloatChatRateLimiter.SCOPE_ENDPOINT, rejection.toMap().get("scope"));
+        // 엔드포인트 한도를 풀고 카테고리 버킷이 가득 찬 상태인지 확인
+        ReflectionTestUtils.setField(rateLimiter, "limitByEndpoint", Collections.emptyMap());
+        assertNull(acquire("a", 3));
+        assertNull(acquire("b", 3));
+        assertNotNull(acquire("a", 1));
+    }
+
+    @Test
+    @DisplayName("버킷 크기보다 큰 요청은 버킷 크기만큼만 차감해 허용")
+    void oversizedRequestIsCappedAtCapacity() {
+        assertNull(acquire("c", 50));
+
+        FloatChatRateLimiter.Rejection rejection = acquire("c", 1);
+
+        assertNotNull(rejection);
+        assertTrue(rejection.getRetryAfterSeconds() >= 1);
+        assertEquals(5, rejection.toMap().get("limit"));
+    }
+
+    @Test
+    @DisplayName("사용자와 엔드포인트별로 버킷을 따로 둠")
+    void bucketsArePerUserAndEndpoint() {
+        assertNull(acquire("c", 5));
+        assertNotNull(acquire("c", 1));
+
+        assertNull(rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_MESSAGE, "other", "c", 1));
+        assertNull(rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_FEEDBACK, USER, "a", 2));
+        assertNotNull(rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_FEEDBACK, USER, "a", 1));
+    }
+
+    @Test
+    @DisplayName("비활성화하면 항상 허용")
+    void disabledAlwaysAllows() {
+        ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+        for (int i = 0; i < 10; i++) {
+            assertNull(acquire("a", 5));
+        }
+    }
+
+    // === Private 메서드들 ===
+
+    private FloatChatRateLimiter.Rejection acquire(String categoryCode, int permits) {
+        return rateLimiter.tryAcquire(FloatChatRateLimiter.ENDPOINT_MESSAGE, USER, categoryCode, permits);
+    }
+
+    private static Map<String, Integer> permits(String firstCategory, int firstPermits,
+                                                String secondCategory, int secondPermits) {
+        Map<String, Integer> permits = new LinkedHashMap<>();
+        permits.put(firstCategory, firstPermits);
+        permits.put(secondCategory, secondPermits);
+        return permits;
+    }
+}
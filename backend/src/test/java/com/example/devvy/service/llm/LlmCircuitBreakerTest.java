@@ -0,0 +1,124 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmCircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50L;
+
+    @Test
+    @DisplayName("실패 비율이 임계값 이상이면 OPEN, 차단 시간 후 HALF_OPEN, 시험 호출이 모두 성공하면 CLOSED")
+    void opensThenHalfOpensThenCloses() throws InterruptedException {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(true, 4, 4, 0.5, OPEN_MILLIS, 2);
+        recordCalls(breaker, true, true, false, false);
+
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+
+        Thread.sleep(OPEN_MILLIS + 20);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "시험 호출 허용 수를 넘으면 거절");
+
+        breaker.onSuccess();
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStats().get("windowCalls"));
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 시험 호출이 실패하면 다시 OPEN")
+    void halfOpenFailureReopens() throws InterruptedException {
+        LlmCircuitBreaker breaker = openBreaker(2);
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 시험 호출이 취소되면 허용 수를 되돌리고 상태는 유지")
+    void halfOpenCancellationReturnsPermit() throws InterruptedException {
+        LlmCircuitBreaker breaker = openBreaker(1);
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire(), "취소된 시험 호출의 자리를 다시 허용");
+        breaker.onSuccess();
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 에서 취소를 여러 번 받아도 허용 수가 늘어나지 않음")
+    void halfOpenCancellationDoesNotInflatePermits() throws InterruptedException {
+        LlmCircuitBreaker breaker = openBreaker(1);
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+        breaker.onIgnored();
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("CLOSED 상태의 취소는 실패 비율에 세지 않음")
+    void cancellationsAreIgnoredWhileClosed() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(true, 4, 2, 0.5, OPEN_MILLIS, 1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onIgnored();
+        }
+        assertEquals(0, breaker.getStats().get("windowCalls"));
+
+        recordCalls(breaker, true, false);
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("비활성화하면 실패가 이어져도 항상 허용")
+    void disabledAlwaysAllows() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(false, 4, 1, 0.5, OPEN_MILLIS, 1);
+        recordCalls(breaker, false, false, false, false);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    // === Private 메서드들 ===
+
+    private static LlmCircuitBreaker openBreaker(int halfOpenCalls) {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(true, 2, 2, 0.5, OPEN_MILLIS, halfOpenCalls);
+        recordCalls(breaker, false, false);
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void recordCalls(LlmCircuitBreaker breaker, boolean... successes) {
+        for (boolean success : successes) {
+            assertTrue(breaker.tryAcquire());
+            if (success) {
+                breaker.onSuccess();
+            } else {
+                breaker.onFailure();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.temporary22.aiagent.impl.aiAgent.llm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientLlmClientTest {
+
+    private static final long OPEN_MILLIS = 50L;
+
+    private PendingLlmClient delegate;
+    private LlmCircuitBreaker breaker;
+    private ResilientLlmClient client;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new PendingLlmClient();
+        breaker = new LlmCircuitBreaker(true, 2, 2, 0.5, OPEN_MILLIS, 1);
+        client = new ResilientLlmClient(delegate, breaker, new LlmLatencyRecorder(100), false, 0L, 0.0, 0);
+    }
+
+    @Test
+    @DisplayName("호출 측 취소는 실패로 세지 않아 회로가 열리지 않음")
+    void cancelledCallsDoNotOpenBreaker() {
+        for (int i = 0; i < 5; i++) {
+            LlmDeadline deadline = LlmDeadline.none();
+            CompletableFuture<String> result = client.call("cat", "system", "user", deadline);
+            deadline.cancel();
+
+            assertThrows(CancellationException.class, result::join);
+            assertTrue(delegate.calls.get(i).isCancelled(), "진행 중인 호출도 취소");
+        }
+
+        assertEquals(5, client.getCancelledCount());
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStats().get("windowCalls"));
+    }
+
+    @Test
+    @DisplayName("실패가 이어지면 회로가 열리고 이후 호출은 LLM 을 부르지 않고 실패")
+    void failuresOpenBreakerAndShortCircuit() {
+        failNextCalls(2);
+        assertEquals(LlmCircuitBreaker.State.OPEN, breaker.getState());
+
+        CompletableFuture<String> rejected = client.call("cat", "system", "user", LlmDeadline.none());
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(error.getCause() instanceof LlmCallException);
+        assertEquals(2, delegate.calls.size());
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 시험 호출이 취소되면 다음 호출이 시험 호출이 되고, 성공하면 CLOSED")
+    void cancelledProbeIsRetriedThenCloses() throws InterruptedException {
+        failNextCalls(2);
+        Thread.sleep(OPEN_MILLIS + 20);
+
+        LlmDeadline cancelled = LlmDeadline.none();
+        CompletableFuture<String> probe = client.call("cat", "system", "user", cancelled);
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        cancelled.cancel();
+        assertThrows(CancellationException.class, probe::join);
+        assertEquals(LlmCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        CompletableFuture<String> retry = client.call("cat", "system", "user", LlmDeadline.none());
+        assertEquals(4, delegate.calls.size(), "취소된 시험 호출의 자리로 다시 호출");
+        delegate.calls.get(3).complete("answer");
+
+        assertEquals("answer", retry.join());
+        assertEquals(LlmCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("기한이 지난 요청은 LLM 을 부르지 않고 실패하며 회로 상태에 영향 없음")
+    void expiredDeadlineIsRejectedWithoutCall() throws InterruptedException {
+        LlmDeadline deadline = LlmDeadline.after(1);
+        Thread.sleep(5);
+
+        CompletableFuture<String> result = client.call("cat", "system", "user", deadline);
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(0, delegate.calls.size());
+        assertEquals(1, client.getDeadlineRejectedCount());
+        assertEquals(0, breaker.getStats().get("windowCalls"));
+    }
+
+    // === Private 메서드들 ===
+
+    private void failNextCalls(int count) {
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<String> result = client.call("cat", "system", "user", LlmDeadline.none());
+            delegate.calls.get(delegate.calls.size() - 1).completeExceptionally(new LlmCallException("LLM 응답 오류"));
+            assertThrows(CompletionException.class, result::join);
+        }
+    }
+
+    /**
+     * 호출마다 완료되지 않은 future 를 돌려주고, 테스트가 직접 완료합니다.
+     */
+    private static final class PendingLlmClient implements LlmClient {
+
+        private final List<CompletableFuture<String>> calls = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<String> call(String categoryCode, String systemPrompt, String userPrompt,
+                                              LlmDeadline deadline) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+
+        @Override
+        public CompletableFuture<Void> stream(String categoryCode, String systemPrompt, String userPrompt,
+                                              LlmDeadline deadline, Consumer<String> onChunk) {
+            return CompletableFuture.failedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public String getEndpoint() {
+            return "pending";
+        }
+    }
+}
@@ -41,6 +41,66 @@ chatAxios.interceptors.response.use(
   }
 );
 
+/**
+ * SSE 응답을 받는 POST 요청 (EventSource 는 POST 를 지원하지 않아 fetch 스트림으로 직접 파싱)
+ * handleEvent(eventName, data, result) 에서 result.response 를 채우면 최종 결과로 반환합니다.
+ */
+function postEventStream(path, data, handleEvent) {
+  return fetch(`${baseUrl}${path}`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      'Accept': 'text/event-stream'
+    },
+    body: JSON.stringify(data)
+  }).then(response => {
+    if (!response.ok) {
+      // 429/400 등 오류 응답은 SSE 가 아닌 JSON 본문(또는 빈 본문)이므로 axios 경로처럼 본문을 그대로 반환
+      const retryAfter = response.headers.get('Retry-After');
+      return response.json()
+        .catch(() => null)
+        .then(body => ({
+          success: false,
+          errorMessage: response.status === 429
+            ? '요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.'
+            : `요청 처리 실패 (${response.status})`,
+          ...(body || {}),
+          status: response.status,
+          retryAfter: retryAfter ? Number(retryAfter) : undefined
+        }));
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder('utf-8');
+    const result = { response: null };
+    let buffer = '';
+
+    const read = () => reader.read().then(({ done, value }) => {
+      if (done) {
+        return result.response || { success: false, errorMessage: '스트리밍 응답이 중단되었습니다.' };
+      }
+
+      buffer += decoder.decode(value, { stream: true });
+      const events = buffer.split('\n\n');
+      buffer = events.pop();
+
+      events.forEach(rawEvent => {
+        let eventName = 'message';
+        const dataLines = [];
+        rawEvent.split('\n').forEach(line => {
+          if (line.startsWith('event:')) eventName = line.slice(6).trim();
+          else if (line.startsWith('data:')) dataLines.push(line.slice(5));
+        });
+        handleEvent(eventName, dataLines.join('\n'), result);
+      });
+
+      return read();
+    });
+
+    return read();
+  });
+}
+
 const floatChatService = {
 
   // ===== API 호출 메서드 (간단한 axios 방식) =====
@@ -97,6 +157,32 @@ const floatChatService = {
       });
   },
 
+  // === 지식베이스 관리 API ===
+
+  addKnowledgeDocument(categoryCode, source, content) {
+    return chatAxios.post(`/categories/${categoryCode}/knowledge`, { source, content })
+      .then(response => response.data)
+      .catch(error => {
+        console.error('지식베이스 문서 추가 실패:', error);
+        if (error.response && error.response.data) {
+          return error.response.data;
+        }
+        throw error;
+      });
+  },
+
+  clearKnowledge(categoryCode) {
+    return chatAxios.delete(`/categories/${categoryCode}/knowledge`)
+      .then(response => response.data)
+      .catch(error => {
+        console.error('지식베이스 삭제 실패:', error);
+        if (error.response && error.response.data) {
+          return error.response.data;
+        }
+        throw error;
+      });
+  },
+
   // === 메시지 처리 (requestIdleCallback 사용) ===
 
   sendMessage(data, useAsync = false) {
@@ -153,6 +239,120 @@ const floatChatService = {
     return this.sendMessage(data, true);
   },
 
+  /**
+   * SSE 스트리밍으로 메시지를 전송합니다.
+   * onChunk로 응답 조각을 전달하고, 완료 시 기존 응답과 같은 형태로 resolve합니다.
+   */
+  sendMessageStream(data, onChunk) {
+    let fullText = '';
+
+    const handleEvent = (eventName, payload, result) => {
+      if (eventName === 'chunk') {
+        fullText += payload;
+        if (onChunk) onChunk(payload, fullText);
+      } else if (eventName === 'done') {
+        const done = JSON.parse(payload);
+        result.response = { ...done, aiResponse: fullText };
+      } else if (eventName === 'error') {
+        result.response = JSON.parse(payload);
+      }
+    };
+
+    return postEventStream('/message/stream', data, handleEvent)
+      .catch(error => {
+        console.error('스트리밍 메시지 전송 실패:', error);
+        throw error;
+      });
+  },
+
+  /**
+   * 메시지 작업을 접수합니다. 같은 idempotencyKey 로 다시 보내면 같은 작업(jobId)을 돌려받습니다.
+   */
+  submitMessageJob(data, idempotencyKey) {
+    return chatAxios.post('/message/jobs', data, { headers: { 'Idempotency-Key': idempotencyKey } })
+      .then(response => response.data);
+  },
+
+  /**
+   * 메시지 작업 상태를 조회합니다. waitMs 를 주면 작업이 끝날 때까지 최대 waitMs 동안 기다립니다.
+   */
+  getMessageJob(jobId, waitMs = 0) {
+    return chatAxios.get(`/message/jobs/${jobId}`, { params: { wait: waitMs } })
+      .then(response => response.data);
+  },
+
+  /**
+   * 작업 API 로 메시지를 전송하고 완료될 때까지 조회합니다.
+   * 접수/조회 요청이 네트워크 오류로 끊기면 같은 idempotencyKey 로 다시 시도하므로 LLM 을 중복 호출하지 않습니다.
+   */
+  async sendMessageJob(data, { waitMs = 25000, maxAttempts = 10 } = {}) {
+    const idempotencyKey = window.crypto && window.crypto.randomUUID
+      ? window.crypto.randomUUID()
+      : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
+    let jobId = null;
+    let failures = 0;
+    while (failures < maxAttempts) {
+      try {
+        const response = jobId
+          ? await this.getMessageJob(jobId, waitMs)
+          : await this.submitMessageJob(data, idempotencyKey);
+        const job = response.data;
+        jobId = job.jobId;
+        if (job.status === 'SUCCEEDED') {
+          return { ...response, success: true, conversationId: job.conversationId, aiResponse: job.aiResponse };
+        }
+        if (job.status === 'FAILED') {
+          return { ...response, success: false, errorMessage: job.errorMessage };
+        }
+      } catch (error) {
+        // 서버가 응답한 오류(400/404/429 등)는 그대로 반환하고, 연결 오류만 다시 시도
+        if (error.response && error.response.data) {
+          return error.response.data;
+        }
+        failures += 1;
+        console.warn('[FloatChat] 메시지 작업 요청 재시도:', failures, error.message);
+        await new Promise(resolve => setTimeout(resolve, Math.min(1000 * failures, 5000)));
+      }
+    }
+    throw new Error('메시지 작업 결과를 받지 못했습니다.');
+  },
+
+  /**
+   * 여러 질문을 한 번에 전송합니다. (items: [{ categoryCode, userQuestion }])
+   */
+  sendMessageBatch(items) {
+    return chatAxios.post('/message/batch', { items }, { timeout: 120000 })
+      .then(response => response.data)
+      .catch(error => {
+        console.error('배치 메시지 전송 실패:', error);
+        if (error.response && error.response.data) {
+          return error.response.data;
+        }
+        throw error;
+      });
+  },
+
+  /**
+   * 여러 질문을 한 번에 전송하고 항목 결과를 완료되는 순서대로 onItem 으로 받습니다.
+   * 최종 결과(done)에는 저장된 conversationId 가 포함됩니다.
+   */
+  sendMessageBatchStream(items, onItem) {
+    const handleEvent = (eventName, payload, result) => {
+      if (eventName === 'item') {
+        if (onItem) onItem(JSON.parse(payload));
+      } else if (eventName === 'done' || eventName === 'error') {
+        result.response = JSON.parse(payload);
+      }
+    };
+
+    return postEventStream('/message/batch/stream', { items }, handleEvent)
+      .catch(error => {
+        console.error('배치 스트리밍 메시지 전송 실패:', error);
+        throw error;
+      });
+  },
+
   getConversations(categoryCode) {
     return chatAxios.get(`/conversations/${categoryCode}`)
       .then(response => response.data)
@@ -162,6 +362,43 @@ const floatChatService = {
       });
   },
 
+  /**
+   * 대화 목록을 커서 기반으로 조회합니다. (AI 응답 제외, nextCursor로 이전 대화 조회)
+   */
+  getConversationPage(categoryCode, cursor = null, size = 20) {
+    const params = { size };
+    if (cursor) params.cursor = cursor;
+
+    return chatAxios.get(`/conversations/${categoryCode}`, { params })
+      .then(response => response.data)
+      .catch(error => {
+        console.error('대화 페이지 조회 실패:', error);
+        throw error;
+      });
+  },
+
+  getConversation(categoryCode, conversationId) {
+    return chatAxios.get(`/conversations/${categoryCode}/${conversationId}`)
+      .then(response => response.data)
+      .catch(error => {
+        console.error('대화 상세 조회 실패:', error);
+        throw error;
+      });
+  },
+
+  searchConversations(query, categoryCode = null, size = 10) {
+    const params = { q: query, size };
+    if (categoryCode) {
+      params.categoryCode = categoryCode;
+    }
+    return chatAxios.get('/search', { params })
+      .then(response => response.data)
+      .catch(error => {
+        console.error('대화 검색 실패:', error);
+        throw error;
+      });
+  },
+
   sendFeedback(data) {
     return chatAxios.post('/feedback', data)
       .then(response => response.data)